@@ -0,0 +1,111 @@
+package com.farmtech.backend.bench;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Equipment;
+import com.farmtech.backend.entity.Farmer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson rendering of the payloads the booking endpoints return: a renter's booking
+ * list and an owner's invitation list, each with the full party graph loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingJsonBenchmark {
+
+    @Param({"10", "200"})
+    int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private List<Booking> bookings;
+    private List<BookingCandidate> candidates;
+
+    @Setup
+    public void setUp() {
+        Farmer renter = farmer(1L);
+        bookings = new ArrayList<>(size);
+        candidates = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            Farmer owner = farmer(100L + i);
+            Equipment equipment = new Equipment();
+            equipment.setId(1000L + i);
+            equipment.setName("Tractor " + i);
+            equipment.setType("Tractor");
+            equipment.setPrice(2400.0);
+            equipment.setPricePerHour(150.0);
+            equipment.setOwner(owner);
+
+            Booking booking = new Booking();
+            booking.setId(10_000L + i);
+            booking.setEquipment(equipment);
+            booking.setOwner(owner);
+            booking.setRenter(renter);
+            booking.setAcceptedOwner(i % 2 == 0 ? owner : null);
+            booking.setStartDate(LocalDate.of(2024, 1, 2));
+            booking.setHours(6);
+            booking.setStatus(i % 2 == 0 ? "CONFIRMED" : "AWAITING_OWNER");
+            booking.setLocation("Plot " + i + ", MIDC, Nashik 422001");
+            booking.setLocationLatitude(19.9975);
+            booking.setLocationLongitude(73.7898);
+            booking.setTotalCost(900.0);
+            booking.setCreatedAt(createdAt);
+            bookings.add(booking);
+
+            BookingCandidate candidate = new BookingCandidate();
+            candidate.setId(20_000L + i);
+            candidate.setBooking(booking);
+            candidate.setOwner(owner);
+            candidate.setDistanceKm(1.5 + i);
+            candidate.setStatus(CandidateStatus.NOTIFIED);
+            candidate.setInvitedAt(createdAt);
+            candidates.add(candidate);
+        }
+    }
+
+    @Benchmark
+    public byte[] renterBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] ownerInvitations() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(candidates);
+    }
+
+    private static Farmer farmer(Long id) {
+        Farmer farmer = new Farmer();
+        farmer.setId(id);
+        farmer.setName("Farmer " + id);
+        farmer.setPhone(String.valueOf(9000000000L + id));
+        farmer.setVillage("Ozar");
+        farmer.setLatitude(19.9975);
+        farmer.setLongitude(73.7898);
+        return farmer;
+    }
+}
@@ -0,0 +1,96 @@
+package com.farmtech.backend.bench;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.service.DistanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance from a booking location to N owners: the per-call haversine on boxed
+ * Farmer coordinates (how candidates were measured before the batch API) against
+ * the batch API on primitive radian arrays. "nearby" keeps every owner inside the
+ * equirectangular range, "spread" puts them anywhere in India.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+    private static final double TARGET_LAT = 19.0;
+    private static final double TARGET_LON = 73.0;
+
+    @Param({"1000", "100000", "1000000"})
+    int points;
+
+    @Param({"nearby", "spread"})
+    String layout;
+
+    private final DistanceService distanceService = new DistanceService();
+
+    private List<Farmer> farmers;
+    private double[] latsRad;
+    private double[] lonsRad;
+    private double[] cosLats;
+    private double[] distances;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        farmers = new ArrayList<>(points);
+        latsRad = new double[points];
+        lonsRad = new double[points];
+        cosLats = new double[points];
+        distances = new double[points];
+        for (int i = 0; i < points; i++) {
+            double lat;
+            double lon;
+            if ("nearby".equals(layout)) {
+                lat = TARGET_LAT + (random.nextDouble() - 0.5) * 0.8;
+                lon = TARGET_LON + (random.nextDouble() - 0.5) * 0.8;
+            } else {
+                lat = 8.0 + random.nextDouble() * 29.0;
+                lon = 68.0 + random.nextDouble() * 29.0;
+            }
+            Farmer farmer = new Farmer();
+            farmer.setLatitude(lat);
+            farmer.setLongitude(lon);
+            farmers.add(farmer);
+            latsRad[i] = Math.toRadians(lat);
+            lonsRad[i] = Math.toRadians(lon);
+            cosLats[i] = Math.cos(latsRad[i]);
+        }
+    }
+
+    @Benchmark
+    public void perCallOnFarmers(Blackhole blackhole) {
+        for (Farmer farmer : farmers) {
+            blackhole.consume(distanceService.distanceInKm(TARGET_LAT, TARGET_LON,
+                    farmer.getLatitude(), farmer.getLongitude()));
+        }
+    }
+
+    @Benchmark
+    public double[] batch() {
+        distanceService.distancesInKm(Math.toRadians(TARGET_LAT), Math.toRadians(TARGET_LON),
+                latsRad, lonsRad, cosLats, points, distances);
+        return distances;
+    }
+}
@@ -0,0 +1,184 @@
+package com.farmtech.backend.bench;
+
+import com.farmtech.backend.service.ImagePreprocessor;
+import com.farmtech.backend.service.MlServiceClient;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end cost of forwarding one plant-disease photo to the ML service, as
+ * MLUploadController does it, before and after server-side preprocessing:
+ * <ul>
+ *   <li>{@code original}: the camera JPEG streamed as it is</li>
+ *   <li>{@code downscaled}: decoded with subsampling, resized to 256 px and re-encoded
+ *       on the preprocessing pool, then sent</li>
+ * </ul>
+ * The ML service is a local endpoint that reads and discards the body, optionally
+ * throttled to {@code linkMbps} to stand in for the network to the ML host (0 = loopback
+ * speed). Bytes on the wire are reported through the {@code bytes} and {@code requests}
+ * counters; their ratio is the request size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImagePreprocessBenchmark {
+
+    @Param({"4000x3000"})
+    String resolution;
+
+    @Param({"0", "100"})
+    int linkMbps;
+
+    private final AtomicLong received = new AtomicLong();
+    private HttpServer server;
+    private ThreadPoolTaskExecutor executor;
+    private MlServiceClient client;
+    private ImagePreprocessor preprocessor;
+    private byte[] photo;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+        public long bytes;
+        public long requests;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] size = resolution.split("x");
+        photo = cameraPhoto(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/plant-disease-detection", exchange -> {
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            long start = System.nanoTime();
+            try (InputStream body = exchange.getRequestBody()) {
+                for (int n; (n = body.read(buffer)) != -1; ) {
+                    total += n;
+                    throttle(total, start);
+                }
+            }
+            received.addAndGet(total);
+            byte[] response = "{\"disease\":\"healthy\"}".getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+
+        client = new MlServiceClient("http://127.0.0.1:" + server.getAddress().getPort(), 2000,
+                new StandardEnvironment(), new SimpleMeterRegistry());
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(16);
+        executor.initialize();
+        preprocessor = new ImagePreprocessor(executor, 256, 0.9f, 100_000_000L, 10_000L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> original(Wire wire) {
+        return forward(wire, new ByteArrayResource(photo), "leaf.jpg");
+    }
+
+    @Benchmark
+    public ResponseEntity<?> downscaled(Wire wire) {
+        byte[] jpeg = preprocessor.preprocess(new ByteArrayResource(photo)).orElseThrow().jpeg();
+        return forward(wire, new ByteArrayResource(jpeg), "leaf.jpg");
+    }
+
+    private ResponseEntity<?> forward(Wire wire, Resource image, String filename) {
+        HttpHeaders fileHeaders = new HttpHeaders();
+        fileHeaders.setContentType(MediaType.IMAGE_JPEG);
+        fileHeaders.setContentDisposition(ContentDisposition.builder("form-data").name("file").filename(filename).build());
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new HttpEntity<>(image, fileHeaders));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        long before = received.get();
+        ResponseEntity<?> response = client.post("/plant-disease-detection", new HttpEntity<>(body, headers));
+        wire.bytes += received.get() - before;
+        wire.requests++;
+        return response;
+    }
+
+    private void throttle(long bytes, long startNanos) {
+        if (linkMbps <= 0) {
+            return;
+        }
+        long dueNanos = bytes * 8_000L / linkMbps;
+        long aheadNanos = dueNanos - (System.nanoTime() - startNanos);
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Fine detail plus sensor noise, so it compresses about as badly as a real leaf photo
+    private static byte[] cameraPhoto(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int green = 90 + (int) (60 * Math.sin(x / 37.0) * Math.cos(y / 23.0)) + random.nextInt(40);
+                int red = 40 + ((x * y) >> 12 & 0x3F) + random.nextInt(30);
+                int blue = 20 + random.nextInt(30);
+                image.setRGB(x, y, Math.min(255, red) << 16 | Math.min(255, green) << 8 | blue);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+}
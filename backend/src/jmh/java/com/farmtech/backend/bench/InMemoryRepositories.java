@@ -0,0 +1,68 @@
+package com.farmtech.backend.bench;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.repository.BookingCandidateRepository;
+import com.farmtech.backend.repository.FarmerRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories a benchmark touches, so hot
+ * paths can be measured without MySQL. Only the listed methods are implemented; any
+ * other call fails loudly instead of silently returning null.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {}
+
+    public static FarmerRepository farmers(Map<Long, Farmer> farmersById) {
+        return stub(FarmerRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(farmersById.get(args[0])),
+                "findAllById", args -> {
+                    List<Farmer> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        Farmer farmer = farmersById.get(id);
+                        if (farmer != null) {
+                            found.add(farmer);
+                        }
+                    }
+                    return found;
+                }));
+    }
+
+    // Never reports existing candidates, and counts inserted rows instead of keeping them
+    public static BookingCandidateRepository candidates(AtomicLong inserted) {
+        return stub(BookingCandidateRepository.class, Map.of(
+                "existsByBookingId", args -> false,
+                "insertAll", args -> {
+                    inserted.addAndGet(((List<?>) args[0]).size());
+                    return null;
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> handler = methods.get(method.getName());
+                    if (handler == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return handler.apply(args);
+            }
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package com.farmtech.backend.bench;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request-thread cost of logging one renter-bookings response ({@code rows} bookings),
+ * with eight request threads sharing the sink:
+ * <ul>
+ *   <li>{@code println}: the old style, an autoflushing PrintStream like System.out</li>
+ *   <li>{@code asyncDebugOn}: the same lines as key-value events through logback's
+ *       AsyncAppender, as configured in logback-spring.xml. That appender never blocks:
+ *       once its queue is 80% full it discards DEBUG events, so under this load much of
+ *       what is timed is the discard path. The share written is printed at the end of
+ *       the trial</li>
+ *   <li>{@code asyncDebugOnLossless}: the same events through an AsyncAppender that
+ *       discards nothing and blocks when full, so every line is written as with
+ *       {@code println}; this is the like-for-like comparison</li>
+ *   <li>{@code asyncDebugOff}: the production default (INFO), where the summary is
+ *       dropped by the level check and the per-row loop never runs</li>
+ * </ul>
+ * All sinks are files so writes reach the OS as they would on a console.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    @Param({"20"})
+    int rows;
+
+    private Path directory;
+    private PrintStream printStream;
+    private LoggerContext loggerContext;
+    private Logger debugLogger;
+    private Logger losslessLogger;
+    private Logger quietLogger;
+    private final LongAdder logged = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("request-logging");
+        printStream = new PrintStream(new FileOutputStream(directory.resolve("println.log").toFile()), true);
+
+        // A context built by hand has no MDC adapter until given one, and every event fails without it
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        loggerContext.start();
+
+        // As in logback-spring.xml: never blocks, discards below WARN when 80% full
+        AsyncAppender production = async(file("async.log", written));
+        production.setNeverBlock(true);
+        production.start();
+        // Blocks request threads when full and discards nothing
+        AsyncAppender lossless = async(file("lossless.log", null));
+        lossless.setNeverBlock(false);
+        lossless.setDiscardingThreshold(0);
+        lossless.start();
+
+        debugLogger = logger("bench.debug", ch.qos.logback.classic.Level.DEBUG, production);
+        losslessLogger = logger("bench.lossless", ch.qos.logback.classic.Level.DEBUG, lossless);
+        quietLogger = logger("bench.quiet", ch.qos.logback.classic.Level.INFO, production);
+    }
+
+    private FileAppender<ILoggingEvent> file(String name, AtomicLong counter) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %5p [%t] %logger{39} : %m %kvp%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>() {
+            @Override
+            protected void subAppend(ILoggingEvent event) {
+                super.subAppend(event);
+                if (counter != null) {
+                    counter.incrementAndGet();
+                }
+            }
+        };
+        file.setContext(loggerContext);
+        file.setFile(directory.resolve(name).toString());
+        file.setEncoder(encoder);
+        file.start();
+        return file;
+    }
+
+    private AsyncAppender async(FileAppender<ILoggingEvent> file) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(8192);
+        // Drain fully on stop so the written count at teardown is exact
+        async.setMaxFlushTime(0);
+        async.addAppender(file);
+        return async;
+    }
+
+    private Logger logger(String name, ch.qos.logback.classic.Level level, AsyncAppender appender) {
+        ch.qos.logback.classic.Logger logger = loggerContext.getLogger(name);
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        printStream.close();
+        // Stopping drains the queues, so everything not discarded has been written by now
+        loggerContext.stop();
+        if (logged.sum() > 0) {
+            System.out.printf("asyncDebugOn wrote %d of %d events (%.1f%% discarded)%n",
+                    written.get(), logged.sum(), 100.0 * (logged.sum() - written.get()) / logged.sum());
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void println() {
+        printStream.println("=== FETCHING ALL BOOKINGS FOR RENTER ===");
+        printStream.println("Renter ID from path: " + 42L);
+        printStream.println("Found " + rows + " bookings for renter " + 42L);
+        for (int i = 0; i < rows; i++) {
+            printStream.println("  - Booking ID: " + (10_000L + i)
+                    + ", Status: CONFIRMED"
+                    + ", Renter ID: " + 42L
+                    + ", Equipment: Tractor " + i);
+        }
+        printStream.println("=== FETCH COMPLETE ===");
+    }
+
+    @Benchmark
+    public void asyncDebugOn() {
+        logRequest(debugLogger);
+        logged.add(rows + 1);
+    }
+
+    @Benchmark
+    public void asyncDebugOnLossless() {
+        logRequest(losslessLogger);
+    }
+
+    @Benchmark
+    public void asyncDebugOff() {
+        logRequest(quietLogger);
+    }
+
+    // Mirrors BookingController.getRenterBookings
+    private void logRequest(Logger log) {
+        log.atDebug().addKeyValue("renterId", 42L).addKeyValue("count", rows).log("Fetched renter bookings");
+        if (log.isDebugEnabled()) {
+            for (int i = 0; i < rows; i++) {
+                log.atDebug()
+                        .addKeyValue("bookingId", 10_000L + i)
+                        .addKeyValue("status", "CONFIRMED")
+                        .addKeyValue("renterId", 42L)
+                        .addKeyValue("equipment", "Tractor " + i)
+                        .log("Renter booking");
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.farmtech.backend.controller;
+
+import com.farmtech.backend.entity.Equipment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Per-request helpers of BookingController: arrival-time parsing and cost calculation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingControllerBenchmark {
+
+    @Param({"30 minutes", "2 hours", "2 hours 30 minutes", "45", "soon"})
+    String estimatedTime;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private Equipment hourlyEquipment;
+    private Equipment dailyEquipment;
+
+    @Setup
+    public void setUp() {
+        hourlyEquipment = new Equipment();
+        hourlyEquipment.setPrice(2400.0);
+        hourlyEquipment.setPricePerHour(150.0);
+        dailyEquipment = new Equipment();
+        dailyEquipment.setPrice(2400.0);
+    }
+
+    @Benchmark
+    public LocalDateTime calculateArrivalTime() {
+        return BookingController.calculateArrivalTime(now, estimatedTime);
+    }
+
+    @Benchmark
+    public Double calculateTotalCostHourly() {
+        return BookingController.calculateTotalCost(hourlyEquipment, 7);
+    }
+
+    @Benchmark
+    public Double calculateTotalCostFromDailyPrice() {
+        return BookingController.calculateTotalCost(dailyEquipment, 7);
+    }
+}
@@ -0,0 +1,98 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.bench.InMemoryRepositories;
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.Farmer;
+import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookingCandidateService.createCandidateEntries for one booking: grid lookup,
+ * distance ranking, owner load and candidate construction, against in-memory
+ * repositories. Owners are spread over ~120 km around the booking, so roughly a
+ * sixth of them fall inside the 50 km search radius.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandidateGenerationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int owners;
+
+    @Param({"200"})
+    int maxCandidates;
+
+    private OwnerLocationIndex index;
+    private BookingCandidateService candidateService;
+    private Booking booking;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        index = new OwnerLocationIndex(null, null, new DistanceService());
+        Map<Long, Farmer> farmersById = new HashMap<>();
+        Random random = new Random(11);
+        for (long id = 1; id <= owners; id++) {
+            Farmer owner = new Farmer();
+            owner.setId(id);
+            owner.setName("Owner " + id);
+            owner.setPhone(String.valueOf(9000000000L + id));
+            owner.setLatitude(19.0 + (random.nextDouble() - 0.5) * 1.1);
+            owner.setLongitude(73.0 + (random.nextDouble() - 0.5) * 1.1);
+            index.index(owner);
+            farmersById.put(id, owner);
+        }
+
+        candidateService = new BookingCandidateService(index, InMemoryRepositories.farmers(farmersById),
+                InMemoryRepositories.candidates(new AtomicLong()), new BookingEventHub(),
+                new BookingMetrics(new SimpleMeterRegistry()));
+        Field max = BookingCandidateService.class.getDeclaredField("maxCandidates");
+        max.setAccessible(true);
+        max.setInt(candidateService, maxCandidates);
+
+        Farmer equipmentOwner = new Farmer();
+        equipmentOwner.setId(0L);
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setOwner(equipmentOwner);
+        booking.setLocationLatitude(19.0);
+        booking.setLocationLongitude(73.0);
+
+        // logback-spring.xml is not applied in the fork, and Logback's default configuration
+        // would format the service's DEBUG lines to stdout; production runs at INFO
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.farmtech")).setLevel(Level.INFO);
+    }
+
+    @Benchmark
+    public int createCandidateEntries() {
+        return candidateService.createCandidateEntries(booking);
+    }
+
+    // The index lookup alone, to separate it from candidate construction
+    @Benchmark
+    public Object findNearest() {
+        return index.findNearest(19.0, 73.0, BookingCandidateService.SEARCH_RADIUS_KM, maxCandidates, 0L);
+    }
+}
@@ -0,0 +1,419 @@
+package com.farmtech.backend.loadtest;
+
+import com.farmtech.backend.BackendApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the booking flows, reporting throughput and latency
+ * percentiles (HdrHistogram) per endpoint:
+ * <ul>
+ *   <li>renters create bookings near a common centre ({@code POST /api/bookings/create})</li>
+ *   <li>owners poll their invitations and race to accept one
+ *       ({@code GET /owner/{id}/pending-invitations}, {@code PATCH /{bookingId}/accept})</li>
+ *   <li>admins read the global analytics ({@code GET /api/analytics/global})</li>
+ * </ul>
+ * Without {@code --base-url} the backend is started in this JVM on an in-memory H2
+ * database; with it, a running instance (e.g. on local MySQL) is targeted. Owners,
+ * renters and equipment are seeded through the public API first.
+ *
+ * <pre>
+ *   mvn -Pbench -DskipTests compile exec:exec@loadtest -Dloadtest.args="renters=16 owners=64 duration=60"
+ * </pre>
+ * Options ({@code --name=value}, the dashes may be left off): base-url, renters, owners,
+ * admins (concurrent workers), seed-owners, seed-renters, equipment, warmup and duration
+ * (seconds), owner-poll-ms, admin-poll-ms, renter-think-ms, report-dir.
+ *
+ * Workers wait for each response before sending the next request, so latencies are
+ * service times under the offered concurrency, not under a fixed arrival rate.
+ */
+public final class BookingLoadTest {
+
+    private static final double CENTER_LAT = 19.9975;
+    private static final double CENTER_LON = 73.7898;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Options options;
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Endpoint create = new Endpoint("POST /bookings/create");
+    private final Endpoint pendingInvitations = new Endpoint("GET /owner/{id}/pending-invitations");
+    private final Endpoint accept = new Endpoint("PATCH /bookings/{id}/accept");
+    private final Endpoint globalAnalytics = new Endpoint("GET /analytics/global");
+    private final List<Endpoint> endpoints = List.of(create, pendingInvitations, accept, globalAnalytics);
+
+    private final List<Long> ownerFarmerIds = new ArrayList<>();
+    private final List<Long> renterUserIds = new ArrayList<>();
+    private final List<Long> equipmentIds = new ArrayList<>();
+
+    private volatile boolean running = true;
+
+    private BookingLoadTest(Options options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Files.createDirectories(options.reportDir);
+
+        PrintStream console = System.out;
+        ConfigurableApplicationContext app = null;
+        String baseUrl = options.baseUrl;
+        if (baseUrl == null) {
+            // The backend logs to stdout; keep that in a file so the report stays readable
+            System.setOut(new PrintStream(new FileOutputStream(options.reportDir.resolve("app.log").toFile()), true));
+            app = startEmbedded();
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        int exitCode = 0;
+        try {
+            BookingLoadTest loadTest = new BookingLoadTest(options, baseUrl);
+            loadTest.seed(console);
+            loadTest.run(console);
+        } catch (Exception e) {
+            e.printStackTrace(console);
+            exitCode = 1;
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            System.setOut(console);
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext startEmbedded() {
+        return SpringApplication.run(BackendApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--sms.enabled=false");
+    }
+
+    private void seed(PrintStream console) throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        JsonNode admin = register("ADMIN", "lt-" + run + "-admin");
+        long adminUserId = admin.path("userId").asLong();
+
+        for (int i = 0; i < options.seedOwners; i++) {
+            long farmerId = register("OWNER", "lt-" + run + "-owner-" + i).path("farmerId").asLong();
+            // Owners within ~30 km of the centre, so every booking has candidates
+            send(HttpRequest.newBuilder(uri("/api/farmers/profile/" + farmerId))
+                    .header("Content-Type", "application/json")
+                    .PUT(json(Map.of(
+                            "latitude", CENTER_LAT + (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.5,
+                            "longitude", CENTER_LON + (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.5)))
+                    .build());
+            ownerFarmerIds.add(farmerId);
+        }
+        for (int i = 0; i < options.seedRenters; i++) {
+            renterUserIds.add(register("RENTER", "lt-" + run + "-renter-" + i).path("userId").asLong());
+        }
+        for (int i = 0; i < options.equipment; i++) {
+            long ownerId = ownerFarmerIds.get(i % ownerFarmerIds.size());
+            JsonNode equipment = send(HttpRequest.newBuilder(uri("/api/equipments/add/" + ownerId + "?userId=" + adminUserId))
+                    .header("Content-Type", "application/json")
+                    .POST(json(Map.of("name", "Tractor " + i, "type", "Tractor", "price", 2400.0, "pricePerHour", 150.0)))
+                    .build());
+            equipmentIds.add(equipment.path("id").asLong());
+        }
+        console.printf("Seeded %d owners, %d renters and %d equipment against %s%n",
+                ownerFarmerIds.size(), renterUserIds.size(), equipmentIds.size(), baseUrl);
+    }
+
+    private void run(PrintStream console) throws InterruptedException, IOException {
+        int workers = options.renters + options.owners + options.admins;
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < options.renters; i++) {
+            pool.submit(this::renterLoop);
+        }
+        for (int i = 0; i < options.owners; i++) {
+            pool.submit(this::ownerLoop);
+        }
+        for (int i = 0; i < options.admins; i++) {
+            pool.submit(this::adminLoop);
+        }
+
+        console.printf("Warming up for %d s with %d renters, %d owners, %d admins...%n",
+                options.warmupSeconds, options.renters, options.owners, options.admins);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSeconds));
+        endpoints.forEach(Endpoint::startInterval);
+        long measureStart = System.nanoTime();
+
+        console.printf("Measuring for %d s...%n", options.durationSeconds);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.durationSeconds));
+        List<Histogram> measured = new ArrayList<>();
+        endpoints.forEach(endpoint -> measured.add(endpoint.endInterval()));
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+        running = false;
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+
+        report(console, measured, seconds);
+    }
+
+    private void renterLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            long equipmentId = equipmentIds.get(random.nextInt(equipmentIds.size()));
+            long renterId = renterUserIds.get(random.nextInt(renterUserIds.size()));
+            String path = "/api/bookings/create?equipmentId=" + equipmentId
+                    + "&renterId=" + renterId
+                    + "&startDate=" + LocalDate.now().plusDays(1)
+                    + "&hours=4"
+                    + "&location=" + URLEncoder.encode("Load test field", StandardCharsets.UTF_8)
+                    + "&locationLatitude=" + (CENTER_LAT + (random.nextDouble() - 0.5) * 0.2)
+                    + "&locationLongitude=" + (CENTER_LON + (random.nextDouble() - 0.5) * 0.2);
+            call(create, HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build());
+            pause(options.renterThinkMs);
+        }
+    }
+
+    private void ownerLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            long ownerId = ownerFarmerIds.get(random.nextInt(ownerFarmerIds.size()));
+            HttpResponse<String> response = call(pendingInvitations,
+                    HttpRequest.newBuilder(uri("/api/bookings/owner/" + ownerId + "/pending-invitations")).GET().build());
+            JsonNode invitations = parse(response);
+            if (invitations != null && invitations.isArray() && !invitations.isEmpty()) {
+                // A random invitation rather than the oldest, so owners also race on fresh bookings
+                long bookingId = invitations.get(random.nextInt(invitations.size())).path("booking").path("id").asLong();
+                call(accept, HttpRequest.newBuilder(uri("/api/bookings/" + bookingId + "/accept?ownerId=" + ownerId))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build());
+            }
+            pause(options.ownerPollMs);
+        }
+    }
+
+    private void adminLoop() {
+        while (running) {
+            call(globalAnalytics, HttpRequest.newBuilder(uri("/api/analytics/global")).GET().build());
+            pause(options.adminPollMs);
+        }
+    }
+
+    private HttpResponse<String> call(Endpoint endpoint, HttpRequest request) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            endpoint.record(System.nanoTime() - started, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            endpoint.record(System.nanoTime() - started, -1);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+            return null;
+        }
+    }
+
+    private void report(PrintStream console, List<Histogram> measured, double seconds) throws IOException {
+        console.printf("%nMeasured %.1f s%n", seconds);
+        console.printf("%-38s %9s %9s %9s %9s %9s %9s %9s %8s %9s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "conflicts");
+        for (int i = 0; i < endpoints.size(); i++) {
+            Endpoint endpoint = endpoints.get(i);
+            Histogram histogram = measured.get(i);
+            console.printf("%-38s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d %9d%n",
+                    endpoint.name,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    endpoint.errors.sum(),
+                    endpoint.conflicts.sum());
+
+            Path file = options.reportDir.resolve(endpoint.fileName() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        console.println("Full percentile distributions (ms) written to " + options.reportDir.toAbsolutePath());
+    }
+
+    private JsonNode register(String role, String handle) throws IOException, InterruptedException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", handle);
+        body.put("email", handle + "@loadtest.local");
+        body.put("phone", handle);
+        body.put("password", "loadtest");
+        body.put("role", role);
+        return send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(json(body))
+                .build());
+    }
+
+    // Seeding call: anything but 2xx aborts the run
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " failed with "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private JsonNode parse(HttpResponse<String> response) {
+        if (response == null || response.statusCode() != 200) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        final String name;
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        void record(long elapsedNanos, int status) {
+            recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+            if (status == 409) {
+                // Another owner accepted first: the expected outcome of a race, not a failure
+                conflicts.increment();
+            } else if (status / 100 != 2) {
+                errors.increment();
+            }
+        }
+
+        // Drops everything recorded during warm-up
+        void startInterval() {
+            recorder.getIntervalHistogram();
+            errors.reset();
+            conflicts.reset();
+        }
+
+        Histogram endInterval() {
+            return recorder.getIntervalHistogram();
+        }
+
+        String fileName() {
+            return name.replaceAll("[^A-Za-z]+", "-").replaceAll("^-|-$", "").toLowerCase();
+        }
+    }
+
+    private static final class Options {
+        String baseUrl;
+        int renters = 8;
+        int owners = 16;
+        int admins = 2;
+        int seedOwners = 100;
+        int seedRenters = 50;
+        int equipment = 20;
+        long warmupSeconds = 10;
+        long durationSeconds = 60;
+        long ownerPollMs = 250;
+        long adminPollMs = 1000;
+        long renterThinkMs = 0;
+        Path reportDir = Path.of("target", "loadtest");
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            // Maven passes -Dloadtest.args as one argument, so split on whitespace as well
+            for (String arg : String.join(" ", args).trim().split("\\s+")) {
+                if (arg.isEmpty()) {
+                    continue;
+                }
+                if (!arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                String name = arg.substring(arg.startsWith("--") ? 2 : 0, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "base-url" -> options.baseUrl = value.replaceAll("/+$", "");
+                    case "renters" -> options.renters = Integer.parseInt(value);
+                    case "owners" -> options.owners = Integer.parseInt(value);
+                    case "admins" -> options.admins = Integer.parseInt(value);
+                    case "seed-owners" -> options.seedOwners = Integer.parseInt(value);
+                    case "seed-renters" -> options.seedRenters = Integer.parseInt(value);
+                    case "equipment" -> options.equipment = Integer.parseInt(value);
+                    case "warmup" -> options.warmupSeconds = Long.parseLong(value);
+                    case "duration" -> options.durationSeconds = Long.parseLong(value);
+                    case "owner-poll-ms" -> options.ownerPollMs = Long.parseLong(value);
+                    case "admin-poll-ms" -> options.adminPollMs = Long.parseLong(value);
+                    case "renter-think-ms" -> options.renterThinkMs = Long.parseLong(value);
+                    case "report-dir" -> options.reportDir = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            if (options.seedOwners < 1 || options.seedRenters < 1 || options.equipment < 1) {
+                throw new IllegalArgumentException("--seed-owners, --seed-renters and --equipment must be at least 1");
+            }
+            return options;
+        }
+    }
+}
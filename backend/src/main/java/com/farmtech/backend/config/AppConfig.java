@@ -1,5 +1,7 @@
 package com.farmtech.backend.config;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 // import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -11,4 +13,10 @@ public class AppConfig {
     // public PasswordEncoder passwordEncoder() {
     //     return new BCryptPasswordEncoder();
     // }
-}
\ No newline at end of file
+
+    // Feeds QueryCountFilter's per-request statement counts
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryCounting() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RequestQueryCounter());
+    }
+}
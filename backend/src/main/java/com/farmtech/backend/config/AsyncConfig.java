@@ -0,0 +1,61 @@
+package com.farmtech.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    // Bounded pool for post-booking work (candidate generation, dispatch, renter SMS) and for
+    // geocoding newly registered owners. When the queue is full tasks are rejected and left
+    // in the outbox for the recovery poller.
+    @Bean
+    public ThreadPoolTaskExecutor bookingPipelineExecutor(
+            @Value("${booking.pipeline.workers:4}") int workers,
+            @Value("${booking.pipeline.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-pipeline-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    // Workers that hand outbox SMS to the provider; a full queue leaves rows for the outbox poller
+    @Bean
+    public ThreadPoolTaskExecutor smsDispatchExecutor(
+            @Value("${sms.dispatch.workers:2}") int workers,
+            @Value("${sms.dispatch.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sms-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    // CPU-bound decode/resize of plant-disease uploads; callers wait for the result, so the
+    // queue only absorbs short bursts and a full one answers 503 instead of piling up requests
+    @Bean
+    public ThreadPoolTaskExecutor imagePreprocessExecutor(
+            @Value("${ml.image.workers:2}") int workers,
+            @Value("${ml.image.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-preprocess-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,12 +1,28 @@
 package com.farmtech.backend.controller;
 
 import com.farmtech.backend.dto.AnalyticsResponse;
+import com.farmtech.backend.dto.AnalyticsSeriesPoint;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.Granularity;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.ScopeType;
+import com.farmtech.backend.entity.User;
+import com.farmtech.backend.repository.UserRepository;
 import com.farmtech.backend.service.BookingAnalyticsService;
+import com.farmtech.backend.service.BookingRollupService;
+import com.farmtech.backend.service.BookingSeriesService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -14,9 +30,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class AnalyticsController {
 
     private final BookingAnalyticsService bookingAnalyticsService;
+    private final BookingRollupService bookingRollupService;
+    private final BookingSeriesService bookingSeriesService;
+    private final UserRepository userRepository;
 
-    public AnalyticsController(BookingAnalyticsService bookingAnalyticsService) {
+    public AnalyticsController(BookingAnalyticsService bookingAnalyticsService,
+                               BookingRollupService bookingRollupService,
+                               BookingSeriesService bookingSeriesService,
+                               UserRepository userRepository) {
         this.bookingAnalyticsService = bookingAnalyticsService;
+        this.bookingRollupService = bookingRollupService;
+        this.bookingSeriesService = bookingSeriesService;
+        this.userRepository = userRepository;
     }
 
     @GetMapping("/global")
@@ -28,4 +53,58 @@ public class AnalyticsController {
     public AnalyticsResponse getFarmerAnalytics(@PathVariable Long farmerId) {
         return bookingAnalyticsService.getFarmerAnalytics(farmerId);
     }
+
+    // Time series over all bookings: ?granularity=DAY|WEEK|MONTH&from=2024-01-01&to=2024-12-31
+    @GetMapping("/series")
+    public List<AnalyticsSeriesPoint> getGlobalSeries(
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return series(granularity, ScopeType.GLOBAL, null, from, to);
+    }
+
+    @GetMapping("/series/farmer/{farmerId}")
+    public List<AnalyticsSeriesPoint> getFarmerSeries(
+            @PathVariable Long farmerId,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return series(granularity, ScopeType.FARMER, farmerId.toString(), from, to);
+    }
+
+    @GetMapping("/series/equipment-type/{equipmentType}")
+    public List<AnalyticsSeriesPoint> getEquipmentTypeSeries(
+            @PathVariable String equipmentType,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return series(granularity, ScopeType.EQUIPMENT_TYPE, equipmentType, from, to);
+    }
+
+    private List<AnalyticsSeriesPoint> series(Granularity granularity, ScopeType scopeType, String scopeKey,
+                                              LocalDate from, LocalDate to) {
+        try {
+            return bookingSeriesService.series(granularity, scopeType, scopeKey, from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Rebuilds the rollup and the series buckets from the bookings table (also runs nightly).
+    // The rebuild holds the rollup rows against every booking write, so it is ADMIN ONLY
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcile(@RequestParam(required = false) Long userId) {
+        if (!isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("Access denied. Only administrators can reconcile analytics.");
+        }
+        bookingRollupService.reconcile();
+        return ResponseEntity.ok(bookingAnalyticsService.getGlobalAnalytics());
+    }
+
+    private boolean isAdmin(Long userId) {
+        if (userId == null) return false;
+        User user = userRepository.findById(userId).orElse(null);
+        return user != null && "ADMIN".equals(user.getRole());
+    }
 }
\ No newline at end of file
@@ -4,6 +4,11 @@ import com.farmtech.backend.entity.Farmer;
 import com.farmtech.backend.entity.User;
 import com.farmtech.backend.repository.FarmerRepository;
 import com.farmtech.backend.repository.UserRepository;
+import com.farmtech.backend.service.FarmerLocationService;
+import com.farmtech.backend.service.IdentityResolver;
+import com.farmtech.backend.service.OwnerLocationIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,12 +20,23 @@ import java.util.*;
 @CrossOrigin(origins = "http://localhost:3000")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private FarmerRepository farmerRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OwnerLocationIndex ownerLocationIndex;
+
+    @Autowired
+    private IdentityResolver identityResolver;
+
+    @Autowired
+    private FarmerLocationService farmerLocationService;
+
     // ✅ Register User (Admin, Renter, Owner)
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody Map<String, Object> request) {
@@ -75,7 +91,7 @@ public class AuthController {
             Optional<Farmer> existingFarmer = farmerRepository.findByPhone(phone);
             if (existingFarmer.isPresent()) {
                 farmerId = existingFarmer.get().getId();
-                System.out.println("✅ Found existing Farmer ID: " + farmerId + " for OWNER registration");
+                log.atDebug().addKeyValue("farmerId", farmerId).log("Found existing Farmer for registration");
             } else {
                 Farmer farmer = new Farmer();
                 farmer.setName(name);
@@ -83,13 +99,17 @@ public class AuthController {
                 farmer.setPhone(phone);
                 farmer.setPassword(password);
                 farmer.setAddress((String) request.get("address"));
-                // Initialize coordinates to 0.0 so they can be updated later via profile
+                farmer.setVillage((String) request.get("village"));
+                // 0.0 (ignored by OwnerLocationIndex) until geocoding below or the profile sets real coordinates
                 farmer.setLatitude(0.0);
                 farmer.setLongitude(0.0);
                 
                 Farmer savedFarmer = farmerRepository.save(farmer);
                 farmerId = savedFarmer.getId();
-                System.out.println("✅ Created new Farmer ID: " + farmerId + " for OWNER registration");
+                ownerLocationIndex.refresh(savedFarmer);
+                // Village/pincode centroid, looked up off the request thread; re-indexes the owner when found
+                farmerLocationService.locateAfterCommit(farmerId, savedFarmer.getVillage(), user.getPincode(), user.getAddress());
+                log.atInfo().addKeyValue("farmerId", farmerId).addKeyValue("role", role).log("Created Farmer for registration");
             }
         }
         
@@ -143,10 +163,9 @@ public class AuthController {
                 if (farmerOpt.get().getAddress() != null) {
                     farmerAddress = farmerOpt.get().getAddress();
                 }
-                System.out.println("✅ Login: Found Farmer ID " + farmerId + " for user " + user.getName());
+                log.atDebug().addKeyValue("userId", user.getId()).addKeyValue("farmerId", farmerId).log("Login found Farmer");
             } else if ("OWNER".equals(user.getRole()) || "ADMIN".equals(user.getRole())) {
                 // Auto-create Farmer record for OWNER/ADMIN users who don't have one
-                System.out.println("⚠️ Login: OWNER/ADMIN user has no Farmer record, creating one...");
                 Farmer newFarmer = new Farmer();
                 newFarmer.setName(user.getName());
                 newFarmer.setEmail(user.getEmail());
@@ -158,9 +177,14 @@ public class AuthController {
                 
                 Farmer savedFarmer = farmerRepository.save(newFarmer);
                 farmerId = savedFarmer.getId();
-                System.out.println("✅ Login: Created Farmer ID " + farmerId + " for OWNER user " + user.getName());
+                ownerLocationIndex.refresh(savedFarmer);
+                log.atInfo().addKeyValue("userId", user.getId()).addKeyValue("farmerId", farmerId)
+                        .log("Login created missing Farmer for OWNER/ADMIN user");
             }
             
+            // Dashboards poll with this userId right after login; seed the identity cache
+            identityResolver.remember(user.getId(), user.getPhone(), farmerId);
+
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Login successful");
             response.put("userId", user.getId());
@@ -172,8 +196,6 @@ public class AuthController {
             response.put("role", user.getRole() != null ? user.getRole() : "USER");
             response.put("isAdmin", "ADMIN".equals(user.getRole()));
             
-            System.out.println("✅ Login response: userId=" + user.getId() + ", farmerId=" + farmerId + ", role=" + user.getRole());
-            
             return ResponseEntity.ok(response);
         }
         
@@ -1,5 +1,7 @@
 package com.farmtech.backend.controller;
 
+import com.farmtech.backend.dto.BookingPage;
+import com.farmtech.backend.dto.BookingSummary;
 import com.farmtech.backend.entity.Booking;
 import com.farmtech.backend.entity.BookingCandidate;
 import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
@@ -12,23 +14,39 @@ import com.farmtech.backend.repository.EquipmentRepository;
 import com.farmtech.backend.repository.FarmerRepository;
 import com.farmtech.backend.repository.UserRepository;
 import com.farmtech.backend.service.BookingAnalyticsService;
+import com.farmtech.backend.service.BookingEventHub;
+import com.farmtech.backend.service.BookingPipelineService;
+import com.farmtech.backend.service.BookingRollupService;
 import com.farmtech.backend.service.CandidateDispatchService;
-import com.farmtech.backend.service.DistanceService;
+import com.farmtech.backend.service.IdentityResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bookings")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
 public class BookingController {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingController.class);
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final List<String> PENDING_STATUSES = List.of("PENDING", "PENDING_NO_CANDIDATES");
+
     @Autowired
     private BookingRepository bookingRepo;
 
@@ -42,34 +60,40 @@ public class BookingController {
     private UserRepository userRepo;
 
     @Autowired
-    private com.farmtech.backend.service.SmsService smsService;
+    private BookingCandidateRepository candidateRepository;
 
     @Autowired
-    private DistanceService distanceService;
+    private BookingPipelineService bookingPipelineService;
 
     @Autowired
-    private BookingCandidateRepository candidateRepository;
+    private IdentityResolver identityResolver;
+
+    @Autowired
+    private BookingEventHub bookingEventHub;
 
     @Autowired
     private CandidateDispatchService candidateDispatchService;
 
-    private static final double SEARCH_RADIUS_KM = 50.0;
+    @Autowired
+    private BookingRollupService bookingRollupService;
 
     // Create a booking: renter books an equipment (owner inferred from equipment)
     @PostMapping("/create")
-    public Booking createBooking(@RequestParam Long equipmentId,
-                                 @RequestParam Long renterId,
-                                 @RequestParam String startDate,
-                                 @RequestParam(required = false) String endDate,
-                                 @RequestParam(required = false) Integer hours,
-                                 @RequestParam(required = false) String location,
-                                 @RequestParam(required = false) Double locationLatitude,
-                                 @RequestParam(required = false) Double locationLongitude) {
-        System.out.println("📍 CREATE BOOKING - Received coordinates:");
-        System.out.println("   locationLatitude: " + locationLatitude);
-        System.out.println("   locationLongitude: " + locationLongitude);
-        System.out.println("   location: " + location);
-        
+    public ResponseEntity<Booking> createBooking(@RequestParam Long equipmentId,
+                                                 @RequestParam Long renterId,
+                                                 @RequestParam String startDate,
+                                                 @RequestParam(required = false) String endDate,
+                                                 @RequestParam(required = false) Integer hours,
+                                                 @RequestParam(required = false) String location,
+                                                 @RequestParam(required = false) Double locationLatitude,
+                                                 @RequestParam(required = false) Double locationLongitude) {
+        log.atDebug()
+                .addKeyValue("equipmentId", equipmentId)
+                .addKeyValue("renterId", renterId)
+                .addKeyValue("latitude", locationLatitude)
+                .addKeyValue("longitude", locationLongitude)
+                .log("Create booking requested");
+
         Equipment equipment = equipmentRepo.findById(equipmentId)
                 .orElseThrow(() -> new RuntimeException("Equipment not found"));
         
@@ -97,7 +121,10 @@ public class BookingController {
                     newFarmer.setAddress(user.getAddress());
                     // Note: latitude/longitude will be null initially
                     renter = farmerRepo.save(newFarmer);
-                    System.out.println("✅ Created new Farmer record for User ID: " + user.getId() + " -> Farmer ID: " + renter.getId());
+                    log.atInfo()
+                            .addKeyValue("userId", user.getId())
+                            .addKeyValue("farmerId", renter.getId())
+                            .log("Created Farmer record for renter");
                 }
             }
         }
@@ -127,124 +154,31 @@ public class BookingController {
             booking.setLocation(location.trim());
         }
         if (locationLatitude != null && locationLongitude != null) {
-            System.out.println("✅ Setting coordinates on booking object:");
-            System.out.println("   Latitude: " + locationLatitude);
-            System.out.println("   Longitude: " + locationLongitude);
             booking.setLocationLatitude(locationLatitude);
             booking.setLocationLongitude(locationLongitude);
         } else {
-            System.out.println("⚠️ Coordinates are NULL - not setting on booking");
+            log.atDebug().addKeyValue("equipmentId", equipmentId).log("Booking has no coordinates");
         }
         
         // Set the created timestamp
         booking.setCreatedAt(LocalDateTime.now());
         
-        Booking saved = bookingRepo.save(booking);
-        System.out.println("💾 Booking saved with ID: " + saved.getId());
-        System.out.println("   Saved latitude: " + saved.getLocationLatitude());
-        System.out.println("   Saved longitude: " + saved.getLocationLongitude());
-
-        // create candidate list for other nearby owners
-        createCandidateEntries(saved);
-
-        // Send SMS notification to renter only (owner flow is sequential)
-        try {
-            String renterPhone = renter.getPhone();
-            String renterMsg = String.format(
-                    "You booked %s. Start %s, Hours %s. Booking ID %s.",
-                    equipment.getName(), startDate, (hours != null ? hours : "-"), saved.getId()
-            );
-            if (renterPhone != null && !renterPhone.isBlank()) {
-                smsService.sendSms(renterPhone, renterMsg);
-            }
-        } catch (Exception ignore) {}
+        // Candidate generation, owner dispatch and the renter SMS run asynchronously;
+        // progress is visible at GET /api/bookings/{id}/pipeline
+        Booking saved = bookingPipelineService.submit(booking);
+        log.atInfo()
+                .addKeyValue("bookingId", saved.getId())
+                .addKeyValue("renterId", renter.getId())
+                .addKeyValue("equipmentId", equipmentId)
+                .log("Booking created");
 
-        return saved;
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/" + saved.getId() + "/pipeline"))
+                .body(saved);
     }
 
-    private void createCandidateEntries(Booking booking) {
-        System.out.println("=== CREATING CANDIDATE ENTRIES ===");
-        System.out.println("Booking ID: " + booking.getId());
-        System.out.println("Creating candidates for OWNER role accounts only (no location restrictions)");
-
-        // NEW APPROACH: Start with Users who have OWNER role, then get/create their Farmer records
-        List<User> ownerUsers = userRepo.findByRole("OWNER");
-        System.out.println("Total OWNER users in database: " + ownerUsers.size());
-        
-        List<Farmer> potentialOwners = new ArrayList<>();
-        
-        for (User ownerUser : ownerUsers) {
-            System.out.println("Processing OWNER user: " + ownerUser.getId() + " (" + ownerUser.getName() + ")");
-            
-            // Find or create Farmer record for this OWNER user
-            Farmer farmer = farmerRepo.findByPhone(ownerUser.getPhone()).orElse(null);
-            
-            if (farmer == null) {
-                // Auto-create Farmer record for this OWNER user
-                System.out.println("  ⚠️ No Farmer record found, creating one...");
-                Farmer newFarmer = new Farmer();
-                newFarmer.setName(ownerUser.getName());
-                newFarmer.setEmail(ownerUser.getEmail());
-                newFarmer.setPhone(ownerUser.getPhone());
-                newFarmer.setPassword(ownerUser.getPassword());
-                newFarmer.setAddress(ownerUser.getAddress());
-                // Note: latitude/longitude will be null initially
-                farmer = farmerRepo.save(newFarmer);
-                System.out.println("  ✅ Created Farmer ID: " + farmer.getId() + " for OWNER User ID: " + ownerUser.getId());
-            } else {
-                System.out.println("  ✅ Found existing Farmer ID: " + farmer.getId());
-            }
-            
-            // Skip if this is the original equipment owner
-            if (farmer.getId().equals(booking.getOwner().getId())) {
-                System.out.println("  ⏭️ Skipping - this is the original equipment owner");
-                continue;
-            }
-            
-            potentialOwners.add(farmer);
-        }
-        
-        System.out.println("Potential OWNER accepter accounts: " + potentialOwners.size());
-
-        // Create candidates for ALL potential owners (no distance restriction)
-        List<BookingCandidate> candidates = potentialOwners.stream()
-                .map(owner -> {
-                    System.out.println("✅ Creating candidate for farmer " + owner.getId() + " (" + owner.getName() + ")");
-                    
-                    BookingCandidate candidate = new BookingCandidate();
-                    candidate.setBooking(booking);
-                    candidate.setOwner(owner);
-                    
-                    // Calculate distance if coordinates are available, otherwise set to 0
-                    if (booking.getLocationLatitude() != null && booking.getLocationLongitude() != null
-                            && owner.getLatitude() != null && owner.getLongitude() != null) {
-                        double distance = distanceService.distanceInKm(
-                                booking.getLocationLatitude(),
-                                booking.getLocationLongitude(),
-                                owner.getLatitude(),
-                                owner.getLongitude()
-                        );
-                        candidate.setDistanceKm(distance);
-                        System.out.println("   Distance: " + distance + " km");
-                    } else {
-                        candidate.setDistanceKm(0.0);
-                        System.out.println("   Distance: N/A (no coordinates)");
-                    }
-                    
-                    candidate.setStatus(CandidateStatus.NOTIFIED);
-                    candidate.setInvitedAt(LocalDateTime.now());
-                    return candidate;
-                })
-                .sorted(Comparator.comparing(BookingCandidate::getDistanceKm))
-                .collect(Collectors.toList());
-
-        System.out.println("Total candidates created: " + candidates.size());
-        candidateRepository.saveAll(candidates);
-        System.out.println("✅ Candidates saved to database");
-        candidateDispatchService.notifyCandidatesSimultaneously(booking.getId());
-    }
-
-    private Double calculateTotalCost(Equipment equipment, int hours) {
+    // Package-private for BookingControllerBenchmark
+    static Double calculateTotalCost(Equipment equipment, int hours) {
         Double pricePerHour = equipment.getPricePerHour();
         if (pricePerHour == null) {
             // Fallback to daily price if hourly not set
@@ -253,76 +187,52 @@ public class BookingController {
         return Math.round(pricePerHour * hours * 100.0) / 100.0; // Round to 2 decimal places
     }
 
+    // Which stage of the post-booking pipeline a booking is in
+    @GetMapping("/{bookingId}/pipeline")
+    public ResponseEntity<?> getPipelineStatus(@PathVariable Long bookingId) {
+        return bookingPipelineService.getStatus(bookingId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body("No pipeline status for booking " + bookingId));
+    }
+
     // Bookings the renter has made (buyer account view)
     @GetMapping("/renter/{renterId}")
     public List<Booking> getRenterBookings(@PathVariable Long renterId) {
-        System.out.println("=== FETCHING ALL BOOKINGS FOR RENTER ===");
-        System.out.println("Renter ID from path: " + renterId);
-        
-        // 🔍 Support both User and Farmer IDs
-        Long actualFarmerId = renterId;
-        
-        // Check if this is a User ID, and get their Farmer ID
-        User user = userRepo.findById(renterId).orElse(null);
-        if (user != null) {
-            System.out.println("✅ Found User with ID: " + renterId + ", looking for corresponding Farmer...");
-            Farmer farmer = farmerRepo.findByPhone(user.getPhone()).orElse(null);
-            if (farmer != null) {
-                actualFarmerId = farmer.getId();
-                System.out.println("✅ Found corresponding Farmer ID: " + actualFarmerId);
-            } else {
-                System.out.println("⚠️ No Farmer record found for User ID: " + renterId);
-                return List.of(); // Return empty list if no Farmer record exists
-            }
+        // 🔍 Support both User and Farmer IDs (resolved through the identity cache)
+        Long actualFarmerId = identityResolver.resolveFarmerId(renterId).orElse(null);
+        if (actualFarmerId == null) {
+            log.atDebug().addKeyValue("renterId", renterId).log("No Farmer record for renter");
+            return List.of(); // Return empty list if no Farmer record exists
         }
         
-        System.out.println("Querying: SELECT * FROM bookings WHERE renter_id = " + actualFarmerId);
-        
         List<Booking> bookings = bookingRepo.findByRenterId(actualFarmerId);
-        System.out.println("Found " + bookings.size() + " bookings for renter " + actualFarmerId);
-        
-        if (bookings.isEmpty()) {
-            System.out.println("✅ No bookings found for this renter");
-        } else {
-            System.out.println("📋 Bookings details:");
+        log.atDebug().addKeyValue("renterId", actualFarmerId).addKeyValue("count", bookings.size()).log("Fetched renter bookings");
+        // The per-booking lines touch lazy associations, so they only run when someone is reading them
+        if (log.isDebugEnabled()) {
             for (Booking booking : bookings) {
-                System.out.println("  - Booking ID: " + booking.getId() + 
-                                 ", Status: " + booking.getStatus() +
-                                 ", Renter ID: " + (booking.getRenter() != null ? booking.getRenter().getId() : "null") +
-                                 ", Renter Name: " + (booking.getRenter() != null ? booking.getRenter().getName() : "null") +
-                                 ", Equipment: " + (booking.getEquipment() != null ? booking.getEquipment().getName() : "null"));
+                log.atDebug()
+                        .addKeyValue("bookingId", booking.getId())
+                        .addKeyValue("status", booking.getStatus())
+                        .addKeyValue("renterId", actualFarmerId)
+                        .addKeyValue("equipment", booking.getEquipment() != null ? booking.getEquipment().getName() : null)
+                        .log("Renter booking");
             }
         }
-        
-        System.out.println("=== FETCH COMPLETE ===");
         return bookings;
     }
 
     // Bookings the owner has received (owner account view)
     @GetMapping("/owner/{ownerId}")
     public List<Booking> getOwnerBookings(@PathVariable Long ownerId) {
-        System.out.println("=== FETCHING ALL BOOKINGS FOR OWNER ===");
-        System.out.println("Owner ID from path: " + ownerId);
-        
-        // 🔍 Support both User and Farmer IDs
-        Long actualFarmerId = ownerId;
-        
-        // Check if this is a User ID, and get their Farmer ID
-        User user = userRepo.findById(ownerId).orElse(null);
-        if (user != null) {
-            System.out.println("✅ Found User with ID: " + ownerId + ", looking for corresponding Farmer...");
-            Farmer farmer = farmerRepo.findByPhone(user.getPhone()).orElse(null);
-            if (farmer != null) {
-                actualFarmerId = farmer.getId();
-                System.out.println("✅ Found corresponding Farmer ID: " + actualFarmerId);
-            } else {
-                System.out.println("⚠️ No Farmer record found for User ID: " + ownerId);
-                return List.of(); // Return empty list if no Farmer record exists
-            }
+        // 🔍 Support both User and Farmer IDs (resolved through the identity cache)
+        Long actualFarmerId = identityResolver.resolveFarmerId(ownerId).orElse(null);
+        if (actualFarmerId == null) {
+            log.atDebug().addKeyValue("ownerId", ownerId).log("No Farmer record for owner");
+            return List.of(); // Return empty list if no Farmer record exists
         }
         
         List<Booking> bookings = bookingRepo.findByOwnerId(actualFarmerId);
-        System.out.println("Found " + bookings.size() + " bookings for owner " + actualFarmerId);
+        log.atDebug().addKeyValue("ownerId", actualFarmerId).addKeyValue("count", bookings.size()).log("Fetched owner bookings");
         return bookings;
     }
 
@@ -330,41 +240,79 @@ public class BookingController {
     @GetMapping("/pending")
     public List<Booking> getAllPendingBookings() {
         // Include both PENDING and PENDING_NO_CANDIDATES status bookings
-        List<Booking> pendingBookings = bookingRepo.findByStatus("PENDING");
-        List<Booking> noCandidatesBookings = bookingRepo.findByStatus("PENDING_NO_CANDIDATES");
-        
-        // Combine both lists
-        pendingBookings.addAll(noCandidatesBookings);
-        return pendingBookings;
+        return bookingRepo.findByStatusIn(PENDING_STATUSES);
     }
-    
+
+    // Keyset-paginated pending list: lightweight rows, newest first
+    @GetMapping("/pending/page")
+    public BookingPage getPendingBookingPage(@RequestParam(required = false) Long cursor,
+                                             @RequestParam(defaultValue = "50") int size) {
+        int limit = clampPageSize(size);
+        return BookingPage.of(bookingRepo.findSummariesByStatusInBefore(
+                PENDING_STATUSES, cursorOrStart(cursor), Limit.of(limit)), limit);
+    }
+
     // Get ALL bookings (for admin dashboard)
     @GetMapping
     public List<Booking> getAllBookings() {
-        System.out.println("=== FETCHING ALL BOOKINGS (ADMIN) ===");
         List<Booking> allBookings = bookingRepo.findAll();
-        System.out.println("Total bookings in database: " + allBookings.size());
-        
-        // Log booking status breakdown
-        long pending = allBookings.stream().filter(b -> "PENDING".equals(b.getStatus())).count();
-        long confirmed = allBookings.stream().filter(b -> "CONFIRMED".equals(b.getStatus())).count();
-        long completed = allBookings.stream().filter(b -> "COMPLETED".equals(b.getStatus())).count();
-        long cancelled = allBookings.stream().filter(b -> "CANCELLED".equals(b.getStatus())).count();
         
-        System.out.println("Status breakdown:");
-        System.out.println("  PENDING: " + pending);
-        System.out.println("  CONFIRMED: " + confirmed);
-        System.out.println("  COMPLETED: " + completed);
-        System.out.println("  CANCELLED: " + cancelled);
+        // Status breakdown is four passes over every booking; only worth it when logged
+        if (log.isDebugEnabled()) {
+            log.atDebug()
+                    .addKeyValue("total", allBookings.size())
+                    .addKeyValue("pending", allBookings.stream().filter(b -> "PENDING".equals(b.getStatus())).count())
+                    .addKeyValue("confirmed", allBookings.stream().filter(b -> "CONFIRMED".equals(b.getStatus())).count())
+                    .addKeyValue("completed", allBookings.stream().filter(b -> "COMPLETED".equals(b.getStatus())).count())
+                    .addKeyValue("cancelled", allBookings.stream().filter(b -> "CANCELLED".equals(b.getStatus())).count())
+                    .log("Fetched all bookings");
+        }
         
         return allBookings;
     }
 
+    // Keyset-paginated admin listing (?status=CONFIRMED,COMPLETED narrows it); use
+    // nextCursor from the response to fetch the following page
+    @GetMapping("/page")
+    public BookingPage getBookingPage(@RequestParam(required = false) Long cursor,
+                                      @RequestParam(defaultValue = "50") int size,
+                                      @RequestParam(required = false) List<String> status) {
+        int limit = clampPageSize(size);
+        List<BookingSummary> items = (status == null || status.isEmpty())
+                ? bookingRepo.findSummariesBefore(cursorOrStart(cursor), Limit.of(limit))
+                : bookingRepo.findSummariesByStatusInBefore(status, cursorOrStart(cursor), Limit.of(limit));
+        return BookingPage.of(items, limit);
+    }
+
+    // Status breakdown for the admin dashboard, computed by one GROUP BY query
+    @GetMapping("/counts")
+    public Map<String, Long> getBookingCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : bookingRepo.countByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            counts.put(row[0] != null ? (String) row[0] : "UNKNOWN", count);
+            total += count;
+        }
+        counts.put("TOTAL", total);
+        return counts;
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static long cursorOrStart(Long cursor) {
+        return cursor != null ? cursor : Long.MAX_VALUE;
+    }
+
     // Optional: update status (owner can confirm/cancel)
     @PatchMapping("/{bookingId}/status")
+    @Transactional
     public Booking updateStatus(@PathVariable Long bookingId, @RequestParam String status) {
         Booking b = bookingRepo.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
+        BookingRollupService.Snapshot before = BookingRollupService.Snapshot.of(b);
         b.setStatus(status);
         
         // If confirming, set the accepted owner to current user
@@ -373,59 +321,27 @@ public class BookingController {
             // For now, we'll set it when the frontend provides the owner ID
         }
         
-        return bookingRepo.save(b);
+        Booking saved = bookingRepo.save(b);
+        bookingRollupService.recordChange(before, BookingRollupService.Snapshot.of(saved));
+        bookingEventHub.bookingUpdated(saved.getId(), saved.getRenter().getId(), saved.getStatus());
+        return saved;
     }
     
     // Accept booking with owner details
     @PatchMapping("/{bookingId}/accept")
     public Booking acceptBooking(@PathVariable Long bookingId, @RequestParam Long ownerId) {
-        System.out.println("=== ACCEPTING BOOKING ===");
-        System.out.println("Booking ID: " + bookingId);
-        System.out.println("Owner ID: " + ownerId);
-        
         try {
-            Booking booking = bookingRepo.findById(bookingId)
-                    .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
-            
-            System.out.println("Found booking: " + booking.getId() + ", Status: " + booking.getStatus());
-            
-            Farmer acceptingOwner = farmerRepo.findById(ownerId)
-                    .orElseThrow(() -> new RuntimeException("Owner not found with ID: " + ownerId));
-            
-            System.out.println("Found owner: " + acceptingOwner.getId() + ", Name: " + acceptingOwner.getName());
-            
-            booking.setStatus("CONFIRMED");
-            booking.setAcceptedOwner(acceptingOwner);
-            booking.setConfirmedAt(java.time.LocalDateTime.now());
-            
-            System.out.println("Updated booking status to CONFIRMED");
-            
-            // Update all other candidates for this booking to EXPIRED status
-            // so they don't see this booking in their pending list anymore
-            List<BookingCandidate> allCandidates = candidateRepository.findByBookingId(bookingId);
-            System.out.println("Found " + allCandidates.size() + " candidates for this booking");
-            
-            for (BookingCandidate candidate : allCandidates) {
-                if (!candidate.getOwner().getId().equals(ownerId)) {
-                    candidate.setStatus(CandidateStatus.EXPIRED);
-                    candidate.setExpiredAt(java.time.LocalDateTime.now());
-                    System.out.println("Expired candidate for owner: " + candidate.getOwner().getId());
-                } else {
-                    candidate.setStatus(CandidateStatus.ACCEPTED);
-                    candidate.setAcceptedAt(java.time.LocalDateTime.now());
-                    System.out.println("Accepted candidate for owner: " + candidate.getOwner().getId());
-                }
-            }
-            candidateRepository.saveAll(allCandidates);
-            
-            Booking savedBooking = bookingRepo.save(booking);
-            System.out.println("✅ Booking accepted successfully!");
-            System.out.println("=== ACCEPT COMPLETE ===");
-            
+            // Single conditional UPDATE: concurrent accepts cannot both win
+            Booking savedBooking = candidateDispatchService.acceptBooking(bookingId, ownerId);
+            log.atInfo().addKeyValue("bookingId", bookingId).addKeyValue("ownerId", ownerId).log("Booking accepted");
             return savedBooking;
+        } catch (IllegalStateException e) {
+            // Losing an accept race, or answering after the invitation lapsed, is routine under load
+            log.atDebug().addKeyValue("bookingId", bookingId).addKeyValue("ownerId", ownerId).log("Accept rejected: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
         } catch (Exception e) {
-            System.err.println("❌ Error accepting booking: " + e.getMessage());
-            e.printStackTrace();
+            log.atError().addKeyValue("bookingId", bookingId).addKeyValue("ownerId", ownerId).setCause(e)
+                    .log("Error accepting booking");
             throw e;
         }
     }
@@ -433,121 +349,87 @@ public class BookingController {
     // Get confirmed bookings for an owner (bookings they accepted)
     @GetMapping("/owner/{ownerId}/accepted")
     public List<Booking> getAcceptedBookingsByOwner(@PathVariable Long ownerId) {
-        System.out.println("=== FETCHING ACCEPTED BOOKINGS FOR OWNER ===");
-        System.out.println("Owner ID: " + ownerId);
-        
-        // 🔍 Support both User and Farmer IDs
-        Long actualFarmerId = ownerId;
-        
-        // Check if this is a User ID, and get their Farmer ID
-        User user = userRepo.findById(ownerId).orElse(null);
-        if (user != null) {
-            System.out.println("✅ Found User with ID: " + ownerId + ", looking for corresponding Farmer...");
-            Farmer farmer = farmerRepo.findByPhone(user.getPhone()).orElse(null);
-            if (farmer != null) {
-                actualFarmerId = farmer.getId();
-                System.out.println("✅ Found corresponding Farmer ID: " + actualFarmerId);
-            } else {
-                System.out.println("⚠️ No Farmer record found for User ID: " + ownerId);
-                return List.of(); // Return empty list if no Farmer record exists
-            }
+        // 🔍 Support both User and Farmer IDs (resolved through the identity cache)
+        Long actualFarmerId = identityResolver.resolveFarmerId(ownerId).orElse(null);
+        if (actualFarmerId == null) {
+            log.atDebug().addKeyValue("ownerId", ownerId).log("No Farmer record for owner");
+            return List.of(); // Return empty list if no Farmer record exists
         }
         
         List<Booking> bookings = bookingRepo.findByAcceptedOwnerId(actualFarmerId);
-        System.out.println("Found " + bookings.size() + " accepted bookings");
-        
-        for (Booking booking : bookings) {
-            System.out.println("Booking ID: " + booking.getId() + 
-                             ", Status: " + booking.getStatus() +
-                             ", AcceptedOwner ID: " + (booking.getAcceptedOwner() != null ? booking.getAcceptedOwner().getId() : "null") +
-                             ", Renter ID: " + (booking.getRenter() != null ? booking.getRenter().getId() : "null"));
+        log.atDebug().addKeyValue("ownerId", actualFarmerId).addKeyValue("count", bookings.size()).log("Fetched accepted bookings");
+        if (log.isDebugEnabled()) {
+            for (Booking booking : bookings) {
+                log.atDebug()
+                        .addKeyValue("bookingId", booking.getId())
+                        .addKeyValue("status", booking.getStatus())
+                        .addKeyValue("renterId", booking.getRenter() != null ? booking.getRenter().getId() : null)
+                        .log("Accepted booking");
+            }
         }
-        
         return bookings;
     }
     
     // Get confirmed bookings for a renter (bookings that were accepted)
     @GetMapping("/renter/{renterId}/confirmed")
     public List<Booking> getConfirmedBookingsByRenter(@PathVariable Long renterId) {
-        System.out.println("=== FETCHING CONFIRMED BOOKINGS FOR RENTER ===");
-        System.out.println("Renter ID from path: " + renterId);
-        
-        // 🔍 Support both User and Farmer IDs
-        Long actualFarmerId = renterId;
-        
-        // Check if this is a User ID, and get their Farmer ID
-        User user = userRepo.findById(renterId).orElse(null);
-        if (user != null) {
-            System.out.println("✅ Found User with ID: " + renterId + ", looking for corresponding Farmer...");
-            Farmer farmer = farmerRepo.findByPhone(user.getPhone()).orElse(null);
-            if (farmer != null) {
-                actualFarmerId = farmer.getId();
-                System.out.println("✅ Found corresponding Farmer ID: " + actualFarmerId);
-            } else {
-                System.out.println("⚠️ No Farmer record found for User ID: " + renterId);
-                return List.of(); // Return empty list if no Farmer record exists
-            }
+        // 🔍 Support both User and Farmer IDs (resolved through the identity cache)
+        Long actualFarmerId = identityResolver.resolveFarmerId(renterId).orElse(null);
+        if (actualFarmerId == null) {
+            log.atDebug().addKeyValue("renterId", renterId).log("No Farmer record for renter");
+            return List.of(); // Return empty list if no Farmer record exists
         }
         
-        System.out.println("Querying: SELECT * FROM bookings WHERE renter_id = " + actualFarmerId + " AND status = 'CONFIRMED'");
-        
         List<Booking> bookings = bookingRepo.findByRenterIdAndStatus(actualFarmerId, "CONFIRMED");
-        System.out.println("Found " + bookings.size() + " confirmed bookings for renter " + actualFarmerId);
-        
-        if (bookings.isEmpty()) {
-            System.out.println("✅ No confirmed bookings found for this renter (correct if they haven't booked anything)");
-        } else {
-            System.out.println("📋 Bookings details:");
+        log.atDebug().addKeyValue("renterId", actualFarmerId).addKeyValue("count", bookings.size()).log("Fetched confirmed bookings");
+        if (log.isDebugEnabled()) {
             for (Booking booking : bookings) {
-                System.out.println("  - Booking ID: " + booking.getId() + 
-                                 ", Status: " + booking.getStatus() +
-                                 ", Renter ID: " + (booking.getRenter() != null ? booking.getRenter().getId() : "null") +
-                                 ", Renter Name: " + (booking.getRenter() != null ? booking.getRenter().getName() : "null") +
-                                 ", AcceptedOwner ID: " + (booking.getAcceptedOwner() != null ? booking.getAcceptedOwner().getId() : "null") +
-                                 ", Equipment: " + (booking.getEquipment() != null ? booking.getEquipment().getName() : "null"));
+                log.atDebug()
+                        .addKeyValue("bookingId", booking.getId())
+                        .addKeyValue("ownerId", booking.getAcceptedOwner() != null ? booking.getAcceptedOwner().getId() : null)
+                        .addKeyValue("equipment", booking.getEquipment() != null ? booking.getEquipment().getName() : null)
+                        .log("Confirmed booking");
             }
         }
-        
-        System.out.println("=== FETCH COMPLETE ===");
         return bookings;
     }
     
     // Get pending booking invitations for an owner (bookings they can accept)
     @GetMapping("/owner/{ownerId}/pending-invitations")
     public List<BookingCandidate> getPendingInvitationsForOwner(@PathVariable Long ownerId) {
-        System.out.println("=== FETCHING PENDING INVITATIONS ===");
-        System.out.println("Owner ID: " + ownerId);
-        
-        // 🔍 Support both User and Farmer IDs
-        Long actualFarmerId = ownerId;
-        
-        // Check if this is a User ID, and get their Farmer ID
-        User user = userRepo.findById(ownerId).orElse(null);
-        if (user != null) {
-            System.out.println("✅ Found User with ID: " + ownerId + ", looking for corresponding Farmer...");
-            Farmer farmer = farmerRepo.findByPhone(user.getPhone()).orElse(null);
-            if (farmer != null) {
-                actualFarmerId = farmer.getId();
-                System.out.println("✅ Found corresponding Farmer ID: " + actualFarmerId);
-            } else {
-                System.out.println("⚠️ No Farmer record found for User ID: " + ownerId);
-                return List.of(); // Return empty list if no Farmer record exists
-            }
+        // 🔍 Support both User and Farmer IDs (resolved through the identity cache)
+        Long actualFarmerId = identityResolver.resolveFarmerId(ownerId).orElse(null);
+        if (actualFarmerId == null) {
+            log.atDebug().addKeyValue("ownerId", ownerId).log("No Farmer record for owner");
+            return List.of(); // Return empty list if no Farmer record exists
         }
         
         List<BookingCandidate> candidates = candidateRepository.findByOwnerIdAndStatusOrderByInvitedAtAsc(actualFarmerId, CandidateStatus.NOTIFIED);
-        System.out.println("Found " + candidates.size() + " pending invitations");
-        
-        for (BookingCandidate candidate : candidates) {
-            System.out.println("Candidate ID: " + candidate.getId() + 
-                             ", Booking ID: " + candidate.getBooking().getId() +
-                             ", Status: " + candidate.getStatus() +
-                             ", Distance: " + candidate.getDistanceKm() + " km");
+        log.atDebug().addKeyValue("ownerId", actualFarmerId).addKeyValue("count", candidates.size()).log("Fetched pending invitations");
+        if (log.isDebugEnabled()) {
+            for (BookingCandidate candidate : candidates) {
+                log.atDebug()
+                        .addKeyValue("candidateId", candidate.getId())
+                        .addKeyValue("bookingId", candidate.getBooking().getId())
+                        .addKeyValue("distanceKm", candidate.getDistanceKm())
+                        .log("Pending invitation");
+            }
         }
-        
         return candidates;
     }
     
+    // Live events for a farmer: invitation-created / invitation-revoked for owners,
+    // booking-updated for renters. Replaces polling the lists above.
+    @GetMapping(value = {"/owner/{farmerId}/events", "/renter/{farmerId}/events"},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@PathVariable Long farmerId) {
+        Long actualFarmerId = identityResolver.resolveFarmerId(farmerId).orElse(null);
+        if (actualFarmerId == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(bookingEventHub.subscribe(actualFarmerId));
+    }
+
     // Get all booking candidates for an owner (all statuses - for dashboard)
     @GetMapping("/owner/{ownerId}/candidates")
     public List<BookingCandidate> getAllCandidatesForOwner(@PathVariable Long ownerId) {
@@ -570,7 +452,7 @@ public class BookingController {
         return bookingRepo.save(booking);
     }
     
-    private java.time.LocalDateTime calculateArrivalTime(java.time.LocalDateTime now, String estimatedTime) {
+    static java.time.LocalDateTime calculateArrivalTime(java.time.LocalDateTime now, String estimatedTime) {
         // Parse estimated time and add to current time
         // Support formats like "30 minutes", "1 hour", "2 hours 30 minutes"
         try {
@@ -9,6 +9,7 @@ import com.farmtech.backend.repository.FarmerRepository;
 import com.farmtech.backend.repository.UserRepository;
 import com.farmtech.backend.repository.BookingRepository;
 import com.farmtech.backend.repository.BookingCandidateRepository;
+import com.farmtech.backend.service.BookingRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -37,6 +38,9 @@ public class EquipmentController {
     @Autowired
     private BookingCandidateRepository candidateRepo;
 
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
     // Helper method to check if user is admin
     private boolean isAdmin(Long userId) {
         if (userId == null) return false;
@@ -145,6 +149,7 @@ public class EquipmentController {
         // Step 2: Delete booking candidates for each booking (to satisfy FK constraints)
         for (Booking booking : bookings) {
             candidateRepo.deleteAll(candidateRepo.findByBookingId(booking.getId()));
+            bookingRollupService.bookingRemoved(booking);
         }
         
         // Step 3: Delete the bookings
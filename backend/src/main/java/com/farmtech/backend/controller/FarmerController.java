@@ -2,6 +2,7 @@ package com.farmtech.backend.controller;
 
 import com.farmtech.backend.entity.Farmer;
 import com.farmtech.backend.repository.FarmerRepository;
+import com.farmtech.backend.service.OwnerLocationIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +17,9 @@ public class FarmerController {
     @Autowired
     private FarmerRepository farmerRepository;
 
+    @Autowired
+    private OwnerLocationIndex ownerLocationIndex;
+
     // ✅ Get farmer profile by ID
     @GetMapping("/profile/{id}")
     public ResponseEntity<?> getProfile(@PathVariable Long id) {
@@ -67,6 +71,8 @@ public class FarmerController {
             }
             
             Farmer savedFarmer = farmerRepository.save(farmer);
+            // Keep candidate search in sync with the new coordinates
+            ownerLocationIndex.refresh(savedFarmer);
             return ResponseEntity.ok(savedFarmer);
         }
         
@@ -1,12 +1,9 @@
 package com.farmtech.backend.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import com.farmtech.backend.service.MlPredictionCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
 
@@ -18,10 +15,8 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 @ConditionalOnProperty(prefix = "ml", name = "enabled", havingValue = "true")
 public class MLController {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    @Value("${ml.service.base:http://localhost:5001}")
-    private String mlServiceBase; // e.g., http://ml-service:5001 in docker-compose
+    @Autowired
+    private MlPredictionCache mlPredictionCache;
 
     @PostMapping("/crop-recommendation")
     public ResponseEntity<?> cropRecommendation(@RequestBody Map<String, Object> payload) {
@@ -45,12 +40,8 @@ public class MLController {
 
     // Image upload would typically be multipart; keep JSON forwarder here and add multipart later
 
+    // Repeated questions are answered from the prediction cache; misses go to the ML service
     private ResponseEntity<?> forwardJson(String path, Map<String, Object> payload) {
-        String url = mlServiceBase + path;
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(payload, headers);
-        ResponseEntity<String> response = restTemplate.postForEntity(url, requestEntity, String.class);
-        return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
+        return mlPredictionCache.predict(path, payload);
     }
 }
\ No newline at end of file
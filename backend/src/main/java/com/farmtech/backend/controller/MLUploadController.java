@@ -1,14 +1,20 @@
 package com.farmtech.backend.controller;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.farmtech.backend.service.ImagePreprocessor;
+import com.farmtech.backend.service.MlServiceClient;
+import com.farmtech.backend.service.PlantDiseaseDedupCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Map;
+import java.util.Optional;
+
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 
 @RestController
@@ -17,42 +23,76 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 @ConditionalOnProperty(prefix = "ml", name = "enabled", havingValue = "true")
 public class MLUploadController {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private MlServiceClient mlServiceClient;
 
-    @Value("${ml.service.base:http://localhost:5001}")
-    private String mlServiceBase;
+    @Autowired
+    private ImagePreprocessor imagePreprocessor;
 
-    @PostMapping(value = "/plant-disease-detection", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> plantDiseaseDetection(@RequestPart("file") MultipartFile file) throws Exception {
-        String url = mlServiceBase + "/plant-disease-detection";
+    @Autowired
+    private PlantDiseaseDedupCache plantDiseaseDedupCache;
 
+    @PostMapping(value = "/plant-disease-detection", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> plantDiseaseDetection(@RequestPart("file") MultipartFile file) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
 
-        // Wrap file bytes into a Resource with filename so FastAPI receives proper metadata
-        ByteArrayResource fileAsResource = new ByteArrayResource(file.getBytes()) {
-            @Override
-            public String getFilename() {
-                return file.getOriginalFilename();
-            }
-        };
+        Optional<ImagePreprocessor.PreparedImage> prepared;
+        try {
+            prepared = imagePreprocessor.preprocess(file);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Image processing is busy, please try again shortly"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+
+        // A retry or re-upload of a photo answered recently gets the same answer again
+        Optional<ResponseEntity<?>> duplicate = prepared.flatMap(image -> plantDiseaseDedupCache.lookup(image.dHash()));
+        if (duplicate.isPresent()) {
+            return duplicate.get();
+        }
 
+        // The model only needs a small image, so the downscaled JPEG is sent when there is one.
+        // Otherwise the original goes as it is: the container spools the upload to a temp file
+        // as it arrives (rejecting it past spring.servlet.multipart.max-file-size) and the part
+        // is streamed from there with chunked transfer, so it is never held on the heap
+        HttpEntity<?> part = prepared
+                .<HttpEntity<?>>map(image -> new HttpEntity<>(new ByteArrayResource(image.jpeg()),
+                        createFileHeaders(jpegFilename(file), MediaType.IMAGE_JPEG)))
+                .orElseGet(() -> new HttpEntity<>(file.getResource(), createFileHeaders(file)));
         MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        body.add("file", new HttpEntity<>(fileAsResource, createFileHeaders(file)));
+        body.add("file", part);
 
         HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
-        ResponseEntity<String> response = restTemplate.postForEntity(url, requestEntity, String.class);
-        return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
+        ResponseEntity<?> response = mlServiceClient.post("/plant-disease-detection", requestEntity);
+        prepared.ifPresent(image -> plantDiseaseDedupCache.remember(image.dHash(), response));
+        return response;
     }
 
     private HttpHeaders createFileHeaders(MultipartFile file) {
+        return createFileHeaders(
+                file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.jpg",
+                MediaType.parseMediaType(file.getContentType() != null ? file.getContentType() : "application/octet-stream"));
+    }
+
+    private HttpHeaders createFileHeaders(String filename, MediaType contentType) {
         HttpHeaders fileHeaders = new HttpHeaders();
-        fileHeaders.setContentType(MediaType.parseMediaType(file.getContentType() != null ? file.getContentType() : "application/octet-stream"));
+        fileHeaders.setContentType(contentType);
         ContentDisposition cd = ContentDisposition.builder("form-data")
                 .name("file")
-                .filename(file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.jpg")
+                .filename(filename)
                 .build();
         fileHeaders.setContentDisposition(cd);
         return fileHeaders;
     }
-}
\ No newline at end of file
+
+    private static String jpegFilename(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            return "upload.jpg";
+        }
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + ".jpg";
+    }
+}
@@ -34,8 +34,10 @@ public class OwnerResponseController {
         assertOwnerAccess(principal, candidate);
 
         Booking booking = candidateDispatchService.markAccepted(candidate);
+        // Acceptance is written with bulk updates, so re-read the candidate's new status
+        BookingCandidate accepted = candidateRepository.findById(candidateId).orElse(candidate);
 
-        OwnerResponsePayload payload = OwnerResponsePayload.from(booking, candidate, null);
+        OwnerResponsePayload payload = OwnerResponsePayload.from(booking, accepted, null);
         return ResponseEntity.ok(payload);
     }
 
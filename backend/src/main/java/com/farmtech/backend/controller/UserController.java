@@ -1,12 +1,14 @@
 package com.farmtech.backend.controller;
 
 import com.farmtech.backend.entity.User;
+import com.farmtech.backend.service.IdentityResolver;
 import com.farmtech.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -17,6 +19,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdentityResolver identityResolver;
+
     @GetMapping
     public List<User> getAllUsers() {
         return userService.getAllUsers();
@@ -43,6 +48,12 @@ public class UserController {
         return ResponseEntity.status(404).body("User not found with phone: " + phone);
     }
 
+    // Hit/miss counters for the User -> Farmer identity cache
+    @GetMapping("/identity-cache/stats")
+    public Map<String, Object> getIdentityCacheStats() {
+        return identityResolver.stats();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
         Optional<User> user = userService.findById(id);
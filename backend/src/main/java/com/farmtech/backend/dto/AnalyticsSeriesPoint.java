@@ -0,0 +1,14 @@
+package com.farmtech.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One bucket of /api/analytics/series; buckets without bookings are returned as zeros
+public record AnalyticsSeriesPoint(LocalDate bucketStart,
+                                   long bookings,
+                                   long confirmedBookings,
+                                   long cancelledBookings,
+                                   BigDecimal revenue,
+                                   BigDecimal confirmedRevenue,
+                                   Double averageConfirmationTimeMinutes) {
+}
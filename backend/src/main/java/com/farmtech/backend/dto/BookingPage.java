@@ -0,0 +1,15 @@
+package com.farmtech.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated booking list. Pass {@code nextCursor} back as the
+ * {@code cursor} parameter to fetch the following page; it is null on the last page.
+ */
+public record BookingPage(List<BookingSummary> items, Long nextCursor) {
+
+    public static BookingPage of(List<BookingSummary> items, int size) {
+        Long nextCursor = items.size() < size ? null : items.get(items.size() - 1).id();
+        return new BookingPage(items, nextCursor);
+    }
+}
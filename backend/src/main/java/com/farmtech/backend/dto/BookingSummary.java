@@ -0,0 +1,22 @@
+package com.farmtech.backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for booking lists. Built directly by a JPQL constructor expression, so
+ * listing bookings never loads the equipment or farmer entities.
+ */
+public record BookingSummary(Long id,
+                             String status,
+                             String equipmentName,
+                             String renterName,
+                             String renterPhone,
+                             String acceptedOwnerName,
+                             String acceptedOwnerPhone,
+                             LocalDate startDate,
+                             LocalDate endDate,
+                             Integer hours,
+                             Double totalCost,
+                             LocalDateTime createdAt) {
+}
@@ -1,29 +1,49 @@
 package com.farmtech.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+// Associations are lazy; repository methods that return bookings to the API load
+// them in the same select through the "Booking.parties" graph
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // findByStatus / findByStatusIn and the status-filtered keyset pages (status = ? AND id < ?)
+        @Index(name = "idx_bookings_status_id", columnList = "status, id"),
+        // findByRenterIdAndStatus, and findByRenterId through the leading column
+        @Index(name = "idx_bookings_renter_status", columnList = "renter_id, status")
+})
+@NamedEntityGraph(name = Booking.PARTIES_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "equipment", subgraph = "equipmentOwner"),
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode("renter"),
+                @NamedAttributeNode("acceptedOwner")
+        },
+        subgraphs = @NamedSubgraph(name = "equipmentOwner", attributeNodes = @NamedAttributeNode("owner")))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Booking {
 
+    public static final String PARTIES_GRAPH = "Booking.parties";
+
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "equipment_id")
     private Equipment equipment; // The equipment being booked
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private Farmer owner; // Owner of equipment (default owner that was booked)
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "renter_id")
     private Farmer renter; // Farmer who is booking (buyer)
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "accepted_owner_id")
     private Farmer acceptedOwner; // Owner who accepted the booking (may differ from original owner)
 
@@ -53,6 +73,11 @@ public class Booking {
     @Column(name = "confirmed_at")
     private java.time.LocalDateTime confirmedAt;
 
+    // Optimistic lock: a stale save() can no longer overwrite a concurrent acceptance
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -102,6 +127,9 @@ public class Booking {
     public String getEstimatedArrivalTime() { return estimatedArrivalTime; }
     public void setEstimatedArrivalTime(String estimatedArrivalTime) { this.estimatedArrivalTime = estimatedArrivalTime; }
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     public java.time.LocalDateTime getEstimatedArrivalDateTime() { return estimatedArrivalDateTime; }
     public void setEstimatedArrivalDateTime(java.time.LocalDateTime estimatedArrivalDateTime) { this.estimatedArrivalDateTime = estimatedArrivalDateTime; }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.farmtech.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Pre-aggregated booking counters for one time bucket (by booking creation date) and
+// one scope: all bookings, a farmer, or an equipment type. Maintained by BookingSeriesService.
+@Entity
+@Table(name = "booking_analytics_buckets",
+        uniqueConstraints = @UniqueConstraint(name = "uq_analytics_bucket",
+                columnNames = {"granularity", "scope_type", "scope_key", "bucket_start"}))
+public class BookingAnalyticsBucket {
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH;
+
+        // Weeks start on Monday (ISO-8601)
+        public LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        public LocalDate next(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+            };
+        }
+    }
+
+    public enum ScopeType {
+        GLOBAL,
+        FARMER,
+        EQUIPMENT_TYPE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 16)
+    private ScopeType scopeType;
+
+    // Empty for GLOBAL, the farmer id for FARMER, the equipment type for EQUIPMENT_TYPE
+    @Column(name = "scope_key", nullable = false, length = 64)
+    private String scopeKey;
+
+    @Column(nullable = false)
+    private long bookings;
+
+    @Column(name = "confirmed_bookings", nullable = false)
+    private long confirmedBookings;
+
+    @Column(name = "cancelled_bookings", nullable = false)
+    private long cancelledBookings;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "confirmed_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal confirmedRevenue = BigDecimal.ZERO;
+
+    @Column(name = "confirmation_minutes_sum", nullable = false)
+    private long confirmationMinutesSum;
+
+    @Column(name = "confirmation_count", nullable = false)
+    private long confirmationCount;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Granularity getGranularity() { return granularity; }
+    public void setGranularity(Granularity granularity) { this.granularity = granularity; }
+
+    public LocalDate getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDate bucketStart) { this.bucketStart = bucketStart; }
+
+    public ScopeType getScopeType() { return scopeType; }
+    public void setScopeType(ScopeType scopeType) { this.scopeType = scopeType; }
+
+    public String getScopeKey() { return scopeKey; }
+    public void setScopeKey(String scopeKey) { this.scopeKey = scopeKey; }
+
+    public long getBookings() { return bookings; }
+    public void setBookings(long bookings) { this.bookings = bookings; }
+
+    public long getConfirmedBookings() { return confirmedBookings; }
+    public void setConfirmedBookings(long confirmedBookings) { this.confirmedBookings = confirmedBookings; }
+
+    public long getCancelledBookings() { return cancelledBookings; }
+    public void setCancelledBookings(long cancelledBookings) { this.cancelledBookings = cancelledBookings; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public BigDecimal getConfirmedRevenue() { return confirmedRevenue; }
+    public void setConfirmedRevenue(BigDecimal confirmedRevenue) { this.confirmedRevenue = confirmedRevenue; }
+
+    public long getConfirmationMinutesSum() { return confirmationMinutesSum; }
+    public void setConfirmationMinutesSum(long confirmationMinutesSum) { this.confirmationMinutesSum = confirmationMinutesSum; }
+
+    public long getConfirmationCount() { return confirmationCount; }
+    public void setConfirmationCount(long confirmationCount) { this.confirmationCount = confirmationCount; }
+}
@@ -0,0 +1,76 @@
+package com.farmtech.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Pre-aggregated booking counters: the all-bookings totals striped over farmer_id 0, -1, -2 ...
+// (summed on read) and one row per farmer involved as equipment owner or accepting owner.
+// Maintained by BookingRollupService.
+@Entity
+@Table(name = "booking_analytics_rollup")
+public class BookingAnalyticsRollup {
+
+    public static final long GLOBAL = 0L;
+
+    @Id
+    @Column(name = "farmer_id")
+    private Long farmerId;
+
+    @Column(name = "total_bookings", nullable = false)
+    private long totalBookings;
+
+    @Column(name = "confirmed_bookings", nullable = false)
+    private long confirmedBookings;
+
+    @Column(name = "pending_bookings", nullable = false)
+    private long pendingBookings;
+
+    @Column(name = "cancelled_bookings", nullable = false)
+    private long cancelledBookings;
+
+    @Column(name = "total_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    @Column(name = "confirmed_revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal confirmedRevenue = BigDecimal.ZERO;
+
+    @Column(name = "confirmation_minutes_sum", nullable = false)
+    private long confirmationMinutesSum;
+
+    @Column(name = "confirmation_count", nullable = false)
+    private long confirmationCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public Long getFarmerId() { return farmerId; }
+    public void setFarmerId(Long farmerId) { this.farmerId = farmerId; }
+
+    public long getTotalBookings() { return totalBookings; }
+    public void setTotalBookings(long totalBookings) { this.totalBookings = totalBookings; }
+
+    public long getConfirmedBookings() { return confirmedBookings; }
+    public void setConfirmedBookings(long confirmedBookings) { this.confirmedBookings = confirmedBookings; }
+
+    public long getPendingBookings() { return pendingBookings; }
+    public void setPendingBookings(long pendingBookings) { this.pendingBookings = pendingBookings; }
+
+    public long getCancelledBookings() { return cancelledBookings; }
+    public void setCancelledBookings(long cancelledBookings) { this.cancelledBookings = cancelledBookings; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    public BigDecimal getConfirmedRevenue() { return confirmedRevenue; }
+    public void setConfirmedRevenue(BigDecimal confirmedRevenue) { this.confirmedRevenue = confirmedRevenue; }
+
+    public long getConfirmationMinutesSum() { return confirmationMinutesSum; }
+    public void setConfirmationMinutesSum(long confirmationMinutesSum) { this.confirmationMinutesSum = confirmationMinutesSum; }
+
+    public long getConfirmationCount() { return confirmationCount; }
+    public void setConfirmationCount(long confirmationCount) { this.confirmationCount = confirmationCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
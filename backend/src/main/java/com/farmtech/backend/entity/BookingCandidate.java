@@ -1,12 +1,41 @@
 package com.farmtech.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+// Owner dashboards render the invited booking in full, so the "invitation" graph
+// pulls the booking and its parties in the same select as the candidate
 @Entity
-@Table(name = "booking_candidates")
+@Table(name = "booking_candidates", indexes = {
+        // Owner dashboards: findByOwnerIdAndStatus(OrderByInvitedAtAsc), findByOwnerIdOrderByInvitedAtDesc
+        @Index(name = "idx_candidates_owner_status_invited", columnList = "owner_id, status, invited_at"),
+        // findByBookingOrderByDistanceKmAsc
+        @Index(name = "idx_candidates_booking_distance", columnList = "booking_id, distance_km"),
+        // Dispatch: findFirstByBookingAndStatus(In)OrderByInvitedAtAsc, findCandidatesForStatuses
+        @Index(name = "idx_candidates_booking_status_invited", columnList = "booking_id, status, invited_at"),
+        // Expiry wheel rebuild: findOpenInvitationStarts
+        @Index(name = "idx_candidates_status_booking_invited", columnList = "status, booking_id, invited_at")
+})
+@NamedEntityGraph(name = BookingCandidate.INVITATION_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "booking", subgraph = "bookingParties"),
+                @NamedAttributeNode("owner")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "bookingParties", attributeNodes = {
+                        @NamedAttributeNode(value = "equipment", subgraph = "equipmentOwner"),
+                        @NamedAttributeNode("owner"),
+                        @NamedAttributeNode("renter"),
+                        @NamedAttributeNode("acceptedOwner")
+                }),
+                @NamedSubgraph(name = "equipmentOwner", attributeNodes = @NamedAttributeNode("owner"))
+        })
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class BookingCandidate {
 
+    public static final String INVITATION_GRAPH = "BookingCandidate.invitation";
+
     public enum CandidateStatus {
         PENDING,
         NOTIFIED,
@@ -20,11 +49,11 @@ public class BookingCandidate {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id")
     private Booking booking;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private Farmer owner;
 
@@ -1,9 +1,11 @@
 package com.farmtech.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "equipments")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Equipment {
 
     @Id
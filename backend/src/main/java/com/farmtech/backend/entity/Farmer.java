@@ -1,10 +1,14 @@
 package com.farmtech.backend.entity;
 
+import com.farmtech.backend.service.IdentityCacheListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "farmers")
+@EntityListeners(IdentityCacheListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Farmer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,80 @@
+package com.farmtech.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Persistent tier of the geocoding cache, keyed by normalized address. A row without
+// coordinates records an address the geocoder could not resolve (negative entry).
+@Entity
+@Table(name = "geocode_cache", indexes = @Index(name = "idx_geocode_cache_expires", columnList = "expires_at"))
+public class GeocodeCacheEntry {
+
+    @Id
+    @Column(name = "address_key", length = 500)
+    private String addressKey;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(name = "resolved_at", nullable = false)
+    private LocalDateTime resolvedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public GeocodeCacheEntry() {}
+
+    public GeocodeCacheEntry(String addressKey, Double latitude, Double longitude,
+                             LocalDateTime resolvedAt, LocalDateTime expiresAt) {
+        this.addressKey = addressKey;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.resolvedAt = resolvedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isNegative() {
+        return latitude == null || longitude == null;
+    }
+
+    public String getAddressKey() {
+        return addressKey;
+    }
+
+    public void setAddressKey(String addressKey) {
+        this.addressKey = addressKey;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,10 +1,12 @@
 package com.farmtech.backend.entity;
 
+import com.farmtech.backend.service.IdentityCacheListener;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(IdentityCacheListener.class)
 public class User {
 
     @Id
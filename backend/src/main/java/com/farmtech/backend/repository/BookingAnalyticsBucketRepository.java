@@ -0,0 +1,22 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.BookingAnalyticsBucket;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.Granularity;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.ScopeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BookingAnalyticsBucketRepository extends JpaRepository<BookingAnalyticsBucket, Long>, BookingAnalyticsBucketRepositoryCustom {
+
+    // Range scan on uq_analytics_bucket (granularity, scope_type, scope_key, bucket_start)
+    List<BookingAnalyticsBucket> findByGranularityAndScopeTypeAndScopeKeyAndBucketStartBetweenOrderByBucketStartAsc(
+            Granularity granularity, ScopeType scopeType, String scopeKey, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM BookingAnalyticsBucket")
+    void deleteAllBuckets();
+}
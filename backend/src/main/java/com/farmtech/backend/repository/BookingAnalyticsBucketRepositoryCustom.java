@@ -0,0 +1,11 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.BookingAnalyticsBucket;
+
+import java.util.Collection;
+
+public interface BookingAnalyticsBucketRepositoryCustom {
+
+    // Adds each row's counters to the stored bucket, creating it when missing; values may be negative
+    void addAll(Collection<BookingAnalyticsBucket> deltas);
+}
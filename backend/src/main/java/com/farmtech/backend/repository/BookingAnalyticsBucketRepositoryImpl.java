@@ -0,0 +1,60 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.BookingAnalyticsBucket;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.Collection;
+
+/**
+ * Batched upsert for booking_analytics_buckets. A single booking change touches up to
+ * a dozen buckets (three granularities times the global, farmer and equipment-type
+ * scopes) and a rebuild writes every bucket, so both go out as JDBC batches.
+ */
+public class BookingAnalyticsBucketRepositoryImpl implements BookingAnalyticsBucketRepositoryCustom {
+
+    static final int BATCH_SIZE = 1000;
+
+    static final String UPSERT_SQL = """
+            INSERT INTO booking_analytics_buckets
+                (granularity, bucket_start, scope_type, scope_key, bookings, confirmed_bookings, cancelled_bookings,
+                 revenue, confirmed_revenue, confirmation_minutes_sum, confirmation_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                bookings = bookings + VALUES(bookings),
+                confirmed_bookings = confirmed_bookings + VALUES(confirmed_bookings),
+                cancelled_bookings = cancelled_bookings + VALUES(cancelled_bookings),
+                revenue = revenue + VALUES(revenue),
+                confirmed_revenue = confirmed_revenue + VALUES(confirmed_revenue),
+                confirmation_minutes_sum = confirmation_minutes_sum + VALUES(confirmation_minutes_sum),
+                confirmation_count = confirmation_count + VALUES(confirmation_count)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingAnalyticsBucketRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void addAll(Collection<BookingAnalyticsBucket> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, BATCH_SIZE, (ps, bucket) -> {
+            ps.setString(1, bucket.getGranularity().name());
+            ps.setDate(2, Date.valueOf(bucket.getBucketStart()));
+            ps.setString(3, bucket.getScopeType().name());
+            ps.setString(4, bucket.getScopeKey());
+            ps.setLong(5, bucket.getBookings());
+            ps.setLong(6, bucket.getConfirmedBookings());
+            ps.setLong(7, bucket.getCancelledBookings());
+            ps.setBigDecimal(8, bucket.getRevenue());
+            ps.setBigDecimal(9, bucket.getConfirmedRevenue());
+            ps.setLong(10, bucket.getConfirmationMinutesSum());
+            ps.setLong(11, bucket.getConfirmationCount());
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.BookingAnalyticsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface BookingAnalyticsRollupRepository extends JpaRepository<BookingAnalyticsRollup, Long> {
+
+    // Atomic increment (or insert) of one scope's counters; deltas may be negative
+    @Modifying
+    @Query(value = """
+            INSERT INTO booking_analytics_rollup
+                (farmer_id, total_bookings, confirmed_bookings, pending_bookings, cancelled_bookings,
+                 total_revenue, confirmed_revenue, confirmation_minutes_sum, confirmation_count, updated_at)
+            VALUES (:farmerId, :total, :confirmed, :pending, :cancelled,
+                    :revenue, :confirmedRevenue, :minutesSum, :confirmations, NOW(6))
+            ON DUPLICATE KEY UPDATE
+                total_bookings = total_bookings + VALUES(total_bookings),
+                confirmed_bookings = confirmed_bookings + VALUES(confirmed_bookings),
+                pending_bookings = pending_bookings + VALUES(pending_bookings),
+                cancelled_bookings = cancelled_bookings + VALUES(cancelled_bookings),
+                total_revenue = total_revenue + VALUES(total_revenue),
+                confirmed_revenue = confirmed_revenue + VALUES(confirmed_revenue),
+                confirmation_minutes_sum = confirmation_minutes_sum + VALUES(confirmation_minutes_sum),
+                confirmation_count = confirmation_count + VALUES(confirmation_count),
+                updated_at = VALUES(updated_at)
+            """, nativeQuery = true)
+    void addDelta(@Param("farmerId") Long farmerId,
+                  @Param("total") long total,
+                  @Param("confirmed") long confirmed,
+                  @Param("pending") long pending,
+                  @Param("cancelled") long cancelled,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("confirmedRevenue") BigDecimal confirmedRevenue,
+                  @Param("minutesSum") long minutesSum,
+                  @Param("confirmations") long confirmations);
+
+    // Every stripe of the global counters (farmer_id 0 and below)
+    List<BookingAnalyticsRollup> findByFarmerIdLessThanEqual(Long farmerId);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_analytics_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO booking_analytics_rollup
+                (farmer_id, total_bookings, confirmed_bookings, pending_bookings, cancelled_bookings,
+                 total_revenue, confirmed_revenue, confirmation_minutes_sum, confirmation_count, updated_at)
+            SELECT 0,
+                   COUNT(*),
+                   COALESCE(SUM(CASE WHEN status = 'CONFIRMED' THEN 1 ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN status = 'CANCELLED' THEN 1 ELSE 0 END), 0),
+                   COALESCE(SUM(total_cost), 0),
+                   COALESCE(SUM(CASE WHEN status = 'CONFIRMED' THEN total_cost ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN confirmed_at IS NOT NULL THEN TIMESTAMPDIFF(MINUTE, created_at, confirmed_at) ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN confirmed_at IS NOT NULL THEN 1 ELSE 0 END), 0),
+                   NOW(6)
+            FROM bookings
+            """, nativeQuery = true)
+    int rebuildGlobal();
+
+    // UNION (not UNION ALL) so a booking whose owner also accepted it counts once for that farmer
+    @Modifying
+    @Query(value = """
+            INSERT INTO booking_analytics_rollup
+                (farmer_id, total_bookings, confirmed_bookings, pending_bookings, cancelled_bookings,
+                 total_revenue, confirmed_revenue, confirmation_minutes_sum, confirmation_count, updated_at)
+            SELECT farmer_id,
+                   COUNT(*),
+                   SUM(CASE WHEN status = 'CONFIRMED' THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN status = 'CANCELLED' THEN 1 ELSE 0 END),
+                   COALESCE(SUM(total_cost), 0),
+                   COALESCE(SUM(CASE WHEN status = 'CONFIRMED' THEN total_cost ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN confirmed_at IS NOT NULL THEN TIMESTAMPDIFF(MINUTE, created_at, confirmed_at) ELSE 0 END), 0),
+                   SUM(CASE WHEN confirmed_at IS NOT NULL THEN 1 ELSE 0 END),
+                   NOW(6)
+            FROM (
+                SELECT id, owner_id AS farmer_id, status, total_cost, created_at, confirmed_at FROM bookings
+                UNION
+                SELECT id, accepted_owner_id, status, total_cost, created_at, confirmed_at FROM bookings
+                WHERE accepted_owner_id IS NOT NULL
+            ) involved
+            GROUP BY farmer_id
+            """, nativeQuery = true)
+    int rebuildPerFarmer();
+}
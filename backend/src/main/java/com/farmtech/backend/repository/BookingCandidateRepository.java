@@ -4,14 +4,22 @@ import com.farmtech.backend.entity.Booking;
 import com.farmtech.backend.entity.BookingCandidate;
 import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
 import com.farmtech.backend.entity.Farmer;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingCandidateRepository extends JpaRepository<BookingCandidate, Long> {
+public interface BookingCandidateRepository extends JpaRepository<BookingCandidate, Long>, BookingCandidateRepositoryCustom {
+
+    @Override
+    @EntityGraph(BookingCandidate.INVITATION_GRAPH)
+    Optional<BookingCandidate> findById(Long id);
 
     List<BookingCandidate> findByBookingOrderByDistanceKmAsc(Booking booking);
 
@@ -28,14 +36,84 @@ public interface BookingCandidateRepository extends JpaRepository<BookingCandida
     Optional<BookingCandidate> findByBookingAndOwner(Booking booking, Farmer owner);
     
     // Find all candidates for a specific owner by status
+    @EntityGraph(BookingCandidate.INVITATION_GRAPH)
     List<BookingCandidate> findByOwnerIdAndStatus(Long ownerId, CandidateStatus status);
     
     // Find all candidates for a specific owner (all statuses)
+    @EntityGraph(BookingCandidate.INVITATION_GRAPH)
     List<BookingCandidate> findByOwnerIdOrderByInvitedAtDesc(Long ownerId);
     
     // Find pending candidates for a specific owner (NOTIFIED status)
+    @EntityGraph(BookingCandidate.INVITATION_GRAPH)
     List<BookingCandidate> findByOwnerIdAndStatusOrderByInvitedAtAsc(Long ownerId, CandidateStatus status);
     
     // Find all candidates for a specific booking
     List<BookingCandidate> findByBookingId(Long bookingId);
-}
\ No newline at end of file
+
+    boolean existsByBookingId(Long bookingId);
+
+    // Owners other than the given one whose invitation for the booking is still open
+    @Query("SELECT bc.owner.id FROM BookingCandidate bc WHERE bc.booking.id = :bookingId AND bc.owner.id <> :ownerId AND bc.status IN :statuses")
+    List<Long> findOwnerIdsByBookingIdAndOwnerIdNotAndStatusIn(@Param("bookingId") Long bookingId,
+                                                               @Param("ownerId") Long ownerId,
+                                                               @Param("statuses") List<CandidateStatus> statuses);
+
+    // Single-statement expiry of every other open invitation once a booking is accepted
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE BookingCandidate bc
+            SET bc.status = :expired, bc.expiredAt = :now, bc.respondedAt = :now
+            WHERE bc.booking.id = :bookingId AND bc.owner.id <> :ownerId AND bc.status IN :statuses
+            """)
+    int expireOtherCandidates(@Param("bookingId") Long bookingId,
+                              @Param("ownerId") Long ownerId,
+                              @Param("statuses") List<CandidateStatus> statuses,
+                              @Param("expired") CandidateStatus expired,
+                              @Param("now") LocalDateTime now);
+
+    // Invitation start per booking with open invitations; rebuilds the expiry wheel on startup
+    @Query("SELECT bc.booking.id, MIN(bc.invitedAt) FROM BookingCandidate bc WHERE bc.status IN :statuses GROUP BY bc.booking.id")
+    List<Object[]> findOpenInvitationStarts(@Param("statuses") List<CandidateStatus> statuses);
+
+    @Query("""
+            SELECT bc.booking.id, MIN(bc.invitedAt) FROM BookingCandidate bc
+            WHERE bc.booking.id IN :bookingIds AND bc.status IN :statuses GROUP BY bc.booking.id
+            """)
+    List<Object[]> findOpenInvitationStarts(@Param("bookingIds") Collection<Long> bookingIds,
+                                            @Param("statuses") List<CandidateStatus> statuses);
+
+    // (bookingId, ownerId) of the invitations expireTimedOut is about to close
+    @Query("""
+            SELECT bc.booking.id, bc.owner.id FROM BookingCandidate bc
+            WHERE bc.booking.id IN :bookingIds AND bc.status IN :statuses AND bc.invitedAt <= :invitedBefore
+            """)
+    List<Object[]> findTimedOutInvitations(@Param("bookingIds") Collection<Long> bookingIds,
+                                           @Param("statuses") List<CandidateStatus> statuses,
+                                           @Param("invitedBefore") LocalDateTime invitedBefore);
+
+    // Closes every open invitation of the given bookings that is older than the response window
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE BookingCandidate bc
+            SET bc.status = :timedOut, bc.expiredAt = :now
+            WHERE bc.booking.id IN :bookingIds AND bc.status IN :statuses AND bc.invitedAt <= :invitedBefore
+            """)
+    int expireTimedOut(@Param("bookingIds") Collection<Long> bookingIds,
+                       @Param("statuses") List<CandidateStatus> statuses,
+                       @Param("timedOut") CandidateStatus timedOut,
+                       @Param("invitedBefore") LocalDateTime invitedBefore,
+                       @Param("now") LocalDateTime now);
+
+    // Only an open invitation can turn into an acceptance; a timed-out one stays closed
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE BookingCandidate bc
+            SET bc.status = :accepted, bc.acceptedAt = :now, bc.respondedAt = :now
+            WHERE bc.booking.id = :bookingId AND bc.owner.id = :ownerId AND bc.status IN :openStatuses
+            """)
+    int markOwnerAccepted(@Param("bookingId") Long bookingId,
+                          @Param("ownerId") Long ownerId,
+                          @Param("openStatuses") List<CandidateStatus> openStatuses,
+                          @Param("accepted") CandidateStatus accepted,
+                          @Param("now") LocalDateTime now);
+}
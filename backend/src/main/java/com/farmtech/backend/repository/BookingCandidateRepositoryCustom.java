@@ -0,0 +1,11 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.BookingCandidate;
+
+import java.util.List;
+
+public interface BookingCandidateRepositoryCustom {
+
+    // Bulk insert for candidate fan-out; generated ids are not written back to the entities
+    void insertAll(List<BookingCandidate> candidates);
+}
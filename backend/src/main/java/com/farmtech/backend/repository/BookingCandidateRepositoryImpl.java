@@ -0,0 +1,55 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.BookingCandidate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch insert for booking_candidates. BookingCandidate uses IDENTITY ids, which
+ * stops Hibernate from batching saveAll(), so a booking with thousands of candidates
+ * would otherwise cost one INSERT round trip per owner. With
+ * rewriteBatchedStatements=true on the MySQL URL each batch becomes a single
+ * multi-row INSERT.
+ */
+public class BookingCandidateRepositoryImpl implements BookingCandidateRepositoryCustom {
+
+    static final int BATCH_SIZE = 1000;
+
+    static final String INSERT_SQL = """
+            INSERT INTO booking_candidates (booking_id, owner_id, distance_km, status, invited_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingCandidateRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<BookingCandidate> candidates) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, candidates, BATCH_SIZE, (ps, candidate) -> {
+            ps.setLong(1, candidate.getBooking().getId());
+            ps.setLong(2, candidate.getOwner().getId());
+            if (candidate.getDistanceKm() != null) {
+                ps.setDouble(3, candidate.getDistanceKm());
+            } else {
+                ps.setNull(3, Types.DOUBLE);
+            }
+            ps.setString(4, candidate.getStatus().name());
+            if (candidate.getInvitedAt() != null) {
+                ps.setTimestamp(5, Timestamp.valueOf(candidate.getInvitedAt()));
+            } else {
+                ps.setNull(5, Types.TIMESTAMP);
+            }
+        });
+    }
+}
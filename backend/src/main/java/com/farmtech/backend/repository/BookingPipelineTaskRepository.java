@@ -0,0 +1,17 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.BookingPipelineTask;
+import com.farmtech.backend.entity.BookingPipelineTask.Stage;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingPipelineTaskRepository extends JpaRepository<BookingPipelineTask, Long> {
+
+    Optional<BookingPipelineTask> findByBookingId(Long bookingId);
+
+    // Unfinished tasks that have not progressed recently (crashed worker, restart or rejected submission)
+    List<BookingPipelineTask> findTop100ByStageInAndUpdatedAtBeforeOrderByUpdatedAtAsc(List<Stage> stages, LocalDateTime updatedBefore);
+}
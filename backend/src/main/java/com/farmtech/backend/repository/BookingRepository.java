@@ -1,31 +1,55 @@
 
 package com.farmtech.backend.repository;
 
+import com.farmtech.backend.dto.BookingSummary;
 import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.Farmer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    // Single bookings are read outside a session (pipeline worker, SSE payloads), so load the parties eagerly
+    @Override
+    @EntityGraph(Booking.PARTIES_GRAPH)
+    Optional<Booking> findById(Long id);
+
+    @Override
+    @EntityGraph(Booking.PARTIES_GRAPH)
+    List<Booking> findAll();
+
     // Explicit query to ensure correct filtering by renter ID
     @Query("SELECT b FROM Booking b WHERE b.renter.id = :renterId")
+    @EntityGraph(Booking.PARTIES_GRAPH)
     List<Booking> findByRenterId(@Param("renterId") Long renterId); // Bookings made by a renter (buyer view)
     
     // Explicit query to ensure correct filtering by owner ID
     @Query("SELECT b FROM Booking b WHERE b.owner.id = :ownerId")
+    @EntityGraph(Booking.PARTIES_GRAPH)
     List<Booking> findByOwnerId(@Param("ownerId") Long ownerId);   // Bookings received for an owner's equipment (owner view)
     
+    @EntityGraph(Booking.PARTIES_GRAPH)
     List<Booking> findByStatus(String status);   // Find bookings by status (for pending bookings)
+    @EntityGraph(Booking.PARTIES_GRAPH)
     List<Booking> findByStatusIn(List<String> statuses); // Find bookings whose status is in the provided list
     
     // New methods for enhanced functionality
     @Query("SELECT b FROM Booking b WHERE b.acceptedOwner.id = :acceptedOwnerId")
+    @EntityGraph(Booking.PARTIES_GRAPH)
     List<Booking> findByAcceptedOwnerId(@Param("acceptedOwnerId") Long acceptedOwnerId); // Bookings accepted by a specific owner
     
     // Explicit query to ensure correct filtering by renter ID and status
     @Query("SELECT b FROM Booking b WHERE b.renter.id = :renterId AND b.status = :status")
+    @EntityGraph(Booking.PARTIES_GRAPH)
     List<Booking> findByRenterIdAndStatus(@Param("renterId") Long renterId, @Param("status") String status);
 
     // Find all bookings for a specific equipment
@@ -35,4 +59,78 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     // Clean up all bookings referencing an equipment (to avoid FK constraint on delete)
     @Transactional
     void deleteByEquipmentId(Long equipmentId);
-}
\ No newline at end of file
+
+    // Bookings still waiting for an owner that have no open invitation left
+    @Query("""
+            SELECT b FROM Booking b
+            WHERE b.id IN :bookingIds AND b.acceptedOwner IS NULL AND b.status = :status
+            AND NOT EXISTS (SELECT bc.id FROM BookingCandidate bc WHERE bc.booking = b AND bc.status IN :openStatuses)
+            """)
+    @EntityGraph(Booking.PARTIES_GRAPH)
+    List<Booking> findUnclaimedWithoutOpenCandidates(@Param("bookingIds") Collection<Long> bookingIds,
+                                                     @Param("status") String status,
+                                                     @Param("openStatuses") List<BookingCandidate.CandidateStatus> openStatuses);
+
+    // Status change that loses to a concurrent accept: only applies while no owner has claimed the booking
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE Booking b
+            SET b.status = :to, b.version = b.version + 1
+            WHERE b.id = :bookingId AND b.acceptedOwner IS NULL AND b.status = :from
+            """)
+    int transitionUnclaimed(@Param("bookingId") Long bookingId,
+                            @Param("from") String from,
+                            @Param("to") String to);
+
+    // Compare-and-set acceptance: only succeeds (returns 1) while no owner has accepted yet
+    // and this owner's invitation is still open
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE Booking b
+            SET b.acceptedOwner = :owner, b.status = 'CONFIRMED', b.confirmedAt = :confirmedAt, b.version = b.version + 1
+            WHERE b.id = :bookingId AND b.acceptedOwner IS NULL
+            AND EXISTS (SELECT bc.id FROM BookingCandidate bc
+                        WHERE bc.booking = b AND bc.owner = :owner AND bc.status IN :openStatuses)
+            """)
+    int claimForOwner(@Param("bookingId") Long bookingId,
+                      @Param("owner") Farmer owner,
+                      @Param("openStatuses") List<BookingCandidate.CandidateStatus> openStatuses,
+                      @Param("confirmedAt") LocalDateTime confirmedAt);
+
+    // Keyset pages, newest first: pass the last id of the previous page as beforeId
+    @Query("""
+            SELECT new com.farmtech.backend.dto.BookingSummary(
+                b.id, b.status, e.name, r.name, r.phone, ao.name, ao.phone,
+                b.startDate, b.endDate, b.hours, b.totalCost, b.createdAt)
+            FROM Booking b JOIN b.equipment e JOIN b.renter r LEFT JOIN b.acceptedOwner ao
+            WHERE b.id < :beforeId
+            ORDER BY b.id DESC
+            """)
+    List<BookingSummary> findSummariesBefore(@Param("beforeId") Long beforeId, Limit limit);
+
+    @Query("""
+            SELECT new com.farmtech.backend.dto.BookingSummary(
+                b.id, b.status, e.name, r.name, r.phone, ao.name, ao.phone,
+                b.startDate, b.endDate, b.hours, b.totalCost, b.createdAt)
+            FROM Booking b JOIN b.equipment e JOIN b.renter r LEFT JOIN b.acceptedOwner ao
+            WHERE b.status IN :statuses AND b.id < :beforeId
+            ORDER BY b.id DESC
+            """)
+    List<BookingSummary> findSummariesByStatusInBefore(@Param("statuses") List<String> statuses,
+                                                       @Param("beforeId") Long beforeId,
+                                                       Limit limit);
+
+    // Rebuild source for analytics buckets, in id order. Rows are
+    // [id, ownerId, acceptedOwnerId, status, totalCost, createdAt, confirmedAt, equipmentType]
+    @Query("""
+            SELECT b.id, b.owner.id, ao.id, b.status, b.totalCost, b.createdAt, b.confirmedAt, e.type
+            FROM Booking b JOIN b.equipment e LEFT JOIN b.acceptedOwner ao
+            WHERE b.id > :afterId
+            ORDER BY b.id
+            """)
+    List<Object[]> findAnalyticsRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Rows are [status, count]
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countByStatus();
+}
@@ -2,9 +2,30 @@ package com.farmtech.backend.repository;
 
 import com.farmtech.backend.entity.Farmer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
 public interface FarmerRepository extends JpaRepository<Farmer, Long> {
     Optional<Farmer> findByPhone(String phone);
     Optional<Farmer> findByEmail(String email);
+
+    // Farmer records backing User accounts with the given role (User and Farmer are linked by phone)
+    @Query("SELECT f FROM Farmer f, User u WHERE u.phone = f.phone AND u.role = :role")
+    List<Farmer> findByUserRole(@Param("role") String role);
+
+    // Only fills in a location the farmer does not have yet, so coordinates set from the profile meanwhile win
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("""
+            UPDATE Farmer f SET f.latitude = :latitude, f.longitude = :longitude
+            WHERE f.id = :id
+            AND (f.latitude IS NULL OR f.latitude = 0) AND (f.longitude IS NULL OR f.longitude = 0)
+            """)
+    int setLocationIfUnset(@Param("id") Long id,
+                           @Param("latitude") double latitude,
+                           @Param("longitude") double longitude);
 }
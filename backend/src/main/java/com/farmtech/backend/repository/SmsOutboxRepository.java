@@ -0,0 +1,14 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.SmsOutboxMessage;
+import com.farmtech.backend.entity.SmsOutboxMessage.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SmsOutboxRepository extends JpaRepository<SmsOutboxMessage, Long> {
+
+    // Messages whose next attempt is due: new ones never picked up, retries past their backoff
+    List<SmsOutboxMessage> findTop100ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(Status status, LocalDateTime now);
+}
@@ -2,6 +2,8 @@ package com.farmtech.backend.repository;
 
 import com.farmtech.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +16,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPhone(String phone);
     Optional<User> findByEmail(String email);
     List<User> findByRole(String role);
+
+    // Users with the given role that do not have a Farmer record yet (linked by phone)
+    @Query("SELECT u FROM User u WHERE u.role = :role AND NOT EXISTS (SELECT f.id FROM Farmer f WHERE f.phone = u.phone)")
+    List<User> findByRoleWithoutFarmer(@Param("role") String role);
 }
@@ -0,0 +1,107 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.repository.BookingCandidateRepository;
+import com.farmtech.backend.repository.FarmerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class BookingCandidateService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingCandidateService.class);
+
+    static final double SEARCH_RADIUS_KM = 50.0;
+
+    private final OwnerLocationIndex ownerLocationIndex;
+    private final FarmerRepository farmerRepository;
+    private final BookingCandidateRepository candidateRepository;
+    private final BookingEventHub bookingEventHub;
+    private final BookingMetrics bookingMetrics;
+
+    // Upper bound on invitations per booking, regardless of how many owners are in range
+    @Value("${booking.candidates.max:200}")
+    private int maxCandidates;
+
+    public BookingCandidateService(OwnerLocationIndex ownerLocationIndex,
+                                   FarmerRepository farmerRepository,
+                                   BookingCandidateRepository candidateRepository,
+                                   BookingEventHub bookingEventHub,
+                                   BookingMetrics bookingMetrics) {
+        this.ownerLocationIndex = ownerLocationIndex;
+        this.farmerRepository = farmerRepository;
+        this.candidateRepository = candidateRepository;
+        this.bookingEventHub = bookingEventHub;
+        this.bookingMetrics = bookingMetrics;
+    }
+
+    /**
+     * Invites the owners nearest to the booking location. Safe to call again for a
+     * booking that already has candidates (pipeline retry): nothing is written.
+     */
+    public int createCandidateEntries(Booking booking) {
+        if (candidateRepository.existsByBookingId(booking.getId())) {
+            log.atDebug().addKeyValue("bookingId", booking.getId()).log("Candidates already exist, skipping");
+            return 0;
+        }
+
+        // Only OWNER accounts near the booking location are considered (see OwnerLocationIndex)
+        Long equipmentOwnerId = booking.getOwner().getId();
+        List<OwnerLocationIndex.Neighbor> nearest;
+        if (booking.getLocationLatitude() != null && booking.getLocationLongitude() != null) {
+            nearest = ownerLocationIndex.findNearest(
+                    booking.getLocationLatitude(),
+                    booking.getLocationLongitude(),
+                    SEARCH_RADIUS_KM,
+                    maxCandidates,
+                    equipmentOwnerId
+            );
+        } else {
+            log.atDebug().addKeyValue("bookingId", booking.getId()).log("No coordinates, inviting owners without distance ranking");
+            nearest = ownerLocationIndex.findAny(maxCandidates, equipmentOwnerId);
+        }
+
+        Map<Long, Farmer> ownersById = farmerRepository.findAllById(
+                nearest.stream().map(OwnerLocationIndex.Neighbor::farmerId).collect(Collectors.toList())
+        ).stream().collect(Collectors.toMap(Farmer::getId, owner -> owner));
+
+        LocalDateTime invitedAt = LocalDateTime.now();
+        List<BookingCandidate> candidates = new ArrayList<>(nearest.size());
+        for (OwnerLocationIndex.Neighbor neighbor : nearest) {
+            Farmer owner = ownersById.get(neighbor.farmerId());
+            if (owner == null) {
+                // Deleted since it was indexed
+                ownerLocationIndex.evict(neighbor.farmerId());
+                continue;
+            }
+            BookingCandidate candidate = new BookingCandidate();
+            candidate.setBooking(booking);
+            candidate.setOwner(owner);
+            candidate.setDistanceKm(neighbor.distanceKm());
+            candidate.setStatus(CandidateStatus.NOTIFIED);
+            candidate.setInvitedAt(invitedAt);
+            candidates.add(candidate);
+        }
+
+        candidateRepository.insertAll(candidates);
+        log.atInfo()
+                .addKeyValue("bookingId", booking.getId())
+                .addKeyValue("inRange", nearest.size())
+                .addKeyValue("candidates", candidates.size())
+                .log("Candidates created");
+        bookingMetrics.candidatesCreated(candidates.size());
+        bookingEventHub.invitationsCreated(booking.getId(), ownersById.keySet());
+        return candidates.size();
+    }
+}
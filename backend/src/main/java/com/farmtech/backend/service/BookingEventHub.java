@@ -0,0 +1,128 @@
+package com.farmtech.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-Sent Events registry keyed by Farmer id. Owners are told when they are
+ * invited to a booking or when an invitation is revoked, renters when one of their
+ * bookings changes, so the frontend no longer has to poll for either.
+ *
+ * Idle subscriptions hold no request thread and cost no database queries.
+ */
+@Service
+public class BookingEventHub {
+
+    public static final String INVITATION_CREATED = "invitation-created";
+    public static final String INVITATION_REVOKED = "invitation-revoked";
+    public static final String BOOKING_UPDATED = "booking-updated";
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${booking.events.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    public SseEmitter subscribe(Long farmerId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        subscribers.compute(farmerId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+
+        Runnable unsubscribe = () -> remove(farmerId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        // Lets the client know the stream is live before the first real event
+        send(farmerId, emitter, SseEmitter.event().name("subscribed").data(Map.of("farmerId", farmerId)));
+        return emitter;
+    }
+
+    public void invitationsCreated(Long bookingId, Collection<Long> ownerIds) {
+        Map<String, Object> payload = Map.of("bookingId", bookingId, "at", LocalDateTime.now().toString());
+        publishAfterCommit(ownerIds, INVITATION_CREATED, payload);
+    }
+
+    public void invitationsRevoked(Long bookingId, Collection<Long> ownerIds) {
+        Map<String, Object> payload = Map.of("bookingId", bookingId, "at", LocalDateTime.now().toString());
+        publishAfterCommit(ownerIds, INVITATION_REVOKED, payload);
+    }
+
+    public void bookingUpdated(Long bookingId, Long renterId, String status) {
+        Map<String, Object> payload = Map.of("bookingId", bookingId, "status", String.valueOf(status),
+                "at", LocalDateTime.now().toString());
+        publishAfterCommit(List.of(renterId), BOOKING_UPDATED, payload);
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    // Comment frames keep proxies from closing idle streams and flush out dead connections
+    @Scheduled(fixedDelayString = "${booking.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((farmerId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(farmerId, emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    // Events must not reach clients before the rows they refer to are visible
+    private void publishAfterCommit(Collection<Long> farmerIds, String eventName, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(farmerIds, eventName, payload);
+                }
+            });
+        } else {
+            publish(farmerIds, eventName, payload);
+        }
+    }
+
+    private void publish(Collection<Long> farmerIds, String eventName, Object payload) {
+        Set<Long> distinct = Set.copyOf(farmerIds);
+        for (Long farmerId : distinct) {
+            List<SseEmitter> emitters = subscribers.get(farmerId);
+            if (emitters == null) {
+                continue;
+            }
+            for (SseEmitter emitter : emitters) {
+                send(farmerId, emitter, SseEmitter.event().name(eventName).data(payload));
+            }
+        }
+    }
+
+    private void send(Long farmerId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            remove(farmerId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long farmerId, SseEmitter emitter) {
+        subscribers.computeIfPresent(farmerId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.farmtech.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Candidate lifecycle meters, exported on /actuator/prometheus. Counts are totals across
+ * bookings; the per-booking view is the {@code booking.candidates.per.booking} summary,
+ * since tagging by booking id would create a time series per booking.
+ */
+@Component
+public class BookingMetrics {
+
+    private final Counter candidatesCreated;
+    private final Counter candidatesExpired;
+    private final Counter candidatesTimedOut;
+    private final Counter candidatesAccepted;
+    private final Counter candidatesRejected;
+    private final DistributionSummary candidatesPerBooking;
+    private final Timer timeToAccept;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.candidatesCreated = Counter.builder("booking.candidates.created")
+                .description("Owner invitations written")
+                .register(registry);
+        this.candidatesExpired = Counter.builder("booking.candidates.expired")
+                .description("Open invitations closed because another owner accepted")
+                .register(registry);
+        this.candidatesTimedOut = Counter.builder("booking.candidates.timed.out")
+                .description("Invitations closed because the owner did not answer in time")
+                .register(registry);
+        this.candidatesAccepted = Counter.builder("booking.candidates.accepted")
+                .description("Invitations that won their booking")
+                .register(registry);
+        this.candidatesRejected = Counter.builder("booking.candidates.rejected")
+                .description("Invitations declined by the owner")
+                .register(registry);
+        this.candidatesPerBooking = DistributionSummary.builder("booking.candidates.per.booking")
+                .description("Size of the candidate list generated for a booking")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.timeToAccept = Timer.builder("booking.time.to.accept")
+                .description("Time from booking creation until an owner claims it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofDays(2))
+                .register(registry);
+    }
+
+    public void candidatesCreated(int count) {
+        candidatesCreated.increment(count);
+        candidatesPerBooking.record(count);
+    }
+
+    public void candidatesExpired(int count) {
+        candidatesExpired.increment(count);
+    }
+
+    public void candidatesTimedOut(int count) {
+        candidatesTimedOut.increment(count);
+    }
+
+    public void candidateAccepted(Duration sinceCreated) {
+        candidatesAccepted.increment();
+        if (!sinceCreated.isNegative()) {
+            timeToAccept.record(sinceCreated);
+        }
+    }
+
+    public void candidateRejected() {
+        candidatesRejected.increment();
+    }
+}
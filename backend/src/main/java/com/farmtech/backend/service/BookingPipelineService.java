@@ -0,0 +1,212 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingPipelineTask;
+import com.farmtech.backend.entity.BookingPipelineTask.Stage;
+import com.farmtech.backend.repository.BookingPipelineTaskRepository;
+import com.farmtech.backend.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the work that follows a booking being created - candidate generation, owner
+ * dispatch and the renter SMS - off the request thread.
+ *
+ * Every booking gets a row in booking_pipeline_tasks in the same transaction as the
+ * booking itself. The row records the next stage to run, so a restart or a rejected
+ * submission simply resumes from there when the recovery poller picks it up.
+ */
+@Service
+public class BookingPipelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPipelineService.class);
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private static final List<Stage> ACTIVE_STAGES = List.of(Stage.CANDIDATES, Stage.DISPATCH, Stage.NOTIFY_RENTER);
+
+    private final BookingRepository bookingRepository;
+    private final BookingPipelineTaskRepository taskRepository;
+    private final BookingCandidateService candidateService;
+    private final CandidateDispatchService candidateDispatchService;
+    private final CandidateExpiryScheduler candidateExpiryScheduler;
+    private final SmsService smsService;
+    private final BookingRollupService bookingRollupService;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Tasks queued or running in this JVM, so the poller does not submit them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${booking.pipeline.stale-after-seconds:30}")
+    private long staleAfterSeconds;
+
+    public BookingPipelineService(BookingRepository bookingRepository,
+                                  BookingPipelineTaskRepository taskRepository,
+                                  BookingCandidateService candidateService,
+                                  CandidateDispatchService candidateDispatchService,
+                                  CandidateExpiryScheduler candidateExpiryScheduler,
+                                  SmsService smsService,
+                                  BookingRollupService bookingRollupService,
+                                  @Qualifier("bookingPipelineExecutor") ThreadPoolTaskExecutor executor) {
+        this.bookingRepository = bookingRepository;
+        this.taskRepository = taskRepository;
+        this.candidateService = candidateService;
+        this.candidateDispatchService = candidateDispatchService;
+        this.candidateExpiryScheduler = candidateExpiryScheduler;
+        this.smsService = smsService;
+        this.bookingRollupService = bookingRollupService;
+        this.executor = executor;
+    }
+
+    /**
+     * Persists the booking together with its outbox row and schedules the pipeline
+     * once the transaction has committed.
+     */
+    @Transactional
+    public Booking submit(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        bookingRollupService.bookingCreated(saved);
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingPipelineTask task = new BookingPipelineTask();
+        task.setBookingId(saved.getId());
+        task.setStage(Stage.CANDIDATES);
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        BookingPipelineTask savedTask = taskRepository.save(task);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(savedTask.getId());
+            }
+        });
+        return saved;
+    }
+
+    public Optional<BookingPipelineTask> getStatus(Long bookingId) {
+        return taskRepository.findByBookingId(bookingId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        resume(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.pipeline.recovery-interval-ms:10000}")
+    public void recoverStaleTasks() {
+        resume(LocalDateTime.now().minusSeconds(staleAfterSeconds));
+    }
+
+    private void resume(LocalDateTime updatedBefore) {
+        List<BookingPipelineTask> stale = taskRepository
+                .findTop100ByStageInAndUpdatedAtBeforeOrderByUpdatedAtAsc(ACTIVE_STAGES, updatedBefore);
+        for (BookingPipelineTask task : stale) {
+            schedule(task.getId());
+        }
+    }
+
+    private void schedule(Long taskId) {
+        if (!inFlight.add(taskId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(taskId);
+                } finally {
+                    inFlight.remove(taskId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Queue full: the row stays in the outbox and the poller retries it later
+            inFlight.remove(taskId);
+            log.atWarn().addKeyValue("taskId", taskId).log("Pipeline queue full, deferring task");
+        }
+    }
+
+    private void run(Long taskId) {
+        BookingPipelineTask task = taskRepository.findById(taskId).orElse(null);
+        while (task != null && ACTIVE_STAGES.contains(task.getStage())) {
+            try {
+                runStage(task);
+                task.setStage(nextStage(task.getStage()));
+                task.setAttempts(0);
+                task.setLastError(null);
+            } catch (Exception e) {
+                task.setAttempts(task.getAttempts() + 1);
+                task.setLastError(truncate(e.toString()));
+                if (task.getAttempts() >= MAX_ATTEMPTS) {
+                    task.setStage(Stage.FAILED);
+                }
+                log.atWarn()
+                        .addKeyValue("bookingId", task.getBookingId())
+                        .addKeyValue("stage", task.getStage())
+                        .addKeyValue("attempt", task.getAttempts())
+                        .setCause(e)
+                        .log("Pipeline stage failed");
+                task.setUpdatedAt(LocalDateTime.now());
+                taskRepository.save(task);
+                return; // retried by the recovery poller
+            }
+            task.setUpdatedAt(LocalDateTime.now());
+            task = taskRepository.save(task);
+        }
+    }
+
+    private void runStage(BookingPipelineTask task) {
+        Booking booking = bookingRepository.findById(task.getBookingId())
+                .orElseThrow(() -> new IllegalStateException("Booking not found: " + task.getBookingId()));
+        switch (task.getStage()) {
+            case CANDIDATES -> candidateService.createCandidateEntries(booking);
+            case DISPATCH -> {
+                candidateDispatchService.notifyCandidatesSimultaneously(booking.getId());
+                candidateExpiryScheduler.track(booking.getId());
+            }
+            case NOTIFY_RENTER -> notifyRenter(booking);
+            default -> throw new IllegalStateException("Stage is not runnable: " + task.getStage());
+        }
+    }
+
+    private void notifyRenter(Booking booking) {
+        String renterPhone = booking.getRenter() != null ? booking.getRenter().getPhone() : null;
+        if (renterPhone == null || renterPhone.isBlank()) {
+            return;
+        }
+        String renterMsg = String.format(
+                "You booked %s. Start %s, Hours %s. Booking ID %s.",
+                booking.getEquipment().getName(), booking.getStartDate(),
+                (booking.getHours() != null ? booking.getHours() : "-"), booking.getId()
+        );
+        smsService.sendSms(renterPhone, renterMsg);
+    }
+
+    private static Stage nextStage(Stage stage) {
+        return switch (stage) {
+            case CANDIDATES -> Stage.DISPATCH;
+            case DISPATCH -> Stage.NOTIFY_RENTER;
+            default -> Stage.COMPLETED;
+        };
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,215 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingAnalyticsRollup;
+import com.farmtech.backend.repository.BookingAnalyticsRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps booking_analytics_rollup in step with the bookings table so analytics reads
+ * are a primary-key lookup instead of a full scan.
+ *
+ * Every code path that creates, changes or deletes a booking passes a snapshot of the
+ * booking before and after the change; the difference is added to the global row and
+ * to the rows of the farmers involved, in the same transaction as the booking write.
+ * The same change also feeds the time buckets of {@link BookingSeriesService}.
+ * {@link #reconcile()} rebuilds every row and bucket from the bookings table, which
+ * repairs any drift (for example writes made directly in the database).
+ *
+ * Every booking write touches the global counters, so a single global row would be
+ * locked by every booking transaction until it commits. The global counters are instead
+ * spread over {@code analytics.rollup.global-stripes} rows (farmer_id 0, -1, -2 ...);
+ * a thread always writes the same stripe, so one transaction locks at most one of them,
+ * and {@link BookingAnalyticsService} sums the stripes on read.
+ */
+@Service
+public class BookingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRollupService.class);
+
+    private final BookingAnalyticsRollupRepository rollupRepository;
+    private final BookingSeriesService bookingSeriesService;
+    private final int globalStripes;
+
+    public BookingRollupService(BookingAnalyticsRollupRepository rollupRepository,
+                                BookingSeriesService bookingSeriesService,
+                                @Value("${analytics.rollup.global-stripes:16}") int globalStripes) {
+        if (globalStripes < 1) {
+            throw new IllegalArgumentException("analytics.rollup.global-stripes must be at least 1");
+        }
+        this.rollupRepository = rollupRepository;
+        this.bookingSeriesService = bookingSeriesService;
+        this.globalStripes = globalStripes;
+    }
+
+    /**
+     * The analytics-relevant state of a booking at one point in time. Take it before
+     * mutating the entity, since the entity itself is changed in place.
+     */
+    public record Snapshot(Long ownerId,
+                           Long acceptedOwnerId,
+                           String status,
+                           Double totalCost,
+                           LocalDateTime createdAt,
+                           LocalDateTime confirmedAt,
+                           String equipmentType) {
+
+        public static Snapshot of(Booking booking) {
+            return new Snapshot(
+                    booking.getOwner() != null ? booking.getOwner().getId() : null,
+                    booking.getAcceptedOwner() != null ? booking.getAcceptedOwner().getId() : null,
+                    booking.getStatus(),
+                    booking.getTotalCost(),
+                    booking.getCreatedAt(),
+                    booking.getConfirmedAt(),
+                    booking.getEquipment() != null ? booking.getEquipment().getType() : null);
+        }
+
+        // Equipment owner and accepting owner, each once
+        List<Long> farmerIds() {
+            List<Long> farmerIds = new ArrayList<>(2);
+            if (ownerId != null) {
+                farmerIds.add(ownerId);
+            }
+            if (acceptedOwnerId != null && !acceptedOwnerId.equals(ownerId)) {
+                farmerIds.add(acceptedOwnerId);
+            }
+            return farmerIds;
+        }
+
+        List<Long> scopes(long globalStripe) {
+            List<Long> scopes = new ArrayList<>(3);
+            scopes.add(globalStripe);
+            scopes.addAll(farmerIds());
+            return scopes;
+        }
+
+        // Same truncation as TIMESTAMPDIFF(MINUTE, created_at, confirmed_at)
+        Long confirmationMinutes() {
+            if (createdAt == null || confirmedAt == null) {
+                return null;
+            }
+            return Duration.between(createdAt, confirmedAt).toMinutes();
+        }
+    }
+
+    @Transactional
+    public void bookingCreated(Booking booking) {
+        recordChange(null, Snapshot.of(booking));
+    }
+
+    @Transactional
+    public void bookingRemoved(Booking booking) {
+        recordChange(Snapshot.of(booking), null);
+    }
+
+    /**
+     * Applies the difference between two states of the same booking. {@code before} is
+     * null for a new booking and {@code after} is null for a deleted one.
+     */
+    @Transactional
+    public void recordChange(Snapshot before, Snapshot after) {
+        long globalStripe = globalStripe();
+        Map<Long, Delta> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            for (Long scope : before.scopes(globalStripe)) {
+                deltas.computeIfAbsent(scope, id -> new Delta()).add(before, -1);
+            }
+        }
+        if (after != null) {
+            for (Long scope : after.scopes(globalStripe)) {
+                deltas.computeIfAbsent(scope, id -> new Delta()).add(after, 1);
+            }
+        }
+        deltas.forEach((scope, delta) -> {
+            if (!delta.isZero()) {
+                rollupRepository.addDelta(scope, delta.total, delta.confirmed, delta.pending, delta.cancelled,
+                        delta.revenue, delta.confirmedRevenue, delta.minutesSum, delta.confirmations);
+            }
+        });
+        bookingSeriesService.recordChange(before, after);
+    }
+
+    // Keyed by thread so a transaction, which stays on one thread, never locks two stripes
+    // (two transactions taking stripes in opposite order could deadlock)
+    private long globalStripe() {
+        return BookingAnalyticsRollup.GLOBAL - Math.floorMod(Thread.currentThread().getId(), globalStripes);
+    }
+
+    // Fills the table on first start against an existing database
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            rebuildRows();
+        }
+    }
+
+    @Scheduled(cron = "${analytics.rollup.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        rebuildRows();
+        bookingSeriesService.rebuild();
+    }
+
+    private void rebuildRows() {
+        long started = System.currentTimeMillis();
+        rollupRepository.deleteAllRows();
+        rollupRepository.rebuildGlobal();
+        int farmers = rollupRepository.rebuildPerFarmer();
+        log.info("Rebuilt booking analytics rollup for {} farmers in {} ms", farmers, System.currentTimeMillis() - started);
+    }
+
+    private static final class Delta {
+        long total;
+        long confirmed;
+        long pending;
+        long cancelled;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal confirmedRevenue = BigDecimal.ZERO;
+        long minutesSum;
+        long confirmations;
+
+        void add(Snapshot snapshot, int sign) {
+            BigDecimal cost = snapshot.totalCost() != null
+                    ? BigDecimal.valueOf(snapshot.totalCost()).multiply(BigDecimal.valueOf(sign))
+                    : BigDecimal.ZERO;
+            total += sign;
+            revenue = revenue.add(cost);
+            if ("CONFIRMED".equals(snapshot.status())) {
+                confirmed += sign;
+                confirmedRevenue = confirmedRevenue.add(cost);
+            } else if ("PENDING".equals(snapshot.status())) {
+                pending += sign;
+            } else if ("CANCELLED".equals(snapshot.status())) {
+                cancelled += sign;
+            }
+            Long minutes = snapshot.confirmationMinutes();
+            if (minutes != null) {
+                minutesSum += sign * minutes;
+                confirmations += sign;
+            }
+        }
+
+        boolean isZero() {
+            return total == 0 && confirmed == 0 && pending == 0 && cancelled == 0
+                    && revenue.signum() == 0 && confirmedRevenue.signum() == 0
+                    && minutesSum == 0 && confirmations == 0;
+        }
+    }
+}
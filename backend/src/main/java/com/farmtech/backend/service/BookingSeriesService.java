@@ -0,0 +1,216 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.dto.AnalyticsSeriesPoint;
+import com.farmtech.backend.entity.BookingAnalyticsBucket;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.Granularity;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.ScopeType;
+import com.farmtech.backend.repository.BookingAnalyticsBucketRepository;
+import com.farmtech.backend.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily, weekly and monthly booking series (count, revenue, confirmation latency) for
+ * all bookings, per farmer and per equipment type.
+ *
+ * Bookings are bucketed by creation date. Each booking change adds its difference to
+ * the buckets it falls in, so a series read is a range scan over at most one row per
+ * bucket no matter how many bookings the range covers.
+ */
+@Service
+public class BookingSeriesService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSeriesService.class);
+
+    static final int MAX_POINTS = 1000;
+
+    private static final int REBUILD_PAGE_SIZE = 5000;
+    private static final String GLOBAL_KEY = "";
+    private static final String UNKNOWN_TYPE = "UNKNOWN";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final BookingAnalyticsBucketRepository bucketRepository;
+    private final BookingRepository bookingRepository;
+
+    public BookingSeriesService(BookingAnalyticsBucketRepository bucketRepository,
+                                BookingRepository bookingRepository) {
+        this.bucketRepository = bucketRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    // Called by BookingRollupService for every booking change
+    @Transactional
+    public void recordChange(BookingRollupService.Snapshot before, BookingRollupService.Snapshot after) {
+        Map<BucketKey, BookingAnalyticsBucket> deltas = new LinkedHashMap<>();
+        accumulate(deltas, before, -1);
+        accumulate(deltas, after, 1);
+        deltas.values().removeIf(BookingSeriesService::isZero);
+        bucketRepository.addAll(deltas.values());
+    }
+
+    // Fills the buckets on first start against an existing database
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (bucketRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Transactional
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        bucketRepository.deleteAllBuckets();
+
+        Map<BucketKey, BookingAnalyticsBucket> buckets = new HashMap<>();
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = bookingRepository.findAnalyticsRowsAfter(afterId, Limit.of(REBUILD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                accumulate(buckets, new BookingRollupService.Snapshot(
+                        (Long) row[1], (Long) row[2], (String) row[3], (Double) row[4],
+                        (LocalDateTime) row[5], (LocalDateTime) row[6], (String) row[7]), 1);
+            }
+            if (!rows.isEmpty()) {
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == REBUILD_PAGE_SIZE);
+
+        bucketRepository.addAll(buckets.values());
+        log.info("Rebuilt {} booking analytics buckets in {} ms", buckets.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * One point per bucket from {@code from} to {@code to} (inclusive, aligned down to
+     * bucket starts). Missing dates default to the last 30 days, 12 weeks or 12 months.
+     */
+    @Transactional(readOnly = true)
+    public List<AnalyticsSeriesPoint> series(Granularity granularity, ScopeType scopeType, String scopeKey,
+                                             LocalDate from, LocalDate to) {
+        LocalDate end = granularity.bucketStart(to != null ? to : LocalDate.now());
+        LocalDate start = granularity.bucketStart(from != null ? from : defaultFrom(granularity, end));
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        Map<LocalDate, BookingAnalyticsBucket> stored = new HashMap<>();
+        for (BookingAnalyticsBucket bucket : bucketRepository
+                .findByGranularityAndScopeTypeAndScopeKeyAndBucketStartBetweenOrderByBucketStartAsc(
+                        granularity, scopeType, scopeKey(scopeType, scopeKey), start, end)) {
+            stored.put(bucket.getBucketStart(), bucket);
+        }
+
+        List<AnalyticsSeriesPoint> points = new ArrayList<>();
+        for (LocalDate bucketStart = start; !bucketStart.isAfter(end); bucketStart = granularity.next(bucketStart)) {
+            if (points.size() == MAX_POINTS) {
+                throw new IllegalArgumentException("Range covers more than " + MAX_POINTS + " " + granularity
+                        + " buckets; use a coarser granularity");
+            }
+            points.add(toPoint(bucketStart, stored.get(bucketStart)));
+        }
+        return points;
+    }
+
+    private static LocalDate defaultFrom(Granularity granularity, LocalDate end) {
+        return switch (granularity) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> end.minusWeeks(11);
+            case MONTH -> end.minusMonths(11);
+        };
+    }
+
+    private static String scopeKey(ScopeType scopeType, String key) {
+        if (scopeType == ScopeType.GLOBAL) {
+            return GLOBAL_KEY;
+        }
+        if (scopeType == ScopeType.EQUIPMENT_TYPE && (key == null || key.isBlank())) {
+            return UNKNOWN_TYPE;
+        }
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static void accumulate(Map<BucketKey, BookingAnalyticsBucket> buckets,
+                                   BookingRollupService.Snapshot snapshot, int sign) {
+        if (snapshot == null || snapshot.createdAt() == null) {
+            return;
+        }
+        LocalDate created = snapshot.createdAt().toLocalDate();
+        List<Scope> scopes = new ArrayList<>(4);
+        scopes.add(new Scope(ScopeType.GLOBAL, GLOBAL_KEY));
+        for (Long farmerId : snapshot.farmerIds()) {
+            scopes.add(new Scope(ScopeType.FARMER, farmerId.toString()));
+        }
+        scopes.add(new Scope(ScopeType.EQUIPMENT_TYPE, scopeKey(ScopeType.EQUIPMENT_TYPE, snapshot.equipmentType())));
+
+        BigDecimal cost = snapshot.totalCost() != null
+                ? BigDecimal.valueOf(snapshot.totalCost()).multiply(BigDecimal.valueOf(sign))
+                : BigDecimal.ZERO;
+        Long minutes = snapshot.confirmationMinutes();
+
+        for (Granularity granularity : Granularity.values()) {
+            LocalDate bucketStart = granularity.bucketStart(created);
+            for (Scope scope : scopes) {
+                BookingAnalyticsBucket bucket = buckets.computeIfAbsent(
+                        new BucketKey(granularity, bucketStart, scope.type(), scope.key()),
+                        BookingSeriesService::newBucket);
+                bucket.setBookings(bucket.getBookings() + sign);
+                bucket.setRevenue(bucket.getRevenue().add(cost));
+                if ("CONFIRMED".equals(snapshot.status())) {
+                    bucket.setConfirmedBookings(bucket.getConfirmedBookings() + sign);
+                    bucket.setConfirmedRevenue(bucket.getConfirmedRevenue().add(cost));
+                } else if ("CANCELLED".equals(snapshot.status())) {
+                    bucket.setCancelledBookings(bucket.getCancelledBookings() + sign);
+                }
+                if (minutes != null) {
+                    bucket.setConfirmationMinutesSum(bucket.getConfirmationMinutesSum() + sign * minutes);
+                    bucket.setConfirmationCount(bucket.getConfirmationCount() + sign);
+                }
+            }
+        }
+    }
+
+    private static BookingAnalyticsBucket newBucket(BucketKey key) {
+        BookingAnalyticsBucket bucket = new BookingAnalyticsBucket();
+        bucket.setGranularity(key.granularity());
+        bucket.setBucketStart(key.bucketStart());
+        bucket.setScopeType(key.scopeType());
+        bucket.setScopeKey(key.scopeKey());
+        return bucket;
+    }
+
+    private static boolean isZero(BookingAnalyticsBucket bucket) {
+        return bucket.getBookings() == 0 && bucket.getConfirmedBookings() == 0 && bucket.getCancelledBookings() == 0
+                && bucket.getRevenue().signum() == 0 && bucket.getConfirmedRevenue().signum() == 0
+                && bucket.getConfirmationMinutesSum() == 0 && bucket.getConfirmationCount() == 0;
+    }
+
+    private static AnalyticsSeriesPoint toPoint(LocalDate bucketStart, BookingAnalyticsBucket bucket) {
+        if (bucket == null) {
+            return new AnalyticsSeriesPoint(bucketStart, 0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, null);
+        }
+        return new AnalyticsSeriesPoint(bucketStart, bucket.getBookings(), bucket.getConfirmedBookings(),
+                bucket.getCancelledBookings(), bucket.getRevenue(), bucket.getConfirmedRevenue(),
+                bucket.getConfirmationCount() > 0
+                        ? (double) bucket.getConfirmationMinutesSum() / bucket.getConfirmationCount()
+                        : null);
+    }
+
+    private record Scope(ScopeType type, String key) {}
+
+    private record BucketKey(Granularity granularity, LocalDate bucketStart, ScopeType scopeType, String scopeKey) {}
+}
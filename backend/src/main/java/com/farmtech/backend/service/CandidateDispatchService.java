@@ -3,24 +3,46 @@ package com.farmtech.backend.service;
 import com.farmtech.backend.entity.Booking;
 import com.farmtech.backend.entity.BookingCandidate;
 import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Farmer;
 import com.farmtech.backend.repository.BookingCandidateRepository;
 import com.farmtech.backend.repository.BookingRepository;
+import com.farmtech.backend.repository.FarmerRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CandidateDispatchService {
 
+    // Invitations an owner could still act on; rejected and accepted rows keep their status
+    private static final List<CandidateStatus> OPEN_STATUSES = List.of(CandidateStatus.PENDING, CandidateStatus.NOTIFIED);
+
     private final BookingCandidateRepository candidateRepository;
     private final BookingRepository bookingRepository;
+    private final FarmerRepository farmerRepository;
+    private final BookingEventHub bookingEventHub;
+    private final BookingRollupService bookingRollupService;
+    private final BookingMetrics bookingMetrics;
 
     public CandidateDispatchService(BookingCandidateRepository candidateRepository,
-                                    BookingRepository bookingRepository) {
+                                    BookingRepository bookingRepository,
+                                    FarmerRepository farmerRepository,
+                                    BookingEventHub bookingEventHub,
+                                    BookingRollupService bookingRollupService,
+                                    BookingMetrics bookingMetrics) {
         this.candidateRepository = candidateRepository;
         this.bookingRepository = bookingRepository;
+        this.farmerRepository = farmerRepository;
+        this.bookingEventHub = bookingEventHub;
+        this.bookingRollupService = bookingRollupService;
+        this.bookingMetrics = bookingMetrics;
     }
 
     @Transactional
@@ -37,58 +59,126 @@ public class CandidateDispatchService {
                 List.of(CandidateStatus.NOTIFIED)
         );
 
+        BookingRollupService.Snapshot before = BookingRollupService.Snapshot.of(booking);
         if (notifiedCandidates.isEmpty()) {
             booking.setStatus("PENDING_NO_CANDIDATES");
             bookingRepository.save(booking);
+            bookingRollupService.recordChange(before, BookingRollupService.Snapshot.of(booking));
+            bookingEventHub.bookingUpdated(booking.getId(), booking.getRenter().getId(), booking.getStatus());
             return;
         }
 
         booking.setStatus("AWAITING_OWNER");
         bookingRepository.save(booking);
-        // TODO: trigger real-time notifications or SMS here
+        bookingRollupService.recordChange(before, BookingRollupService.Snapshot.of(booking));
+        // Owners were already pushed an invitation-created event when the candidates were written
+        bookingEventHub.bookingUpdated(booking.getId(), booking.getRenter().getId(), booking.getStatus());
     }
 
+    /**
+     * Accepts a booking on behalf of an owner. The booking row is claimed with a single
+     * conditional UPDATE, so when several owners accept at once exactly one of them wins;
+     * the others get an {@link IllegalStateException}. Every other open invitation is then
+     * expired with one bulk statement instead of a save per candidate. The claim also
+     * requires the owner's own invitation to still be open, so an owner whose invitation
+     * timed out or was revoked gets an {@link IllegalStateException} as well.
+     */
     @Transactional
-    public Booking markAccepted(BookingCandidate candidate) {
-        Booking booking = candidate.getBooking();
-
-        if (booking.getAcceptedOwner() != null) {
-            throw new IllegalStateException("Booking is already confirmed with another owner");
+    public Booking acceptBooking(Long bookingId, Long ownerId) {
+        Farmer owner = farmerRepository.findById(ownerId)
+                .orElseThrow(() -> new RuntimeException("Owner not found with ID: " + ownerId));
+
+        Booking current = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
+        if (current.getAcceptedOwner() != null) {
+            return alreadyAccepted(current, ownerId);
         }
+        // Only the winner of the claim below records this state as its "before"
+        BookingRollupService.Snapshot before = BookingRollupService.Snapshot.of(current);
 
-        candidate.setStatus(CandidateStatus.ACCEPTED);
-        candidate.setRespondedAt(LocalDateTime.now());
-        candidateRepository.save(candidate);
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.claimForOwner(bookingId, owner, OPEN_STATUSES, now) == 0) {
+            Booking claimed = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
+            if (claimed.getAcceptedOwner() == null) {
+                throw new IllegalStateException("Invitation for this booking is no longer open");
+            }
+            return alreadyAccepted(claimed, ownerId);
+        }
 
-        booking.setAcceptedOwner(candidate.getOwner());
-        booking.setStatus("CONFIRMED");
-        bookingRepository.save(booking);
+        List<Long> revokedOwnerIds = candidateRepository
+                .findOwnerIdsByBookingIdAndOwnerIdNotAndStatusIn(bookingId, ownerId, OPEN_STATUSES);
+        int expired = candidateRepository.expireOtherCandidates(bookingId, ownerId, OPEN_STATUSES, CandidateStatus.EXPIRED, now);
+        if (candidateRepository.markOwnerAccepted(bookingId, ownerId, OPEN_STATUSES, CandidateStatus.ACCEPTED, now) == 0) {
+            // Timed out between the claim and here; throwing rolls the claim back
+            throw new IllegalStateException("Invitation for this booking is no longer open");
+        }
+        bookingMetrics.candidatesExpired(expired);
+        bookingMetrics.candidateAccepted(Duration.between(current.getCreatedAt(), now));
 
-        revokeOtherCandidates(booking, candidate.getId());
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
+        bookingRollupService.recordChange(before, BookingRollupService.Snapshot.of(booking));
+        bookingEventHub.invitationsRevoked(bookingId, revokedOwnerIds);
+        bookingEventHub.bookingUpdated(bookingId, booking.getRenter().getId(), booking.getStatus());
         return booking;
     }
 
+    /**
+     * Times out every open invitation of the given bookings that was sent before
+     * {@code invitedBefore}, in one bulk statement. Bookings left without any open
+     * invitation and still unclaimed move to PENDING_NO_CANDIDATES; the status change is
+     * conditional, so an owner accepting at the same moment still wins.
+     *
+     * @return the number of invitations timed out
+     */
+    @Transactional
+    public int expireTimedOut(Collection<Long> bookingIds, LocalDateTime invitedBefore, LocalDateTime now) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Long>> revokedOwnerIds = new HashMap<>();
+        for (Object[] row : candidateRepository.findTimedOutInvitations(bookingIds, OPEN_STATUSES, invitedBefore)) {
+            revokedOwnerIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+        if (revokedOwnerIds.isEmpty()) {
+            return 0;
+        }
+        int timedOut = candidateRepository.expireTimedOut(
+                revokedOwnerIds.keySet(), OPEN_STATUSES, CandidateStatus.SKIPPED_TIMEOUT, invitedBefore, now);
+        bookingMetrics.candidatesTimedOut(timedOut);
+
+        for (Booking booking : bookingRepository.findUnclaimedWithoutOpenCandidates(
+                revokedOwnerIds.keySet(), "AWAITING_OWNER", OPEN_STATUSES)) {
+            BookingRollupService.Snapshot before = BookingRollupService.Snapshot.of(booking);
+            if (bookingRepository.transitionUnclaimed(booking.getId(), "AWAITING_OWNER", "PENDING_NO_CANDIDATES") == 0) {
+                continue; // claimed in the meantime
+            }
+            booking.setStatus("PENDING_NO_CANDIDATES");
+            bookingRollupService.recordChange(before, BookingRollupService.Snapshot.of(booking));
+            bookingEventHub.bookingUpdated(booking.getId(), booking.getRenter().getId(), booking.getStatus());
+        }
+        revokedOwnerIds.forEach(bookingEventHub::invitationsRevoked);
+        return timedOut;
+    }
+
+    private static Booking alreadyAccepted(Booking booking, Long ownerId) {
+        if (booking.getAcceptedOwner().getId().equals(ownerId)) {
+            return booking; // repeated accept from the winning owner
+        }
+        throw new IllegalStateException("Booking is already confirmed with another owner");
+    }
+
+    @Transactional
+    public Booking markAccepted(BookingCandidate candidate) {
+        return acceptBooking(candidate.getBooking().getId(), candidate.getOwner().getId());
+    }
+
     @Transactional
     public void markRejected(BookingCandidate candidate) {
         candidate.setStatus(CandidateStatus.REJECTED);
         candidate.setRespondedAt(LocalDateTime.now());
         candidateRepository.save(candidate);
+        bookingMetrics.candidateRejected();
     }
-
-    private void revokeOtherCandidates(Booking booking, Long acceptedCandidateId) {
-        LocalDateTime now = LocalDateTime.now();
-        candidateRepository.findByBookingOrderByDistanceKmAsc(booking).stream()
-                .filter(other -> !other.getId().equals(acceptedCandidateId))
-                .forEach(other -> {
-                    if (other.getStatus() == CandidateStatus.NOTIFIED) {
-                        other.setStatus(CandidateStatus.SKIPPED_TIMEOUT);
-                        other.setRespondedAt(now);
-                    } else if (other.getStatus() == CandidateStatus.PENDING) {
-                        other.setStatus(CandidateStatus.SKIPPED_TIMEOUT);
-                        other.setInvitedAt(now);
-                        other.setRespondedAt(now);
-                    }
-                    candidateRepository.save(other);
-                });
-    }
-}
\ No newline at end of file
+}
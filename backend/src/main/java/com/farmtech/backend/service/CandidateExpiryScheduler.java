@@ -0,0 +1,132 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.repository.BookingCandidateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times out owner invitations nobody answered within {@code booking.candidates.invitation-ttl-seconds}.
+ *
+ * Deadlines live in memory in an {@link InvitationTimingWheel}, one entry per booking
+ * (all of a booking's invitations are written together), so a tick costs the bookings
+ * that are actually due rather than a scan of every open invitation. The wheel is rebuilt
+ * from booking_candidates on startup; due bookings are then expired in chunks with bulk
+ * updates through {@link CandidateDispatchService#expireTimedOut}.
+ */
+@Service
+public class CandidateExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CandidateExpiryScheduler.class);
+
+    private static final List<CandidateStatus> OPEN_STATUSES = List.of(CandidateStatus.PENDING, CandidateStatus.NOTIFIED);
+
+    // Keeps the IN lists of the bulk statements a reasonable size
+    static final int CHUNK_SIZE = 200;
+
+    private final CandidateDispatchService candidateDispatchService;
+    private final BookingCandidateRepository candidateRepository;
+    private final Duration ttl;
+    private final InvitationTimingWheel wheel;
+
+    public CandidateExpiryScheduler(CandidateDispatchService candidateDispatchService,
+                                    BookingCandidateRepository candidateRepository,
+                                    @Value("${booking.candidates.invitation-ttl-seconds:900}") long ttlSeconds,
+                                    @Value("${booking.candidates.expiry-tick-ms:1000}") long tickMillis,
+                                    @Value("${booking.candidates.expiry-wheel-slots:4096}") int slots) {
+        this.candidateDispatchService = candidateDispatchService;
+        this.candidateRepository = candidateRepository;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.wheel = new InvitationTimingWheel(tickMillis, slots, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> open = candidateRepository.findOpenInvitationStarts(OPEN_STATUSES);
+        scheduleAll(open);
+        log.atInfo().addKeyValue("bookings", open.size()).log("Invitation expiry wheel rebuilt");
+    }
+
+    // Called once a booking's invitations have gone out
+    public void track(Long bookingId) {
+        synchronized (wheel) {
+            wheel.schedule(bookingId, System.currentTimeMillis() + ttl.toMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.candidates.expiry-tick-ms:1000}")
+    public void expireDue() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    void expireDue(long nowMillis) {
+        long[] due;
+        synchronized (wheel) {
+            due = wheel.advance(nowMillis);
+        }
+        if (due.length == 0) {
+            return;
+        }
+        LocalDateTime now = toLocalDateTime(nowMillis);
+        LocalDateTime invitedBefore = now.minus(ttl);
+        int timedOut = 0;
+        for (int from = 0; from < due.length; from += CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(Math.min(CHUNK_SIZE, due.length - from));
+            for (int i = from; i < Math.min(from + CHUNK_SIZE, due.length); i++) {
+                chunk.add(due[i]);
+            }
+            try {
+                timedOut += candidateDispatchService.expireTimedOut(chunk, invitedBefore, now);
+                // Invitations stored a little later than tracked (clock rounding) go round again
+                scheduleAll(candidateRepository.findOpenInvitationStarts(chunk, OPEN_STATUSES));
+            } catch (RuntimeException e) {
+                log.atWarn().addKeyValue("bookings", chunk.size()).setCause(e).log("Invitation expiry failed, retrying next tick");
+                synchronized (wheel) {
+                    chunk.forEach(id -> wheel.schedule(id, nowMillis));
+                }
+            }
+        }
+        log.atInfo()
+                .addKeyValue("bookings", due.length)
+                .addKeyValue("invitations", timedOut)
+                .log("Timed out unanswered invitations");
+    }
+
+    int tracked() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void scheduleAll(List<Object[]> invitationStarts) {
+        synchronized (wheel) {
+            for (Object[] row : invitationStarts) {
+                LocalDateTime invitedAt = (LocalDateTime) row[1];
+                long deadline = invitedAt != null
+                        ? toEpochMillis(invitedAt) + ttl.toMillis()
+                        : System.currentTimeMillis() + ttl.toMillis();
+                wheel.schedule((Long) row[0], deadline);
+            }
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,83 @@
+package com.farmtech.backend.service;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row
+ * the circuit opens and calls are refused for {@code openNanos}; then a single trial call
+ * is let through, which closes the circuit on success or reopens it on failure.
+ *
+ * Times are {@link System#nanoTime()} values passed in by the caller.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openNanos) {
+        if (failureThreshold <= 0 || openNanos <= 0) {
+            throw new IllegalArgumentException("failureThreshold and openNanos must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+    }
+
+    // Every admitted call must be followed by onSuccess, onFailure or release
+    synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    // Returns true when this failure opened the circuit
+    synchronized boolean onFailure(long now) {
+        trialInFlight = false;
+        if (state == State.OPEN) {
+            return false; // a call admitted before the circuit opened
+        }
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = now;
+            consecutiveFailures = 0;
+            return true;
+        }
+        return false;
+    }
+
+    // The admitted call never reached the service, so it tells us nothing
+    synchronized void release() {
+        trialInFlight = false;
+    }
+
+    synchronized long remainingOpenNanos(long now) {
+        return state == State.OPEN ? Math.max(0, openNanos - (now - openedAt)) : 0;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
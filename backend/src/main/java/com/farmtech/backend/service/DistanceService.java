@@ -7,6 +7,9 @@ public class DistanceService {
 
     private static final double EARTH_RADIUS_KM = 6371.0;
 
+    // Below this the equirectangular approximation is within ~0.01% of the haversine
+    static final double EQUIRECTANGULAR_MAX_KM = 100.0;
+
     public double distanceInKm(double lat1, double lon1, double lat2, double lon2) {
         double dLat = Math.toRadians(lat2 - lat1);
         double dLon = Math.toRadians(lon2 - lon1);
@@ -18,4 +21,38 @@ public class DistanceService {
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         return EARTH_RADIUS_KM * c;
     }
-}
\ No newline at end of file
+
+    /**
+     * Distances from one point to {@code count} points held in primitive arrays, written
+     * to {@code distancesKm}. Coordinates are in radians and {@code cosLatRad} holds the
+     * cosine of each latitude, so callers convert once when they store a point rather
+     * than on every query.
+     *
+     * Each point first gets the equirectangular distance (no trigonometry); only points
+     * farther than {@link #EQUIRECTANGULAR_MAX_KM} fall back to the haversine.
+     */
+    public void distancesInKm(double latRad, double lonRad,
+                              double[] latsRad, double[] lonsRad, double[] cosLatRad,
+                              int count, double[] distancesKm) {
+        double cosLat = Math.cos(latRad);
+        for (int i = 0; i < count; i++) {
+            double dLat = latsRad[i] - latRad;
+            double dLon = lonsRad[i] - lonRad;
+            if (dLon > Math.PI) {
+                dLon -= 2 * Math.PI;
+            } else if (dLon < -Math.PI) {
+                dLon += 2 * Math.PI;
+            }
+            // Mean of the two cosines stands in for the cosine of the mean latitude
+            double x = dLon * 0.5 * (cosLat + cosLatRad[i]);
+            double distance = EARTH_RADIUS_KM * Math.sqrt(x * x + dLat * dLat);
+            if (distance > EQUIRECTANGULAR_MAX_KM) {
+                double sinHalfLat = Math.sin(dLat * 0.5);
+                double sinHalfLon = Math.sin(dLon * 0.5);
+                double a = sinHalfLat * sinHalfLat + cosLat * cosLatRad[i] * sinHalfLon * sinHalfLon;
+                distance = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+            }
+            distancesKm[i] = distance;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.repository.FarmerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Geocodes a newly registered farmer's village, pincode or address off the request thread.
+ * A miss in the offline dataset becomes a blocking call to the network geocoder, so
+ * registration only saves the farmer (unlocated, 0.0/0.0) and the lookup runs on the
+ * booking pipeline pool once the farmer row is committed. When coordinates arrive they
+ * are stored unless the profile has set some in the meantime, and the owner is
+ * re-indexed in {@link OwnerLocationIndex}.
+ */
+@Service
+public class FarmerLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FarmerLocationService.class);
+
+    private final GeocodingService geocodingService;
+    private final FarmerRepository farmerRepository;
+    private final OwnerLocationIndex ownerLocationIndex;
+    private final ThreadPoolTaskExecutor executor;
+
+    public FarmerLocationService(GeocodingService geocodingService,
+                                 FarmerRepository farmerRepository,
+                                 OwnerLocationIndex ownerLocationIndex,
+                                 @Qualifier("bookingPipelineExecutor") ThreadPoolTaskExecutor executor) {
+        this.geocodingService = geocodingService;
+        this.farmerRepository = farmerRepository;
+        this.ownerLocationIndex = ownerLocationIndex;
+        this.executor = executor;
+    }
+
+    public void locateAfterCommit(Long farmerId, String village, String pincode, String address) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(farmerId, village, pincode, address);
+                }
+            });
+        } else {
+            schedule(farmerId, village, pincode, address);
+        }
+    }
+
+    private void schedule(Long farmerId, String village, String pincode, String address) {
+        try {
+            executor.execute(() -> locate(farmerId, village, pincode, address));
+        } catch (TaskRejectedException e) {
+            // The owner stays unlocated until the profile sets coordinates
+            log.atWarn().addKeyValue("farmerId", farmerId).log("Geocoding queue full, farmer left unlocated");
+        }
+    }
+
+    void locate(Long farmerId, String village, String pincode, String address) {
+        try {
+            Optional<GeocodingService.Coordinates> coordinates = geocodingService.geocodeLocation(village, pincode, address);
+            if (coordinates.isEmpty()) {
+                log.atDebug().addKeyValue("farmerId", farmerId).log("No coordinates for registered farmer");
+                return;
+            }
+            if (farmerRepository.setLocationIfUnset(farmerId,
+                    coordinates.get().latitude(), coordinates.get().longitude()) == 0) {
+                return;
+            }
+            farmerRepository.findById(farmerId).ifPresent(ownerLocationIndex::refresh);
+            log.atDebug().addKeyValue("farmerId", farmerId).log("Registered farmer located");
+        } catch (RuntimeException e) {
+            log.atWarn().addKeyValue("farmerId", farmerId).setCause(e).log("Geocoding registered farmer failed");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.service.GeocodingService.Coordinates;
+
+import java.util.Optional;
+
+/**
+ * A geocoding engine behind {@link GeocodingService}. The service owns caching and
+ * de-duplication; implementations only resolve one address.
+ */
+public interface Geocoder {
+
+    /**
+     * Coordinates for the address, or empty when the engine answered that the address
+     * cannot be resolved (cached as a negative entry). Throw when the lookup itself
+     * failed (network, quota, bad key) so that the failure is not cached.
+     */
+    Optional<Coordinates> geocode(String address);
+
+    // False when the engine is not configured; lookups are then skipped entirely
+    default boolean isEnabled() {
+        return true;
+    }
+}
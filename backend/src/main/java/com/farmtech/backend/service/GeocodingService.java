@@ -1,49 +1,200 @@
 package com.farmtech.backend.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.farmtech.backend.entity.GeocodeCacheEntry;
+import com.farmtech.backend.repository.GeocodeCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+/**
+ * Address to coordinates, cached in two tiers keyed by the normalized address: a
+ * bounded in-process LRU map, backed by the geocode_cache table so results survive
+ * restarts and are shared between instances.
+ *
+ * Addresses the geocoder reports as unresolvable are cached too, for a shorter time.
+ * Failed lookups (network, quota) are not cached. Concurrent lookups of the same
+ * uncached address wait for a single geocoder call instead of each making their own.
+ *
+ * {@link OfflineGeocoder} answers when the network geocoder is not configured or has
+ * no result, and is tried first for structured locations (village, pincode).
+ */
 @Service
 public class GeocodingService {
 
-    @Value("${google.maps.api.key:}")
-    private String apiKey;
+    private static final Logger log = LoggerFactory.getLogger(GeocodingService.class);
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    static final int MAX_KEY_LENGTH = 500;
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Geocoder geocoder;
+    private final OfflineGeocoder offlineGeocoder;
+    private final GeocodeCacheRepository cacheRepository;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+
+    private final Map<String, CachedLookup> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<Coordinates>>> inFlight = new ConcurrentHashMap<>();
+
+    public GeocodingService(Geocoder geocoder,
+                            OfflineGeocoder offlineGeocoder,
+                            GeocodeCacheRepository cacheRepository,
+                            @Value("${geocoding.cache.max-entries:10000}") int maxEntries,
+                            @Value("${geocoding.cache.ttl-days:90}") long ttlDays,
+                            @Value("${geocoding.cache.negative-ttl-hours:24}") long negativeTtlHours) {
+        this.geocoder = geocoder;
+        this.offlineGeocoder = offlineGeocoder;
+        this.cacheRepository = cacheRepository;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.negativeTtl = Duration.ofHours(negativeTtlHours);
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLookup> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
 
     public Optional<Coordinates> geocodeAddress(String address) {
-        if (address == null || address.isBlank() || apiKey == null || apiKey.isBlank()) {
+        if (address == null || address.isBlank()) {
             return Optional.empty();
         }
+        Optional<Coordinates> online = geocoder.isEnabled() ? lookupOnline(address) : Optional.empty();
+        return online.isPresent() ? online : offlineGeocoder.fromAddress(address);
+    }
+
+    /**
+     * Coordinates for a registered location: the village centroid, else the pincode
+     * centroid, both offline; the free-text address goes to {@link #geocodeAddress}
+     * only when neither is known. Any argument may be null.
+     */
+    public Optional<Coordinates> geocodeLocation(String village, String pincode, String address) {
+        Optional<Coordinates> offline = offlineGeocoder.byVillage(village, pincode);
+        if (offline.isEmpty()) {
+            offline = offlineGeocoder.byPincode(pincode);
+        }
+        return offline.isPresent() ? offline : geocodeAddress(address);
+    }
+
+    private Optional<Coordinates> lookupOnline(String address) {
+        String key = normalize(address);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        CachedLookup cached = fromMemory(key);
+        if (cached != null) {
+            return cached.coordinates();
+        }
+
+        CompletableFuture<Optional<Coordinates>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<Coordinates>> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return leader.join();
+        }
         try {
-            String encodedAddress = URLEncoder.encode(address, StandardCharsets.UTF_8);
-            String url = String.format("https://maps.googleapis.com/maps/api/geocode/json?address=%s&key=%s", encodedAddress, apiKey);
-            ResponseEntity<JsonNode> response = restTemplate.getForEntity(url, JsonNode.class);
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                return Optional.empty();
-            }
-            JsonNode results = response.getBody().path("results");
-            if (!results.isArray() || results.isEmpty()) {
-                return Optional.empty();
-            }
-            JsonNode location = results.get(0).path("geometry").path("location");
-            if (!location.has("lat") || !location.has("lng")) {
-                return Optional.empty();
-            }
-            double lat = location.get("lat").asDouble();
-            double lng = location.get("lng").asDouble();
-            return Optional.of(new Coordinates(lat, lng));
-        } catch (Exception e) {
+            Optional<Coordinates> result = load(key, address.trim());
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            log.warn("Geocoding failed for '{}': {}", address, e.getMessage());
+            flight.complete(Optional.empty());
             return Optional.empty();
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Scheduled(cron = "${geocoding.cache.purge-cron:0 0 4 * * *}")
+    public void purgeExpired() {
+        int purged = cacheRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired geocode cache rows", purged);
+        }
+    }
+
+    // Case, punctuation and spacing differences map to the same cache entry
+    static String normalize(String address) {
+        String key = NON_ALPHANUMERIC.matcher(address.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private Optional<Coordinates> load(String key, String address) {
+        // Another caller may have finished the same lookup between our memory check and now
+        CachedLookup cached = fromMemory(key);
+        if (cached != null) {
+            return cached.coordinates();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        GeocodeCacheEntry stored = readStore(key);
+        if (stored != null && stored.getExpiresAt().isAfter(now)) {
+            Optional<Coordinates> coordinates = stored.isNegative()
+                    ? Optional.empty()
+                    : Optional.of(new Coordinates(stored.getLatitude(), stored.getLongitude()));
+            remember(key, new CachedLookup(coordinates, stored.getExpiresAt()));
+            return coordinates;
+        }
+
+        Optional<Coordinates> coordinates = geocoder.geocode(address);
+        LocalDateTime expiresAt = now.plus(coordinates.isPresent() ? ttl : negativeTtl);
+        remember(key, new CachedLookup(coordinates, expiresAt));
+        writeStore(new GeocodeCacheEntry(key,
+                coordinates.map(Coordinates::latitude).orElse(null),
+                coordinates.map(Coordinates::longitude).orElse(null),
+                now, expiresAt));
+        return coordinates;
+    }
+
+    private CachedLookup fromMemory(String key) {
+        synchronized (memory) {
+            CachedLookup cached = memory.get(key);
+            if (cached != null && !cached.expiresAt().isAfter(LocalDateTime.now())) {
+                memory.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void remember(String key, CachedLookup lookup) {
+        synchronized (memory) {
+            memory.put(key, lookup);
+        }
+    }
+
+    // The persistent tier is an optimisation: if the database is unavailable, geocode anyway
+    private GeocodeCacheEntry readStore(String key) {
+        try {
+            return cacheRepository.findById(key).orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Geocode cache read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeStore(GeocodeCacheEntry entry) {
+        try {
+            cacheRepository.save(entry);
+        } catch (DataAccessException e) {
+            // Includes another instance inserting the same address first
+            log.warn("Geocode cache write failed: {}", e.getMessage());
         }
     }
 
     public record Coordinates(double latitude, double longitude) {}
-}
\ No newline at end of file
+
+    private record CachedLookup(Optional<Coordinates> coordinates, LocalDateTime expiresAt) {}
+}
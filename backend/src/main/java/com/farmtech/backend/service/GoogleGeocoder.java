@@ -0,0 +1,66 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.service.GeocodingService.Coordinates;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+// Google Maps Geocoding API. Enabled when google.maps.api.key is set.
+@Component
+public class GoogleGeocoder implements Geocoder {
+
+    private final String apiKey;
+    private final RestTemplate restTemplate;
+
+    public GoogleGeocoder(@Value("${google.maps.api.key:}") String apiKey,
+                          @Value("${geocoding.google.connect-timeout-ms:2000}") int connectTimeoutMs,
+                          @Value("${geocoding.google.read-timeout-ms:5000}") int readTimeoutMs) {
+        this.apiKey = apiKey;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    @Override
+    public Optional<Coordinates> geocode(String address) {
+        String encodedAddress = URLEncoder.encode(address, StandardCharsets.UTF_8);
+        String url = String.format("https://maps.googleapis.com/maps/api/geocode/json?address=%s&key=%s", encodedAddress, apiKey);
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(url, JsonNode.class);
+        JsonNode body = response.getBody();
+        if (!response.getStatusCode().is2xxSuccessful() || body == null) {
+            throw new IllegalStateException("Geocoding request failed with HTTP " + response.getStatusCode().value());
+        }
+
+        String status = body.path("status").asText("");
+        if ("ZERO_RESULTS".equals(status)) {
+            return Optional.empty();
+        }
+        if (!"OK".equals(status)) {
+            // OVER_QUERY_LIMIT, REQUEST_DENIED, UNKNOWN_ERROR, ... are not answers about the address
+            throw new IllegalStateException("Geocoding request failed with status " + status);
+        }
+
+        JsonNode results = body.path("results");
+        if (!results.isArray() || results.isEmpty()) {
+            return Optional.empty();
+        }
+        JsonNode location = results.get(0).path("geometry").path("location");
+        if (!location.has("lat") || !location.has("lng")) {
+            return Optional.empty();
+        }
+        return Optional.of(new Coordinates(location.get("lat").asDouble(), location.get("lng").asDouble()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener on User and Farmer that keeps {@link IdentityResolver} in step
+ * with every write, whichever controller or service made it. Hibernate creates it
+ * through Spring, so the resolver is looked up lazily to avoid a cycle with the
+ * EntityManagerFactory.
+ *
+ * The callbacks fire at flush, before the write is visible to other transactions, so a
+ * concurrent lookup can still read the old row and cache it again. Entries are
+ * therefore dropped at flush and once more after the transaction commits.
+ */
+public class IdentityCacheListener {
+
+    private final ObjectProvider<IdentityResolver> identityResolver;
+
+    public IdentityCacheListener(ObjectProvider<IdentityResolver> identityResolver) {
+        this.identityResolver = identityResolver;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        IdentityResolver resolver = identityResolver.getIfAvailable();
+        if (resolver == null) {
+            return;
+        }
+        invalidate(resolver, entity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(resolver, entity);
+                }
+            });
+        }
+    }
+
+    private static void invalidate(IdentityResolver resolver, Object entity) {
+        if (entity instanceof User user) {
+            resolver.userChanged(user);
+        } else if (entity instanceof Farmer farmer) {
+            resolver.farmerChanged(farmer);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.entity.User;
+import com.farmtech.backend.repository.FarmerRepository;
+import com.farmtech.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the ids the frontend sends (either a User id or a Farmer id) to the Farmer
+ * id that bookings and candidates reference. Users and Farmers are linked by phone.
+ *
+ * Results are kept in bounded LRU caches and invalidated by {@link IdentityCacheListener}
+ * whenever a User or Farmer row is written. Each cache indexes its entries by the Farmer
+ * they point at, and "no Farmer yet" entries by the phone they were looked up with, so a
+ * Farmer write only touches the entries it can affect.
+ */
+@Service
+public class IdentityResolver {
+
+    // Cached for a User that has no Farmer record yet
+    private static final long NO_FARMER = -1L;
+
+    private final UserRepository userRepository;
+    private final FarmerRepository farmerRepository;
+
+    private final LinkCache<Long> farmerIdByRequestId;
+    private final LinkCache<String> farmerIdByPhone;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public IdentityResolver(UserRepository userRepository,
+                            FarmerRepository farmerRepository,
+                            @Value("${identity.cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.farmerRepository = farmerRepository;
+        this.farmerIdByRequestId = new LinkCache<>(maxEntries);
+        this.farmerIdByPhone = new LinkCache<>(maxEntries);
+    }
+
+    /**
+     * Maps an id from the request to a Farmer id. If the id belongs to a User, that
+     * user's Farmer record is used (empty when it has none); otherwise the id is
+     * assumed to already be a Farmer id.
+     */
+    public Optional<Long> resolveFarmerId(Long userOrFarmerId) {
+        Long cached = farmerIdByRequestId.get(userOrFarmerId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return toOptional(cached);
+        }
+        misses.incrementAndGet();
+
+        long resolved;
+        String phone = null;
+        User user = userRepository.findById(userOrFarmerId).orElse(null);
+        if (user == null) {
+            resolved = userOrFarmerId;
+        } else {
+            phone = user.getPhone();
+            resolved = farmerIdForPhone(phone).orElse(NO_FARMER);
+        }
+        farmerIdByRequestId.put(userOrFarmerId, resolved, phone);
+        return toOptional(resolved);
+    }
+
+    public Optional<Long> farmerIdForPhone(String phone) {
+        if (phone == null) {
+            return Optional.empty();
+        }
+        Long cached = farmerIdByPhone.get(phone);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return toOptional(cached);
+        }
+        misses.incrementAndGet();
+
+        long resolved = farmerRepository.findByPhone(phone).map(Farmer::getId).orElse(NO_FARMER);
+        farmerIdByPhone.put(phone, resolved, phone);
+        return toOptional(resolved);
+    }
+
+    // Seeds the caches from a lookup that already happened elsewhere (e.g. login)
+    public void remember(Long userId, String phone, Long farmerId) {
+        if (farmerId == null) {
+            return;
+        }
+        if (userId != null) {
+            farmerIdByRequestId.put(userId, farmerId, phone);
+        }
+        if (phone != null) {
+            farmerIdByPhone.put(phone, farmerId, phone);
+        }
+    }
+
+    void userChanged(User user) {
+        invalidations.incrementAndGet();
+        // The id may have been cached as "not a user" (a Farmer id), or the phone link changed
+        farmerIdByRequestId.remove(user.getId());
+    }
+
+    void farmerChanged(Farmer farmer) {
+        invalidations.incrementAndGet();
+        // Phone may have changed, so drop every entry pointing at this farmer as well as
+        // negative entries for its current phone, which this row may now satisfy
+        farmerIdByRequestId.invalidate(farmer.getId(), farmer.getPhone());
+        farmerIdByPhone.invalidate(farmer.getId(), farmer.getPhone());
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("invalidations", invalidations.get());
+        stats.put("userIdEntries", farmerIdByRequestId.size());
+        stats.put("phoneEntries", farmerIdByPhone.size());
+        return stats;
+    }
+
+    private static Optional<Long> toOptional(long farmerId) {
+        return farmerId == NO_FARMER ? Optional.empty() : Optional.of(farmerId);
+    }
+
+    /**
+     * Bounded LRU of key to Farmer id, with reverse indexes from Farmer id to keys and,
+     * for NO_FARMER entries, from the phone that found nothing to keys.
+     */
+    private static final class LinkCache<K> {
+
+        private final Map<K, Link> links;
+        private final Map<Long, Set<K>> keysByFarmerId = new HashMap<>();
+        private final Map<String, Set<K>> unlinkedKeysByPhone = new HashMap<>();
+
+        LinkCache(int maxEntries) {
+            this.links = new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Link> eldest) {
+                    if (size() > maxEntries) {
+                        unindex(eldest.getKey(), eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Long get(K key) {
+            Link link = links.get(key);
+            return link == null ? null : link.farmerId();
+        }
+
+        synchronized void put(K key, long farmerId, String phone) {
+            Link link = new Link(farmerId, phone);
+            Link previous = links.put(key, link);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            if (farmerId != NO_FARMER) {
+                keysByFarmerId.computeIfAbsent(farmerId, id -> new HashSet<>()).add(key);
+            } else if (phone != null) {
+                unlinkedKeysByPhone.computeIfAbsent(phone, p -> new HashSet<>()).add(key);
+            }
+        }
+
+        synchronized void remove(K key) {
+            Link previous = links.remove(key);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+        }
+
+        synchronized void invalidate(Long farmerId, String phone) {
+            Set<K> linked = farmerId == null ? null : keysByFarmerId.remove(farmerId);
+            if (linked != null) {
+                linked.forEach(links::remove);
+            }
+            Set<K> unlinked = phone == null ? null : unlinkedKeysByPhone.remove(phone);
+            if (unlinked != null) {
+                unlinked.forEach(links::remove);
+            }
+        }
+
+        synchronized int size() {
+            return links.size();
+        }
+
+        private void unindex(K key, Link link) {
+            Map<?, Set<K>> index = link.farmerId() != NO_FARMER ? keysByFarmerId : unlinkedKeysByPhone;
+            Object indexKey = link.farmerId() != NO_FARMER ? link.farmerId() : link.phone();
+            Set<K> keys = index.get(indexKey);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    index.remove(indexKey);
+                }
+            }
+        }
+    }
+
+    // The Farmer a key resolved to, and the phone it was resolved through (null for a direct Farmer id)
+    private record Link(long farmerId, String phone) {}
+}
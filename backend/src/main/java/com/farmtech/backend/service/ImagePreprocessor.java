@@ -0,0 +1,299 @@
+package com.farmtech.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shrinks plant-disease photos to the model's input size before they are sent to the ML
+ * service. Camera images are decoded with source subsampling, so only about
+ * (2 x target size)^2 pixels are ever held in memory whatever the original resolution,
+ * then scaled so the short side is {@code ml.image.target-size}, converted to RGB and
+ * re-encoded as JPEG without metadata (EXIF, GPS, thumbnails). Phones store portrait
+ * photos sideways with an EXIF Orientation tag, so that rotation is applied to the pixels
+ * before the metadata is dropped. The model still does its own final resize, so the
+ * aspect ratio is kept.
+ *
+ * The resized image also yields a 64-bit difference hash (dHash) that stays nearly the
+ * same when a photo is re-encoded or re-uploaded, used to answer duplicate uploads.
+ *
+ * Decoding is CPU-heavy, so it runs on the bounded {@code imagePreprocessExecutor} pool
+ * rather than on however many request threads are uploading at once; a full pool rejects
+ * with {@link org.springframework.core.task.TaskRejectedException}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ml", name = "enabled", havingValue = "true")
+public class ImagePreprocessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagePreprocessor.class);
+
+    private final ThreadPoolTaskExecutor executor;
+    private final int targetSize;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final long timeoutMs;
+
+    public ImagePreprocessor(@Qualifier("imagePreprocessExecutor") ThreadPoolTaskExecutor executor,
+                             @Value("${ml.image.target-size:256}") int targetSize,
+                             @Value("${ml.image.jpeg-quality:0.9}") float jpegQuality,
+                             @Value("${ml.image.max-pixels:100000000}") long maxPixels,
+                             @Value("${ml.image.timeout-ms:10000}") long timeoutMs) {
+        this.executor = executor;
+        this.targetSize = targetSize;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Returns the downscaled JPEG and its perceptual hash, or empty when the upload should
+     * be forwarded as it is: not an image ImageIO can decode (HEIC, WebP, CMYK JPEG ...), or
+     * not decoded within {@code ml.image.timeout-ms}.
+     *
+     * @throws IllegalArgumentException if the image has more than {@code ml.image.max-pixels} pixels
+     */
+    public Optional<PreparedImage> preprocess(InputStreamSource upload) {
+        Future<Optional<PreparedImage>> result = executor.submit(() -> downscale(upload));
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            log.atWarn().setCause(e.getCause()).log("Image preprocessing failed, forwarding original");
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            // A slow or pathological image is still the ML service's to judge
+            result.cancel(true);
+            log.atWarn().addKeyValue("timeoutMs", timeoutMs).log("Image preprocessing timed out, forwarding original");
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    // Runs on the pool; also called directly by the benchmark
+    Optional<PreparedImage> downscale(InputStreamSource upload) {
+        try (InputStream in = upload.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                int orientation = orientation(input);
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image is too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Largest step that keeps the short side at or above the target
+                int step = Math.max(1, Math.min(width, height) / targetSize);
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage resized = orient(resize(reader.read(0, param)), orientation);
+                return Optional.of(new PreparedImage(encode(resized), dHash(resized)));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            // Unreadable or unsupported variant: let the ML service deal with the original
+            log.atDebug().setCause(e).log("Image could not be decoded, forwarding original");
+            return Optional.empty();
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image) {
+        int shortSide = Math.min(image.getWidth(), image.getHeight());
+        double scale = shortSide > targetSize ? (double) targetSize / shortSide : 1.0;
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        // Always redrawn into plain RGB so alpha, palettes and grey images reach the model alike
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    // EXIF Orientation (1-8) from the JPEG's APP1 segment; 1 (as stored) when there is none.
+    // The marker segments are walked by hand because ImageIO refuses metadata from files
+    // whose EXIF segment comes before the JFIF one, which some apps write
+    static int orientation(ImageInputStream input) throws IOException {
+        input.mark();
+        try {
+            if (input.readUnsignedShort() != 0xFFD8) {
+                return 1; // not a JPEG
+            }
+            while (true) {
+                int marker = input.readUnsignedShort();
+                // Metadata segments all come before the start of scan
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = input.readUnsignedShort();
+                if (length < 2) {
+                    return 1;
+                }
+                if (marker == 0xFFE1) {
+                    byte[] app1 = new byte[length - 2];
+                    input.readFully(app1);
+                    int orientation = exifOrientation(app1);
+                    if (orientation != 0) {
+                        return orientation;
+                    }
+                } else {
+                    input.skipBytes(length - 2);
+                }
+            }
+        } catch (EOFException e) {
+            return 1;
+        } finally {
+            input.reset();
+        }
+    }
+
+    // Walks "Exif\0\0", the TIFF header and IFD0 looking for tag 0x0112; 0 when not found
+    static int exifOrientation(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return 0;
+        }
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return 0;
+            }
+            if (tiff.getShort(entry) == 0x0112) {
+                int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return orientation >= 1 && orientation <= 8 ? orientation : 0;
+            }
+        }
+        return 0;
+    }
+
+    // Redraws the stored pixels the way a viewer honouring the Orientation tag shows them
+    static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = orientation >= 5;
+        BufferedImage upright = new BufferedImage(swap ? height : width, swap ? width : height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                switch (orientation) {
+                    case 2 -> upright.setRGB(width - 1 - x, y, rgb);
+                    case 3 -> upright.setRGB(width - 1 - x, height - 1 - y, rgb);
+                    case 4 -> upright.setRGB(x, height - 1 - y, rgb);
+                    case 5 -> upright.setRGB(y, x, rgb);
+                    case 6 -> upright.setRGB(height - 1 - y, x, rgb);
+                    case 7 -> upright.setRGB(height - 1 - y, width - 1 - x, rgb);
+                    default -> upright.setRGB(y, width - 1 - x, rgb);
+                }
+            }
+        }
+        return upright;
+    }
+
+    // The image averaged down to 9x8 grey cells, one bit per horizontally adjacent pair, set
+    // when the left cell is brighter. Re-encoding, rescaling and small exposure changes flip
+    // a few bits; an unrelated photo differs in about half of them
+    static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[] sums = new double[9 * 8];
+        int[] counts = new int[9 * 8];
+        for (int y = 0; y < height; y++) {
+            int row = Math.min(7, y * 8 / height);
+            for (int x = 0; x < width; x++) {
+                int cell = row * 9 + Math.min(8, x * 9 / width);
+                int rgb = image.getRGB(x, y);
+                sums[cell] += 0.299 * (rgb >> 16 & 0xFF) + 0.587 * (rgb >> 8 & 0xFF) + 0.114 * (rgb & 0xFF);
+                counts[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                int left = row * 9 + column;
+                boolean brighter = mean(sums, counts, left) > mean(sums, counts, left + 1);
+                hash = hash << 1 | (brighter ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    private static double mean(double[] sums, int[] counts, int cell) {
+        return counts[cell] == 0 ? 0 : sums[cell] / counts[cell];
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            // No metadata is passed, so nothing from the original (EXIF, GPS, ICC) is written
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    /** The JPEG to send to the model and the 64-bit dHash of the same pixels. */
+    public record PreparedImage(byte[] jpeg, long dHash) {}
+}
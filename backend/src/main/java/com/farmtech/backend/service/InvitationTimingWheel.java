@@ -0,0 +1,99 @@
+package com.farmtech.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel of booking ids keyed by deadline. Scheduling is O(1) and each tick
+ * only visits one slot, so the cost of advancing does not grow with the number of
+ * outstanding deadlines. Entries further away than one revolution share a slot with
+ * nearer ones and are simply skipped until their tick comes round.
+ *
+ * Ids are stored in primitive arrays per slot (16 bytes an entry) so millions of
+ * pending deadlines stay cheap. Not thread-safe on its own; callers synchronize.
+ */
+final class InvitationTimingWheel {
+
+    private final long tickMillis;
+    private final long[][] ids;
+    private final long[][] deadlineTicks;
+    private final int[] sizes;
+    private long currentTick;
+    private int size;
+
+    InvitationTimingWheel(long tickMillis, int slots, long nowMillis) {
+        if (tickMillis <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("tickMillis and slots must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.ids = new long[slots][];
+        this.deadlineTicks = new long[slots][];
+        this.sizes = new int[slots];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    // A deadline that has already passed fires on the next advance
+    void schedule(long id, long deadlineMillis) {
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        int slot = slot(tick);
+        int n = sizes[slot];
+        if (ids[slot] == null) {
+            ids[slot] = new long[4];
+            deadlineTicks[slot] = new long[4];
+        } else if (n == ids[slot].length) {
+            ids[slot] = Arrays.copyOf(ids[slot], n * 2);
+            deadlineTicks[slot] = Arrays.copyOf(deadlineTicks[slot], n * 2);
+        }
+        ids[slot][n] = id;
+        deadlineTicks[slot][n] = tick;
+        sizes[slot] = n + 1;
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns the ids whose deadline has passed.
+     * After a pause longer than one revolution every slot is visited once.
+     */
+    long[] advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return new long[0];
+        }
+        long[] due = new long[16];
+        int dueCount = 0;
+        long ticks = Math.min(targetTick - currentTick, sizes.length);
+        for (long t = 1; t <= ticks; t++) {
+            int slot = slot(currentTick + t);
+            long[] slotIds = ids[slot];
+            long[] slotTicks = deadlineTicks[slot];
+            int kept = 0;
+            for (int i = 0; i < sizes[slot]; i++) {
+                if (slotTicks[i] <= targetTick) {
+                    if (dueCount == due.length) {
+                        due = Arrays.copyOf(due, dueCount * 2);
+                    }
+                    due[dueCount++] = slotIds[i];
+                } else {
+                    slotIds[kept] = slotIds[i];
+                    slotTicks[kept] = slotTicks[i];
+                    kept++;
+                }
+            }
+            size -= sizes[slot] - kept;
+            sizes[slot] = kept;
+        }
+        currentTick = targetTick;
+        return Arrays.copyOf(due, dueCount);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) sizes.length);
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
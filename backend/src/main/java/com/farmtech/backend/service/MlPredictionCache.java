@@ -0,0 +1,356 @@
+package com.farmtech.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Caches ML predictions by content. The JSON payload is canonicalised - keys sorted,
+ * strings trimmed, numbers rounded to the precision the models use
+ * ({@code ml.cache.precision.<field>}, default {@code ml.cache.default-precision}) - and
+ * the SHA-256 of route plus canonical JSON is the cache key. The canonical payload is
+ * also what is sent to the ML service, so a cached answer is exactly the answer for
+ * every payload that maps to it.
+ *
+ * Two tiers: an in-process LRU map bounded by {@code ml.cache.memory.max-bytes}, and an
+ * optional directory of one file per key ({@code ml.cache.disk.dir}, off when blank) that
+ * survives restarts. Only 2xx answers are cached. Concurrent requests for the same key
+ * wait for a single ML call instead of each making their own.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ml", name = "enabled", havingValue = "true")
+public class MlPredictionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MlPredictionCache.class);
+
+    // Rough per-entry overhead of the map node, key and record on top of the body
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final MlServiceClient mlServiceClient;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long maxMemoryBytes;
+    private final Path diskDir;
+    private final long maxDiskBytes;
+    private final int defaultPrecision;
+
+    private final LinkedHashMap<String, CachedPrediction> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+    private final ConcurrentHashMap<String, CompletableFuture<ResponseEntity<?>>> inFlight = new ConcurrentHashMap<>();
+
+    public MlPredictionCache(MlServiceClient mlServiceClient,
+                             Environment environment,
+                             MeterRegistry meterRegistry,
+                             @Value("${ml.cache.ttl-minutes:1440}") long ttlMinutes,
+                             @Value("${ml.cache.memory.max-bytes:16777216}") long maxMemoryBytes,
+                             @Value("${ml.cache.disk.dir:}") String diskDir,
+                             @Value("${ml.cache.disk.max-bytes:268435456}") long maxDiskBytes,
+                             @Value("${ml.cache.default-precision:2}") int defaultPrecision) {
+        this.mlServiceClient = mlServiceClient;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = new ObjectMapper().enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.diskDir = diskDir == null || diskDir.isBlank() ? null : Path.of(diskDir);
+        this.maxDiskBytes = maxDiskBytes;
+        this.defaultPrecision = defaultPrecision;
+        Gauge.builder("ml.cache.memory.bytes", this, cache -> cache.memoryBytes())
+                .description("Approximate size of the in-memory prediction cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Answers {@code payload} for the ML route {@code path} from the cache, or from the ML
+     * service through {@link MlServiceClient} on a miss.
+     */
+    public ResponseEntity<?> predict(String path, Map<String, Object> payload) {
+        String json = canonicalJson(payload);
+        String key = sha256(path + '\n' + json);
+
+        CachedPrediction cached = fromMemory(key);
+        if (cached != null) {
+            count(path, "memory");
+            return cached.toResponse();
+        }
+
+        CompletableFuture<ResponseEntity<?>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<?>> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            count(path, "coalesced");
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            ResponseEntity<?> response = load(key, path, json);
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private ResponseEntity<?> load(String key, String path, String json) {
+        // Another caller may have finished the same request between our memory check and now
+        CachedPrediction cached = fromMemory(key);
+        if (cached != null) {
+            count(path, "memory");
+            return cached.toResponse();
+        }
+        cached = readDisk(key);
+        if (cached != null) {
+            count(path, "disk");
+            remember(key, cached);
+            return cached.toResponse();
+        }
+
+        count(path, "miss");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<?> response = mlServiceClient.post(path, new HttpEntity<>(json, headers));
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() instanceof String body) {
+            CachedPrediction prediction = new CachedPrediction(response.getStatusCode().value(), body,
+                    System.currentTimeMillis() + ttl.toMillis());
+            remember(key, prediction);
+            writeDisk(key, prediction);
+        }
+        return response;
+    }
+
+    String canonicalJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(canonicalize(null, payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload cannot be serialised", e);
+        }
+    }
+
+    private Object canonicalize(String field, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((name, nested) -> sorted.put(String.valueOf(name), canonicalize(String.valueOf(name), nested)));
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> items = new ArrayList<>(list.size());
+            for (Object item : list) {
+                items.add(canonicalize(field, item));
+            }
+            return items;
+        }
+        if (value instanceof Number number) {
+            return quantize(field, number);
+        }
+        if (value instanceof String text) {
+            return text.trim();
+        }
+        return value;
+    }
+
+    // 6.43 and 6.4 are the same soil pH to a model trained on one decimal place
+    private BigDecimal quantize(String field, Number number) {
+        int scale = field == null
+                ? defaultPrecision
+                : environment.getProperty("ml.cache.precision." + field.toLowerCase(Locale.ROOT), Integer.class, defaultPrecision);
+        BigDecimal decimal = number instanceof BigDecimal exact ? exact : new BigDecimal(number.toString());
+        BigDecimal rounded = decimal.setScale(scale, RoundingMode.HALF_UP).stripTrailingZeros();
+        return rounded.signum() == 0 ? BigDecimal.ZERO : rounded;
+    }
+
+    private CachedPrediction fromMemory(String key) {
+        synchronized (memory) {
+            CachedPrediction cached = memory.get(key);
+            if (cached != null && cached.expiresAt() <= System.currentTimeMillis()) {
+                memory.remove(key);
+                memoryBytes -= cached.sizeBytes();
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void remember(String key, CachedPrediction prediction) {
+        if (prediction.sizeBytes() > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            CachedPrediction previous = memory.put(key, prediction);
+            if (previous != null) {
+                memoryBytes -= previous.sizeBytes();
+            }
+            memoryBytes += prediction.sizeBytes();
+            var eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().sizeBytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    long memoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    // The disk tier is an optimisation: if it cannot be read or written, ask the ML service
+    private CachedPrediction readDisk(String key) {
+        if (diskDir == null) {
+            return null;
+        }
+        Path file = diskPath(key);
+        try {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            long expiresAt = Files.getLastModifiedTime(file).toMillis() + ttl.toMillis();
+            if (expiresAt <= System.currentTimeMillis()) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            int newline = content.indexOf('\n');
+            return new CachedPrediction(Integer.parseInt(content.substring(0, newline)), content.substring(newline + 1), expiresAt);
+        } catch (IOException | RuntimeException e) {
+            log.atWarn().addKeyValue("file", file).log("ML cache read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, CachedPrediction prediction) {
+        if (diskDir == null) {
+            return;
+        }
+        Path file = diskPath(key);
+        try {
+            Files.createDirectories(file.getParent());
+            // Written aside and moved into place so readers never see half a file
+            Path partial = Files.createTempFile(file.getParent(), key, ".tmp");
+            Files.writeString(partial, prediction.status() + "\n" + prediction.body(), StandardCharsets.UTF_8);
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.atWarn().addKeyValue("file", file).log("ML cache write failed: {}", e.getMessage());
+        }
+    }
+
+    // Two-character fan-out keeps directories small
+    private Path diskPath(String key) {
+        return diskDir.resolve(key.substring(0, 2)).resolve(key + ".json");
+    }
+
+    /** Deletes expired files, then the oldest ones while the disk tier is over its size limit. */
+    @Scheduled(fixedDelayString = "${ml.cache.disk.purge-interval-ms:600000}")
+    public void purgeDisk() {
+        if (diskDir == null || !Files.isDirectory(diskDir)) {
+            return;
+        }
+        long expiredBefore = System.currentTimeMillis() - ttl.toMillis();
+        List<DiskEntry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(diskDir, 2)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    entries.add(new DiskEntry(file, Files.getLastModifiedTime(file).toMillis(), Files.size(file)));
+                } catch (IOException e) {
+                    // Removed concurrently
+                }
+            });
+        } catch (IOException e) {
+            log.warn("ML cache purge failed: {}", e.getMessage());
+            return;
+        }
+        entries.sort(Comparator.comparingLong(DiskEntry::modifiedAt));
+        long total = entries.stream().mapToLong(DiskEntry::size).sum();
+        int purged = 0;
+        for (DiskEntry entry : entries) {
+            if (entry.modifiedAt() > expiredBefore && total <= maxDiskBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(entry.file());
+                total -= entry.size();
+                purged++;
+            } catch (IOException e) {
+                log.atDebug().addKeyValue("file", entry.file()).log("ML cache file not deleted: {}", e.getMessage());
+            }
+        }
+        if (purged > 0) {
+            log.atInfo().addKeyValue("purged", purged).addKeyValue("bytes", total).log("Purged ML cache files");
+        }
+    }
+
+    private void count(String path, String result) {
+        Counter.builder("ml.cache.lookups")
+                .description("ML prediction cache lookups by result (memory, disk, coalesced, miss)")
+                .tag("route", path.startsWith("/") ? path.substring(1) : path)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedPrediction(int status, String body, long expiresAt) {
+
+        long sizeBytes() {
+            return ENTRY_OVERHEAD_BYTES + 2L * body.length();
+        }
+
+        ResponseEntity<?> toResponse() {
+            return ResponseEntity.status(status).body(body);
+        }
+    }
+
+    private record DiskEntry(Path file, long modifiedAt, long size) {}
+}
@@ -0,0 +1,222 @@
+package com.farmtech.backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client for the Python ML service at {@code ml.service.base}, shared by the ML proxy
+ * controllers so a slow model cannot tie up every request thread.
+ *
+ * All routes share one keep-alive HTTP client. Each route (the path without its leading
+ * slash, e.g. {@code crop-recommendation}) has its own read timeout, a semaphore bulkhead
+ * capping concurrent calls and a circuit breaker. Calls that would wait on a full bulkhead
+ * or an open circuit are answered straight away with 503 instead of queueing.
+ *
+ * Defaults come from {@code ml.client.*}; a route overrides them under
+ * {@code ml.client.routes.<route>.*}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ml", name = "enabled", havingValue = "true")
+public class MlServiceClient {
+
+    private static final Logger log = LoggerFactory.getLogger(MlServiceClient.class);
+
+    private final String mlServiceBase;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    public MlServiceClient(@Value("${ml.service.base:http://localhost:5001}") String mlServiceBase,
+                           @Value("${ml.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+                           Environment environment,
+                           MeterRegistry meterRegistry) {
+        this.mlServiceBase = mlServiceBase;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        // Connections are kept alive and reused across routes; the bulkheads bound how many are open
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    /**
+     * POSTs {@code request} to {@code path} and relays the ML service's status and body.
+     * Fails fast with 503 when the route is saturated or its circuit is open, and with 504
+     * when the service does not answer within the route's read timeout.
+     */
+    public ResponseEntity<?> post(String path, HttpEntity<?> request) {
+        Route route = routes.computeIfAbsent(path, this::createRoute);
+        try {
+            if (!route.bulkhead.tryAcquire(route.maxWaitMs, TimeUnit.MILLISECONDS)) {
+                route.record("rejected", 0);
+                return unavailable("ML service is busy, please try again shortly", null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return unavailable("ML service is busy, please try again shortly", null);
+        }
+        try {
+            long start = System.nanoTime();
+            if (!route.breaker.tryAcquire(start)) {
+                route.record("short_circuited", 0);
+                return unavailable("ML service is unavailable, please try again later",
+                        TimeUnit.NANOSECONDS.toSeconds(route.breaker.remainingOpenNanos(start)) + 1);
+            }
+            return call(route, path, request, start);
+        } finally {
+            route.bulkhead.release();
+        }
+    }
+
+    private ResponseEntity<?> call(Route route, String path, HttpEntity<?> request, long start) {
+        ResponseEntity<String> response;
+        try {
+            response = route.restTemplate.postForEntity(mlServiceBase + path, request, String.class);
+        } catch (ResourceAccessException e) {
+            boolean timedOut = isTimeout(e);
+            failed(route, timedOut ? "timeout" : "error", start, e);
+            return timedOut
+                    ? ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("message", "ML service timed out"))
+                    : unavailable("ML service is unavailable, please try again later", null);
+        } catch (RuntimeException e) {
+            route.breaker.release();
+            throw e;
+        }
+
+        if (response.getStatusCode().is5xxServerError()) {
+            failed(route, "server_error", start, null);
+        } else {
+            route.breaker.onSuccess();
+            route.record("success", System.nanoTime() - start);
+        }
+        return ResponseEntity.status(response.getStatusCode()).body(response.getBody());
+    }
+
+    private void failed(Route route, String outcome, long start, Exception cause) {
+        long now = System.nanoTime();
+        route.record(outcome, now - start);
+        if (route.breaker.onFailure(now)) {
+            log.atWarn()
+                    .addKeyValue("route", route.name)
+                    .addKeyValue("outcome", outcome)
+                    .setCause(cause)
+                    .log("ML circuit opened");
+        }
+    }
+
+    // The JDK request factory reports its read timeout as an IOException caused by a TimeoutException
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException
+                    || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<?> unavailable(String message, Long retryAfterSeconds) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (retryAfterSeconds != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return builder.body(Map.of("message", message));
+    }
+
+    private Route createRoute(String path) {
+        String name = path.startsWith("/") ? path.substring(1) : path;
+        long readTimeoutMs = setting(name, "read-timeout-ms", 10_000L);
+        int maxConcurrent = setting(name, "max-concurrent", 8L).intValue();
+        long maxWaitMs = setting(name, "bulkhead.max-wait-ms", 0L);
+        int failureThreshold = setting(name, "circuit.failure-threshold", 5L).intValue();
+        long openMs = setting(name, "circuit.open-ms", 30_000L);
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // Relay 4xx/5xx to the caller instead of turning them into exceptions
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+        });
+
+        Route route = new Route(name, restTemplate, new Semaphore(maxConcurrent), maxWaitMs,
+                new CircuitBreaker(failureThreshold, TimeUnit.MILLISECONDS.toNanos(openMs)));
+        Gauge.builder("ml.client.bulkhead.in.use", route.bulkhead, bulkhead -> maxConcurrent - bulkhead.availablePermits())
+                .description("ML calls in flight (connections in use) on a route")
+                .tag("route", name)
+                .register(meterRegistry);
+        Gauge.builder("ml.client.bulkhead.max", () -> maxConcurrent)
+                .description("Concurrent ML calls allowed on a route")
+                .tag("route", name)
+                .register(meterRegistry);
+        Gauge.builder("ml.client.circuit.state", route.breaker, breaker -> breaker.state().ordinal())
+                .description("Circuit state of a route: 0 closed, 1 open, 2 half-open")
+                .tag("route", name)
+                .register(meterRegistry);
+        return route;
+    }
+
+    // ml.client.routes.<route>.<key>, falling back to ml.client.<key>
+    private Long setting(String route, String key, long defaultValue) {
+        Long fallback = environment.getProperty("ml.client." + key, Long.class, defaultValue);
+        return environment.getProperty("ml.client.routes." + route + "." + key, Long.class, fallback);
+    }
+
+    private final class Route {
+
+        final String name;
+        final RestTemplate restTemplate;
+        final Semaphore bulkhead;
+        final long maxWaitMs;
+        final CircuitBreaker breaker;
+
+        Route(String name, RestTemplate restTemplate, Semaphore bulkhead, long maxWaitMs, CircuitBreaker breaker) {
+            this.name = name;
+            this.restTemplate = restTemplate;
+            this.bulkhead = bulkhead;
+            this.maxWaitMs = maxWaitMs;
+            this.breaker = breaker;
+        }
+
+        void record(String outcome, long nanos) {
+            Timer.builder("ml.client.requests")
+                    .description("Calls from the ML proxy to the ML service")
+                    .tag("route", name)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
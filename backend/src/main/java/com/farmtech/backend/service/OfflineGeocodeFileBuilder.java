@@ -0,0 +1,71 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.service.OfflineGeocoder.PincodeCentroid;
+import com.farmtech.backend.service.OfflineGeocoder.VillageCentroid;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts a centroid CSV into the binary dataset read by {@link OfflineGeocoder}:
+ * <pre>
+ *   java -cp backend.jar com.farmtech.backend.service.OfflineGeocodeFileBuilder centroids.csv geocode.bin
+ * </pre>
+ * Each line is {@code pincode,village,latitude,longitude}. A line with an empty village
+ * is the centroid of the pincode itself; pincodes without such a line get the mean
+ * of their villages. A header line and lines starting with '#' are skipped.
+ */
+public final class OfflineGeocodeFileBuilder {
+
+    private OfflineGeocodeFileBuilder() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: OfflineGeocodeFileBuilder <centroids.csv> <output.bin>");
+            System.exit(2);
+        }
+        Map<Integer, PincodeCentroid> pincodes = new LinkedHashMap<>();
+        Map<Integer, double[]> villageSums = new LinkedHashMap<>();
+        List<VillageCentroid> villages = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("pincode"))) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length != 4) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected 4 fields, got " + fields.length);
+                }
+                int pincode = Integer.parseInt(fields[0].trim());
+                String village = fields[1].trim();
+                double latitude = Double.parseDouble(fields[2].trim());
+                double longitude = Double.parseDouble(fields[3].trim());
+                if (village.isEmpty()) {
+                    pincodes.putIfAbsent(pincode, new PincodeCentroid(pincode, latitude, longitude));
+                } else {
+                    villages.add(new VillageCentroid(village, pincode, latitude, longitude));
+                    double[] sum = villageSums.computeIfAbsent(pincode, p -> new double[3]);
+                    sum[0] += latitude;
+                    sum[1] += longitude;
+                    sum[2]++;
+                }
+            }
+        }
+        villageSums.forEach((pincode, sum) ->
+                pincodes.putIfAbsent(pincode, new PincodeCentroid(pincode, sum[0] / sum[2], sum[1] / sum[2])));
+
+        OfflineGeocoder.write(Path.of(args[1]), new ArrayList<>(pincodes.values()), villages);
+        System.out.println("Wrote " + pincodes.size() + " pincodes and " + villages.size() + " villages to " + args[1]);
+    }
+}
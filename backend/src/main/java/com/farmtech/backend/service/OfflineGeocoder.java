@@ -0,0 +1,280 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.service.GeocodingService.Coordinates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pincode and village centroids served from a memory-mapped dataset file, so farmers
+ * and bookings get usable coordinates without a network geocoder.
+ *
+ * File layout (big-endian), every array sorted by its key:
+ * <pre>
+ *   int magic, int version, int pincodeCount, int villageCount
+ *   int[pincodeCount] pincode, float[pincodeCount] latitude, float[pincodeCount] longitude
+ *   long[villageCount] nameHash, int[villageCount] pincode, float[villageCount] latitude, float[villageCount] longitude
+ * </pre>
+ * Villages are keyed by a 64-bit FNV-1a hash of the normalized name and sorted by
+ * (hash, pincode). A village name shared by several pincodes is only resolved when
+ * the pincode is known. Build the file with {@link OfflineGeocodeFileBuilder}.
+ */
+@Component
+public class OfflineGeocoder {
+
+    private static final Logger log = LoggerFactory.getLogger(OfflineGeocoder.class);
+
+    static final int MAGIC = 0x46544F47; // "FTOG"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    // Indian PIN codes: six digits, never starting with 0
+    private static final Pattern PINCODE = Pattern.compile("(?<!\\d)([1-9]\\d{5})(?!\\d)");
+
+    private final ByteBuffer data;
+    private final int pincodeCount;
+    private final int villageCount;
+    private final int pincodeLatOffset;
+    private final int pincodeLonOffset;
+    private final int villageHashOffset;
+    private final int villagePincodeOffset;
+    private final int villageLatOffset;
+    private final int villageLonOffset;
+
+    public OfflineGeocoder(@Value("${geocoding.offline.file:}") String file) {
+        ByteBuffer mapped = file == null || file.isBlank() ? null : map(Path.of(file));
+        if (mapped == null) {
+            this.data = null;
+            this.pincodeCount = 0;
+            this.villageCount = 0;
+        } else {
+            this.data = mapped;
+            this.pincodeCount = mapped.getInt(8);
+            this.villageCount = mapped.getInt(12);
+            log.info("Offline geocoder loaded {} pincodes and {} villages from {}", pincodeCount, villageCount, file);
+        }
+        this.pincodeLatOffset = HEADER_BYTES + pincodeCount * 4;
+        this.pincodeLonOffset = pincodeLatOffset + pincodeCount * 4;
+        this.villageHashOffset = pincodeLonOffset + pincodeCount * 4;
+        this.villagePincodeOffset = villageHashOffset + villageCount * 8;
+        this.villageLatOffset = villagePincodeOffset + villageCount * 4;
+        this.villageLonOffset = villageLatOffset + villageCount * 4;
+    }
+
+    public boolean isLoaded() {
+        return data != null;
+    }
+
+    public Optional<Coordinates> byPincode(String pincode) {
+        int code = parsePincode(pincode);
+        if (data == null || code < 0) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = pincodeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = data.getInt(HEADER_BYTES + mid * 4);
+            if (value < code) {
+                low = mid + 1;
+            } else if (value > code) {
+                high = mid - 1;
+            } else {
+                return Optional.of(new Coordinates(data.getFloat(pincodeLatOffset + mid * 4),
+                        data.getFloat(pincodeLonOffset + mid * 4)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The village centroid, using the pincode (may be null) to pick between villages
+     * of the same name. Empty when the name is unknown or ambiguous.
+     */
+    public Optional<Coordinates> byVillage(String village, String pincode) {
+        if (data == null || village == null) {
+            return Optional.empty();
+        }
+        String name = GeocodingService.normalize(village);
+        if (name.isEmpty()) {
+            return Optional.empty();
+        }
+        long hash = hash(name);
+        int code = parsePincode(pincode);
+
+        int first = firstVillageIndex(hash);
+        int match = -1;
+        int matches = 0;
+        for (int i = first; i < villageCount && data.getLong(villageHashOffset + i * 8) == hash; i++) {
+            if (code >= 0 && data.getInt(villagePincodeOffset + i * 4) == code) {
+                return Optional.of(village(i));
+            }
+            match = i;
+            matches++;
+        }
+        return matches == 1 ? Optional.of(village(match)) : Optional.empty();
+    }
+
+    // Centroid of the first PIN code mentioned in a free-text address
+    public Optional<Coordinates> fromAddress(String address) {
+        if (data == null || address == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = PINCODE.matcher(address);
+        return matcher.find() ? byPincode(matcher.group(1)) : Optional.empty();
+    }
+
+    private int firstVillageIndex(long hash) {
+        int low = 0;
+        int high = villageCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data.getLong(villageHashOffset + mid * 8) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Coordinates village(int index) {
+        return new Coordinates(data.getFloat(villageLatOffset + index * 4), data.getFloat(villageLonOffset + index * 4));
+    }
+
+    private static int parsePincode(String pincode) {
+        if (pincode == null) {
+            return -1;
+        }
+        String trimmed = pincode.trim();
+        if (trimmed.length() != 6) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(trimmed);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes of the normalized name
+    static long hash(String normalizedName) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : normalizedName.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                log.warn("Offline geocoder disabled: {} is not a version {} dataset", file, VERSION);
+                return null;
+            }
+            long expected = HEADER_BYTES + buffer.getInt(8) * 12L + buffer.getInt(12) * 20L;
+            if (buffer.capacity() != expected) {
+                log.warn("Offline geocoder disabled: {} is truncated or corrupt", file);
+                return null;
+            }
+            return buffer;
+        } catch (IOException e) {
+            log.warn("Offline geocoder disabled: cannot read {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    public record PincodeCentroid(int pincode, double latitude, double longitude) {}
+
+    public record VillageCentroid(String village, int pincode, double latitude, double longitude) {}
+
+    /**
+     * Writes a dataset in the layout described on the class. Duplicate pincodes (or
+     * village name and pincode pairs) keep the first entry.
+     */
+    public static void write(OutputStream target, List<PincodeCentroid> pincodes, List<VillageCentroid> villages)
+            throws IOException {
+        List<PincodeCentroid> sortedPincodes = new ArrayList<>(pincodes);
+        sortedPincodes.sort(Comparator.comparingInt(PincodeCentroid::pincode));
+        sortedPincodes = distinct(sortedPincodes, (a, b) -> a.pincode() == b.pincode());
+
+        record HashedVillage(long hash, VillageCentroid centroid) {}
+        List<HashedVillage> sortedVillages = new ArrayList<>();
+        for (VillageCentroid village : villages) {
+            String name = GeocodingService.normalize(village.village());
+            if (!name.isEmpty()) {
+                sortedVillages.add(new HashedVillage(hash(name), village));
+            }
+        }
+        sortedVillages.sort(Comparator.comparingLong(HashedVillage::hash)
+                .thenComparingInt(v -> v.centroid().pincode()));
+        sortedVillages = distinct(sortedVillages,
+                (a, b) -> a.hash() == b.hash() && a.centroid().pincode() == b.centroid().pincode());
+
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(sortedPincodes.size());
+        out.writeInt(sortedVillages.size());
+        for (PincodeCentroid pincode : sortedPincodes) {
+            out.writeInt(pincode.pincode());
+        }
+        for (PincodeCentroid pincode : sortedPincodes) {
+            out.writeFloat((float) pincode.latitude());
+        }
+        for (PincodeCentroid pincode : sortedPincodes) {
+            out.writeFloat((float) pincode.longitude());
+        }
+        for (HashedVillage village : sortedVillages) {
+            out.writeLong(village.hash());
+        }
+        for (HashedVillage village : sortedVillages) {
+            out.writeInt(village.centroid().pincode());
+        }
+        for (HashedVillage village : sortedVillages) {
+            out.writeFloat((float) village.centroid().latitude());
+        }
+        for (HashedVillage village : sortedVillages) {
+            out.writeFloat((float) village.centroid().longitude());
+        }
+        out.flush();
+    }
+
+    public static void write(Path file, List<PincodeCentroid> pincodes, List<VillageCentroid> villages)
+            throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(new BufferedOutputStream(out), pincodes, villages);
+        }
+    }
+
+    private static <T> List<T> distinct(List<T> sorted, BiPredicate<T, T> same) {
+        List<T> result = new ArrayList<>(sorted.size());
+        for (T item : sorted) {
+            if (result.isEmpty() || !same.test(result.get(result.size() - 1), item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,296 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.entity.User;
+import com.farmtech.backend.repository.FarmerRepository;
+import com.farmtech.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index of OWNER farmers keyed on their coordinates, so candidate
+ * selection only looks at owners in the cells around a booking location instead
+ * of every owner in the database.
+ *
+ * Owners without usable coordinates (null, or the 0.0/0.0 placeholder written at
+ * registration) are kept in a separate set so they can still be invited.
+ */
+@Service
+public class OwnerLocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OwnerLocationIndex.class);
+
+    static final String OWNER_ROLE = "OWNER";
+
+    // ~11 km of latitude per cell; a 50 km search touches roughly 11x11 cells
+    private static final double CELL_SIZE_DEG = 0.1;
+    private static final int LAT_CELLS = (int) Math.ceil(180.0 / CELL_SIZE_DEG);
+    private static final int LON_CELLS = (int) Math.ceil(360.0 / CELL_SIZE_DEG);
+    private static final double KM_PER_DEG_LAT = 111.32;
+
+    private final FarmerRepository farmerRepository;
+    private final UserRepository userRepository;
+    private final DistanceService distanceService;
+
+    private final Map<Long, OwnerLocation> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Set<Long> unlocatedOwners = ConcurrentHashMap.newKeySet();
+
+    public OwnerLocationIndex(FarmerRepository farmerRepository,
+                              UserRepository userRepository,
+                              DistanceService distanceService) {
+        this.farmerRepository = farmerRepository;
+        this.userRepository = userRepository;
+        this.distanceService = distanceService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        provisionMissingOwnerFarmers();
+
+        List<Farmer> owners = farmerRepository.findByUserRole(OWNER_ROLE);
+        synchronized (this) {
+            locations.clear();
+            cells.clear();
+            unlocatedOwners.clear();
+            owners.forEach(this::put);
+        }
+        log.info("Indexed {} located and {} unlocated owners", locations.size(), unlocatedOwners.size());
+    }
+
+    /**
+     * Re-indexes a farmer after its profile changed. Farmers that are not backed by
+     * an OWNER user account are ignored.
+     */
+    public void refresh(Farmer farmer) {
+        if (farmer == null || farmer.getId() == null) {
+            return;
+        }
+        boolean indexed = locations.containsKey(farmer.getId()) || unlocatedOwners.contains(farmer.getId());
+        if (!indexed && !isOwner(farmer)) {
+            return;
+        }
+        index(farmer);
+    }
+
+    synchronized void index(Farmer farmer) {
+        remove(farmer.getId());
+        put(farmer);
+    }
+
+    public synchronized void evict(Long farmerId) {
+        remove(farmerId);
+    }
+
+    /**
+     * Returns up to {@code limit} owners ordered by distance from the given point,
+     * restricted to {@code radiusKm}. When fewer located owners are in range, owners
+     * without coordinates fill the remaining slots with a distance of 0.
+     */
+    public List<Neighbor> findNearest(double latitude, double longitude, double radiusKm,
+                                      int limit, Long excludedFarmerId) {
+        int latIdx = latIndex(latitude);
+        int lonIdx = lonIndex(longitude);
+        int latSpan = (int) Math.ceil(radiusKm / KM_PER_DEG_LAT / CELL_SIZE_DEG);
+        double cosLat = Math.max(Math.cos(Math.toRadians(Math.min(Math.abs(latitude) + latSpan * CELL_SIZE_DEG, 89.0))), 0.01);
+        int lonSpan = Math.min((int) Math.ceil(radiusKm / (KM_PER_DEG_LAT * cosLat) / CELL_SIZE_DEG), LON_CELLS / 2);
+
+        // Gather the owners of the surrounding cells into primitive arrays, then measure them in one batch
+        CandidateBatch batch = new CandidateBatch();
+        for (int dLat = -latSpan; dLat <= latSpan; dLat++) {
+            int row = latIdx + dLat;
+            if (row < 0 || row >= LAT_CELLS) {
+                continue;
+            }
+            for (int dLon = -lonSpan; dLon <= lonSpan; dLon++) {
+                int col = Math.floorMod(lonIdx + dLon, LON_CELLS);
+                Set<Long> cell = cells.get(cellKey(row, col));
+                if (cell == null) {
+                    continue;
+                }
+                for (Long farmerId : cell) {
+                    if (farmerId.equals(excludedFarmerId)) {
+                        continue;
+                    }
+                    OwnerLocation location = locations.get(farmerId);
+                    if (location != null) {
+                        batch.add(farmerId, location);
+                    }
+                }
+            }
+        }
+
+        double[] distances = new double[batch.size];
+        distanceService.distancesInKm(Math.toRadians(latitude), Math.toRadians(longitude),
+                batch.latsRad, batch.lonsRad, batch.cosLats, batch.size, distances);
+        List<Neighbor> inRange = new ArrayList<>();
+        for (int i = 0; i < batch.size; i++) {
+            if (distances[i] <= radiusKm) {
+                inRange.add(new Neighbor(batch.farmerIds[i], distances[i]));
+            }
+        }
+
+        inRange.sort(Comparator.comparingDouble(Neighbor::distanceKm));
+        List<Neighbor> result = new ArrayList<>(inRange.subList(0, Math.min(limit, inRange.size())));
+        appendUnlocated(result, limit, excludedFarmerId);
+        return result;
+    }
+
+    /**
+     * Used when the booking itself has no coordinates: any owners, up to {@code limit},
+     * with a distance of 0.
+     */
+    public List<Neighbor> findAny(int limit, Long excludedFarmerId) {
+        List<Neighbor> result = new ArrayList<>();
+        for (Long farmerId : locations.keySet()) {
+            if (result.size() >= limit) {
+                return result;
+            }
+            if (!farmerId.equals(excludedFarmerId)) {
+                result.add(new Neighbor(farmerId, 0.0));
+            }
+        }
+        appendUnlocated(result, limit, excludedFarmerId);
+        return result;
+    }
+
+    public int size() {
+        return locations.size() + unlocatedOwners.size();
+    }
+
+    private void appendUnlocated(List<Neighbor> result, int limit, Long excludedFarmerId) {
+        for (Long farmerId : unlocatedOwners) {
+            if (result.size() >= limit) {
+                return;
+            }
+            if (!farmerId.equals(excludedFarmerId)) {
+                result.add(new Neighbor(farmerId, 0.0));
+            }
+        }
+    }
+
+    private void put(Farmer farmer) {
+        if (!hasCoordinates(farmer)) {
+            unlocatedOwners.add(farmer.getId());
+            return;
+        }
+        OwnerLocation location = OwnerLocation.of(farmer.getLatitude(), farmer.getLongitude());
+        locations.put(farmer.getId(), location);
+        cells.computeIfAbsent(cellKey(location), k -> ConcurrentHashMap.newKeySet()).add(farmer.getId());
+    }
+
+    private void remove(Long farmerId) {
+        unlocatedOwners.remove(farmerId);
+        OwnerLocation previous = locations.remove(farmerId);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(previous);
+        Set<Long> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(farmerId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private boolean isOwner(Farmer farmer) {
+        return farmer.getPhone() != null && userRepository.findByPhone(farmer.getPhone())
+                .map(user -> OWNER_ROLE.equals(user.getRole()))
+                .orElse(false);
+    }
+
+    // OWNER users that never got a Farmer row (legacy accounts) are provisioned once here,
+    // rather than one by one while building candidates for a booking
+    private void provisionMissingOwnerFarmers() {
+        List<User> missing = userRepository.findByRoleWithoutFarmer(OWNER_ROLE);
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<Farmer> farmers = new ArrayList<>(missing.size());
+        for (User user : missing) {
+            Farmer farmer = new Farmer();
+            farmer.setName(user.getName());
+            farmer.setEmail(user.getEmail());
+            farmer.setPhone(user.getPhone());
+            farmer.setPassword(user.getPassword());
+            farmer.setAddress(user.getAddress());
+            farmers.add(farmer);
+        }
+        farmerRepository.saveAll(farmers);
+        log.info("Created {} Farmer records for OWNER users", farmers.size());
+    }
+
+    static boolean hasCoordinates(Farmer farmer) {
+        Double lat = farmer.getLatitude();
+        Double lon = farmer.getLongitude();
+        if (lat == null || lon == null) {
+            return false;
+        }
+        return !(lat == 0.0 && lon == 0.0);
+    }
+
+    private static long cellKey(OwnerLocation location) {
+        return cellKey(latIndex(location.latitude()), lonIndex(location.longitude()));
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return (long) latIdx * LON_CELLS + lonIdx;
+    }
+
+    private static int latIndex(double latitude) {
+        int idx = (int) Math.floor((latitude + 90.0) / CELL_SIZE_DEG);
+        return Math.max(0, Math.min(LAT_CELLS - 1, idx));
+    }
+
+    private static int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / CELL_SIZE_DEG), LON_CELLS);
+    }
+
+    // Radians and latitude cosine are computed once here instead of on every search
+    private record OwnerLocation(double latitude, double longitude,
+                                 double latRad, double lonRad, double cosLat) {
+
+        static OwnerLocation of(double latitude, double longitude) {
+            double latRad = Math.toRadians(latitude);
+            return new OwnerLocation(latitude, longitude, latRad, Math.toRadians(longitude), Math.cos(latRad));
+        }
+    }
+
+    private static final class CandidateBatch {
+        long[] farmerIds = new long[64];
+        double[] latsRad = new double[64];
+        double[] lonsRad = new double[64];
+        double[] cosLats = new double[64];
+        int size;
+
+        void add(long farmerId, OwnerLocation location) {
+            if (size == farmerIds.length) {
+                int capacity = size * 2;
+                farmerIds = Arrays.copyOf(farmerIds, capacity);
+                latsRad = Arrays.copyOf(latsRad, capacity);
+                lonsRad = Arrays.copyOf(lonsRad, capacity);
+                cosLats = Arrays.copyOf(cosLats, capacity);
+            }
+            farmerIds[size] = farmerId;
+            latsRad[size] = location.latRad();
+            lonsRad[size] = location.lonRad();
+            cosLats[size] = location.cosLat();
+            size++;
+        }
+    }
+
+    public record Neighbor(Long farmerId, double distanceKm) {}
+}
@@ -0,0 +1,192 @@
+package com.farmtech.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recent plant-disease answers keyed by the uploaded photo's 64-bit dHash, so a re-upload
+ * of the same leaf (an app retry, the same photo sent twice, a recompressed copy) is
+ * answered without calling the ML service. A photo counts as a duplicate when its hash
+ * is within {@code ml.dedup.max-distance} bits of a cached one.
+ *
+ * Near neighbours are found with a multi-index hash: the 64 bits are cut into
+ * max-distance + 1 chunks, each with its own table. Two hashes that differ in at most
+ * max-distance bits agree exactly on at least one chunk, so only the entries sharing a
+ * chunk with the query are compared. Entries are kept in LRU order up to
+ * {@code ml.dedup.max-entries} and expire after {@code ml.dedup.ttl-minutes}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ml", name = "enabled", havingValue = "true")
+public class PlantDiseaseDedupCache {
+
+    private final int maxDistance;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final int[] chunkShifts;
+    private final long[] chunkMasks;
+    private final List<Map<Long, List<Entry>>> chunkTables = new ArrayList<>();
+    private final LinkedHashMap<Long, Entry> recent = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public PlantDiseaseDedupCache(MeterRegistry meterRegistry,
+                                  @Value("${ml.dedup.max-distance:5}") int maxDistance,
+                                  @Value("${ml.dedup.max-entries:2048}") int maxEntries,
+                                  @Value("${ml.dedup.ttl-minutes:60}") long ttlMinutes) {
+        if (maxDistance < 0 || maxDistance > 63) {
+            throw new IllegalArgumentException("ml.dedup.max-distance must be between 0 and 63");
+        }
+        this.maxDistance = maxDistance;
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+
+        int chunks = maxDistance + 1;
+        chunkShifts = new int[chunks];
+        chunkMasks = new long[chunks];
+        int shift = 0;
+        for (int i = 0; i < chunks; i++) {
+            int width = 64 / chunks + (i < 64 % chunks ? 1 : 0);
+            chunkShifts[i] = shift;
+            chunkMasks[i] = width == 64 ? -1L : (1L << width) - 1;
+            shift += width;
+            chunkTables.add(new HashMap<>());
+        }
+
+        hitCounter = Counter.builder("ml.dedup.lookups")
+                .description("Plant-disease uploads looked up by perceptual hash")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        missCounter = Counter.builder("ml.dedup.lookups")
+                .description("Plant-disease uploads looked up by perceptual hash")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("ml.dedup.hit.ratio", this, PlantDiseaseDedupCache::hitRatio)
+                .description("Share of plant-disease uploads answered from the dedup cache since start")
+                .register(meterRegistry);
+        Gauge.builder("ml.dedup.entries", this, PlantDiseaseDedupCache::size)
+                .description("Plant-disease answers held for dedup")
+                .register(meterRegistry);
+    }
+
+    /** The cached answer for the nearest photo within the distance threshold, if any. */
+    public Optional<ResponseEntity<?>> lookup(long dHash) {
+        Entry nearest = null;
+        synchronized (recent) {
+            long now = System.currentTimeMillis();
+            int best = maxDistance + 1;
+            List<Entry> expired = new ArrayList<>();
+            for (int i = 0; i < chunkTables.size() && best > 0; i++) {
+                List<Entry> bucket = chunkTables.get(i).get(chunk(dHash, i));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry entry : bucket) {
+                    if (entry.expiresAt() <= now) {
+                        expired.add(entry);
+                        continue;
+                    }
+                    int distance = Long.bitCount(entry.dHash() ^ dHash);
+                    if (distance < best) {
+                        best = distance;
+                        nearest = entry;
+                    }
+                }
+            }
+            expired.forEach(this::forget);
+            if (nearest != null) {
+                // Touch it so photos that keep coming back stay cached
+                recent.get(nearest.dHash());
+            }
+        }
+        if (nearest == null) {
+            misses.incrementAndGet();
+            missCounter.increment();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        hitCounter.increment();
+        return Optional.of(ResponseEntity.status(nearest.status()).body(nearest.body()));
+    }
+
+    /** Keeps a successful answer for photos hashing near {@code dHash}; anything else is ignored. */
+    public void remember(long dHash, ResponseEntity<?> response) {
+        if (!response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof String body)) {
+            return;
+        }
+        Entry entry = new Entry(dHash, response.getStatusCode().value(), body, System.currentTimeMillis() + ttl.toMillis());
+        synchronized (recent) {
+            Entry previous = recent.get(dHash);
+            if (previous != null) {
+                forget(previous);
+            }
+            recent.put(dHash, entry);
+            for (int i = 0; i < chunkTables.size(); i++) {
+                chunkTables.get(i).computeIfAbsent(chunk(dHash, i), key -> new ArrayList<>(1)).add(entry);
+            }
+            Iterator<Entry> eldest = recent.values().iterator();
+            while (recent.size() > maxEntries && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                unindex(evicted);
+            }
+        }
+    }
+
+    int size() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+
+    double hitRatio() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    // Callers hold the lock on recent
+    private void forget(Entry entry) {
+        if (recent.get(entry.dHash()) == entry) {
+            recent.remove(entry.dHash());
+            unindex(entry);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (int i = 0; i < chunkTables.size(); i++) {
+            Map<Long, List<Entry>> table = chunkTables.get(i);
+            long key = chunk(entry.dHash(), i);
+            List<Entry> bucket = table.get(key);
+            if (bucket != null) {
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    table.remove(key);
+                }
+            }
+        }
+    }
+
+    private long chunk(long dHash, int index) {
+        return dHash >>> chunkShifts[index] & chunkMasks[index];
+    }
+
+    private record Entry(long dHash, int status, String body, long expiresAt) {}
+}
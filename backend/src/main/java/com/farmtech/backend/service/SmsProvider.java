@@ -0,0 +1,22 @@
+package com.farmtech.backend.service;
+
+/**
+ * A gateway that delivers one SMS, behind {@link SmsService}. The service owns queueing,
+ * rate limiting and retries; implementations only make the call.
+ */
+public interface SmsProvider {
+
+    /**
+     * Hands the message to the gateway. Throw when it was not accepted (network, quota,
+     * rejected number) so the outbox row is retried.
+     */
+    void send(String to, String body) throws Exception;
+
+    // Used for the per-provider rate limit and the sms.send metric
+    String name();
+
+    // False when credentials or the client library are missing; messages are then only logged
+    default boolean isConfigured() {
+        return true;
+    }
+}
@@ -1,51 +1,211 @@
 package com.farmtech.backend.service;
 
+import com.farmtech.backend.entity.SmsOutboxMessage;
+import com.farmtech.backend.entity.SmsOutboxMessage.Status;
+import com.farmtech.backend.repository.SmsOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-// If Twilio SDK is not present yet, this service will no-op (log only).
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends SMS without holding up the caller. {@link #sendSms} only writes a row to
+ * sms_outbox; a small worker pool delivers it through the {@link SmsProvider}, at most
+ * {@code sms.rate-per-second} messages per provider.
+ *
+ * A failed send is retried with exponential backoff by the outbox poller, up to
+ * {@link #MAX_ATTEMPTS}. Rows are only marked SENT after the provider accepted them, so
+ * delivery is at-least-once: a crash between the two repeats the message.
+ */
 @Service
 public class SmsService {
 
-    @Value("${twilio.accountSid:}")
-    private String accountSid;
+    private static final Logger log = LoggerFactory.getLogger(SmsService.class);
+
+    static final int MAX_ATTEMPTS = 6;
 
-    @Value("${twilio.authToken:}")
-    private String authToken;
+    private final SmsProvider provider;
+    private final SmsOutboxRepository outboxRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final RateLimiter rateLimiter;
 
-    @Value("${twilio.fromNumber:+10000000000}")
-    private String fromNumber;
+    // Rows queued or being sent in this JVM, so the poller does not submit them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
 
     @Value("${sms.enabled:false}")
     private boolean smsEnabled;
 
+    @Value("${sms.retry.initial-backoff-ms:5000}")
+    private long initialBackoffMs;
+
+    @Value("${sms.retry.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    public SmsService(SmsProvider provider,
+                      SmsOutboxRepository outboxRepository,
+                      @Qualifier("smsDispatchExecutor") ThreadPoolTaskExecutor executor,
+                      MeterRegistry meterRegistry,
+                      @Value("${sms.rate-per-second:10}") double ratePerSecond) {
+        this.provider = provider;
+        this.outboxRepository = outboxRepository;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = new RateLimiter(ratePerSecond);
+    }
+
+    /**
+     * Queues a message. Inside a transaction the outbox row commits with it and the send
+     * is scheduled after commit; otherwise it is scheduled right away.
+     */
     public void sendSms(String to, String message) {
         if (!smsEnabled) {
             // Feature disabled: do nothing
             return;
         }
+        LocalDateTime now = LocalDateTime.now();
+        SmsOutboxMessage outbox = new SmsOutboxMessage();
+        outbox.setToPhone(to);
+        outbox.setBody(message);
+        outbox.setCreatedAt(now);
+        outbox.setNextAttemptAt(now);
+        Long id = outboxRepository.save(outbox).getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(id);
+                }
+            });
+        } else {
+            schedule(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sms.dispatch.poll-interval-ms:5000}")
+    public void dispatchDue() {
+        if (smsEnabled) {
+            dispatchDue(LocalDateTime.now());
+        }
+    }
+
+    // Also picks up rows left behind by a restart or a full queue
+    void dispatchDue(LocalDateTime now) {
+        for (SmsOutboxMessage message : outboxRepository
+                .findTop100ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(Status.PENDING, now)) {
+            schedule(message.getId());
+        }
+    }
+
+    private void schedule(Long id) {
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    deliver(id);
+                } finally {
+                    inFlight.remove(id);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Queue full: the row stays PENDING and the poller retries it later
+            inFlight.remove(id);
+            log.atWarn().addKeyValue("smsId", id).log("SMS queue full, deferring message");
+        }
+    }
+
+    private void deliver(Long id) {
+        SmsOutboxMessage message = outboxRepository.findById(id).orElse(null);
+        if (message == null || message.getStatus() != Status.PENDING) {
+            return;
+        }
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // still PENDING; picked up again after restart
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = provider.isConfigured() ? "sent" : "skipped";
         try {
-            if (accountSid == null || accountSid.isBlank() || authToken == null || authToken.isBlank()) {
-                System.out.println("[SmsService] Twilio not configured. Would send to " + to + ": " + message);
-                return;
+            provider.send(message.getToPhone(), message.getBody());
+            message.setStatus(Status.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        } catch (Exception e) {
+            outcome = "failed";
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(truncate(e.toString()));
+            if (message.getAttempts() >= MAX_ATTEMPTS) {
+                message.setStatus(Status.FAILED);
+            } else {
+                message.setNextAttemptAt(LocalDateTime.now().plus(backoff(message.getAttempts())));
             }
-            // Use reflection to avoid compile-time dependency when Twilio lib is not present yet
-            Class<?> twilioClass = Class.forName("com.twilio.Twilio");
-            twilioClass.getMethod("init", String.class, String.class).invoke(null, accountSid, authToken);
-
-            Class<?> phoneNumberClass = Class.forName("com.twilio.type.PhoneNumber");
-            Object toNumber = phoneNumberClass.getConstructor(String.class).newInstance(to);
-            Object fromNum = phoneNumberClass.getConstructor(String.class).newInstance(fromNumber);
-
-            Class<?> messageClass = Class.forName("com.twilio.rest.api.v2010.account.Message");
-            Object creator = messageClass
-                    .getMethod("creator", phoneNumberClass, phoneNumberClass, String.class)
-                    .invoke(null, toNumber, fromNum, message);
-            creator.getClass().getMethod("create").invoke(creator);
-        } catch (ClassNotFoundException e) {
-            System.out.println("[SmsService] Twilio library missing. Would send to " + to + ": " + message);
-        } catch (Throwable t) {
-            System.err.println("[SmsService] Failed to send SMS: " + t.getMessage());
-        }
-    }
-}
\ No newline at end of file
+            log.atWarn()
+                    .addKeyValue("smsId", id)
+                    .addKeyValue("attempt", message.getAttempts())
+                    .addKeyValue("status", message.getStatus())
+                    .log("SMS send failed: {}", e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("sms.send")
+                    .description("Time spent handing one SMS to the provider")
+                    .tag("provider", provider.name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        outboxRepository.save(message);
+    }
+
+    // initial, 2x, 4x ... capped at max-backoff-ms
+    Duration backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    // Spaces sends evenly at the configured rate; callers are dispatch workers, never request threads
+    private static final class RateLimiter {
+
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        RateLimiter(double permitsPerSecond) {
+            this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeNanos);
+                nextFreeNanos = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.farmtech.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Twilio through reflection, so the SDK stays an optional runtime dependency. The client
+ * is initialised and the reflective handles are resolved once at startup rather than per
+ * message. Without credentials or the SDK, messages are logged instead of sent.
+ */
+@Component
+public class TwilioSmsProvider implements SmsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(TwilioSmsProvider.class);
+
+    private final String fromNumber;
+    private final Constructor<?> phoneNumber;
+    private final Method creator;
+    private final Method create;
+
+    public TwilioSmsProvider(@Value("${twilio.accountSid:}") String accountSid,
+                             @Value("${twilio.authToken:}") String authToken,
+                             @Value("${twilio.fromNumber:+10000000000}") String fromNumber) {
+        this.fromNumber = fromNumber;
+        Constructor<?> phoneNumber = null;
+        Method creator = null;
+        Method create = null;
+        if (accountSid == null || accountSid.isBlank() || authToken == null || authToken.isBlank()) {
+            log.info("Twilio not configured; SMS will be logged only");
+        } else {
+            try {
+                Class.forName("com.twilio.Twilio")
+                        .getMethod("init", String.class, String.class)
+                        .invoke(null, accountSid, authToken);
+                Class<?> phoneNumberClass = Class.forName("com.twilio.type.PhoneNumber");
+                phoneNumber = phoneNumberClass.getConstructor(String.class);
+                creator = Class.forName("com.twilio.rest.api.v2010.account.Message")
+                        .getMethod("creator", phoneNumberClass, phoneNumberClass, String.class);
+                create = creator.getReturnType().getMethod("create");
+            } catch (ClassNotFoundException e) {
+                log.info("Twilio library missing; SMS will be logged only");
+                phoneNumber = null;
+            } catch (ReflectiveOperationException e) {
+                log.warn("Twilio client could not be initialised; SMS will be logged only", e);
+                phoneNumber = null;
+            }
+        }
+        this.phoneNumber = phoneNumber;
+        this.creator = phoneNumber != null ? creator : null;
+        this.create = phoneNumber != null ? create : null;
+    }
+
+    @Override
+    public void send(String to, String body) throws Exception {
+        if (!isConfigured()) {
+            log.info("Would send SMS to {}: {}", to, body);
+            return;
+        }
+        try {
+            Object messageCreator = creator.invoke(null, phoneNumber.newInstance(to), phoneNumber.newInstance(fromNumber), body);
+            create.invoke(messageCreator);
+        } catch (InvocationTargetException e) {
+            // Surface Twilio's own exception (ApiException etc.) as the failure reason
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "twilio";
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return phoneNumber != null;
+    }
+}
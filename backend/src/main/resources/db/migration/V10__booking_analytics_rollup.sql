@@ -0,0 +1,13 @@
+-- Incrementally maintained booking analytics (farmer_id 0 holds the global totals)
+CREATE TABLE IF NOT EXISTS booking_analytics_rollup (
+    farmer_id BIGINT PRIMARY KEY,
+    total_bookings BIGINT NOT NULL DEFAULT 0,
+    confirmed_bookings BIGINT NOT NULL DEFAULT 0,
+    pending_bookings BIGINT NOT NULL DEFAULT 0,
+    cancelled_bookings BIGINT NOT NULL DEFAULT 0,
+    total_revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    confirmed_revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    confirmation_minutes_sum BIGINT NOT NULL DEFAULT 0,
+    confirmation_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6) NULL
+);
@@ -0,0 +1,16 @@
+-- Time-bucketed booking analytics (DAY/WEEK/MONTH by booking creation date)
+CREATE TABLE IF NOT EXISTS booking_analytics_buckets (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    granularity VARCHAR(16) NOT NULL,
+    bucket_start DATE NOT NULL,
+    scope_type VARCHAR(16) NOT NULL,
+    scope_key VARCHAR(64) NOT NULL,
+    bookings BIGINT NOT NULL DEFAULT 0,
+    confirmed_bookings BIGINT NOT NULL DEFAULT 0,
+    cancelled_bookings BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    confirmed_revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    confirmation_minutes_sum BIGINT NOT NULL DEFAULT 0,
+    confirmation_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uq_analytics_bucket (granularity, scope_type, scope_key, bucket_start)
+);
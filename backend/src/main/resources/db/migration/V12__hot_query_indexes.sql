@@ -0,0 +1,18 @@
+-- Composite indexes for the hot repository queries (declared on the entities as well,
+-- see Booking and BookingCandidate @Table(indexes = ...))
+
+-- BookingRepository.findByStatus / findByStatusIn and the status-filtered keyset pages
+CREATE INDEX idx_bookings_status_id ON bookings (status, id);
+
+-- BookingRepository.findByRenterIdAndStatus (and findByRenterId via the leading column)
+CREATE INDEX idx_bookings_renter_status ON bookings (renter_id, status);
+
+-- BookingCandidateRepository.findByOwnerIdAndStatusOrderByInvitedAtAsc, findByOwnerIdAndStatus,
+-- findByOwnerIdOrderByInvitedAtDesc
+CREATE INDEX idx_candidates_owner_status_invited ON booking_candidates (owner_id, status, invited_at);
+
+-- BookingCandidateRepository.findByBookingOrderByDistanceKmAsc
+CREATE INDEX idx_candidates_booking_distance ON booking_candidates (booking_id, distance_km);
+
+-- BookingCandidateRepository.findFirstByBookingAndStatus(In)OrderByInvitedAtAsc, findCandidatesForStatuses
+CREATE INDEX idx_candidates_booking_status_invited ON booking_candidates (booking_id, status, invited_at);
@@ -0,0 +1,10 @@
+-- Persistent tier of the geocoding cache (see GeocodingService). Rows without
+-- coordinates record addresses the geocoder could not resolve.
+CREATE TABLE IF NOT EXISTS geocode_cache (
+    address_key VARCHAR(500) PRIMARY KEY,
+    latitude DOUBLE,
+    longitude DOUBLE,
+    resolved_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    KEY idx_geocode_cache_expires (expires_at)
+);
@@ -0,0 +1,13 @@
+-- Outbox for outgoing SMS (see SmsService): at-least-once delivery with retries
+CREATE TABLE IF NOT EXISTS sms_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    to_phone VARCHAR(32) NOT NULL,
+    body VARCHAR(1600) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    sent_at DATETIME(6),
+    KEY idx_sms_outbox_status_next (status, next_attempt_at)
+);
@@ -0,0 +1,3 @@
+-- BookingCandidateRepository.findOpenInvitationStarts: the invitation expiry scheduler
+-- rebuilds its timing wheel from the open invitations on startup
+CREATE INDEX idx_candidates_status_booking_invited ON booking_candidates (status, booking_id, invited_at);
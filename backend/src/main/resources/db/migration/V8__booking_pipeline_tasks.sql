@@ -0,0 +1,14 @@
+-- Outbox for the asynchronous booking pipeline (candidate generation, dispatch, renter SMS)
+CREATE TABLE IF NOT EXISTS booking_pipeline_tasks (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    booking_id BIGINT NOT NULL,
+    stage VARCHAR(32) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uq_pipeline_task_booking (booking_id),
+    KEY idx_pipeline_task_stage_updated (stage, updated_at),
+    CONSTRAINT fk_pipeline_task_booking FOREIGN KEY (booking_id)
+        REFERENCES bookings (id) ON DELETE CASCADE
+);
@@ -0,0 +1,3 @@
+-- Optimistic locking for bookings (see Booking.version and BookingRepository.claimForOwner)
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
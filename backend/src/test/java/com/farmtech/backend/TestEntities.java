@@ -0,0 +1,57 @@
+package com.farmtech.backend;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Equipment;
+import com.farmtech.backend.entity.Farmer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unsaved entities with every mandatory column filled in, shared by the JPA tests.
+ * Tests set whatever else they care about before persisting.
+ */
+public final class TestEntities {
+
+	private TestEntities() {
+	}
+
+	public static Farmer farmer(String phone) {
+		Farmer farmer = new Farmer();
+		farmer.setName("Farmer " + phone);
+		farmer.setPhone(phone);
+		farmer.setPassword("secret");
+		return farmer;
+	}
+
+	public static Equipment equipment(Farmer owner, String type) {
+		Equipment equipment = new Equipment();
+		equipment.setName(type);
+		equipment.setType(type);
+		equipment.setPrice(1000.0);
+		equipment.setOwner(owner);
+		return equipment;
+	}
+
+	public static Booking booking(Equipment equipment, Farmer renter, String status, LocalDateTime createdAt) {
+		Booking booking = new Booking();
+		booking.setEquipment(equipment);
+		booking.setOwner(equipment.getOwner());
+		booking.setRenter(renter);
+		booking.setStartDate(createdAt.toLocalDate());
+		booking.setStatus(status);
+		booking.setCreatedAt(createdAt);
+		return booking;
+	}
+
+	public static BookingCandidate invitation(Booking booking, Farmer owner, LocalDateTime invitedAt) {
+		BookingCandidate candidate = new BookingCandidate();
+		candidate.setBooking(booking);
+		candidate.setOwner(owner);
+		candidate.setDistanceKm(1.0);
+		candidate.setStatus(CandidateStatus.NOTIFIED);
+		candidate.setInvitedAt(invitedAt);
+		return candidate;
+	}
+}
@@ -0,0 +1,192 @@
+package com.farmtech.backend.controller;
+
+import com.farmtech.backend.service.ImagePreprocessor;
+import com.farmtech.backend.service.MlServiceClient;
+import com.farmtech.backend.service.PlantDiseaseDedupCache;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MLUploadControllerTest {
+
+	private static final int MB = 1024 * 1024;
+
+	private final MLUploadController controller = new MLUploadController();
+	private final ExecutorService pool = Executors.newSingleThreadExecutor();
+	private final ThreadPoolTaskExecutor preprocessExecutor = new ThreadPoolTaskExecutor();
+	private final AtomicLong received = new AtomicLong();
+	private volatile long pauseAfter;
+	private volatile CountDownLatch midway;
+	private volatile CountDownLatch proceed;
+	private HttpServer server;
+
+	@BeforeEach
+	void start() throws Exception {
+		preprocessExecutor.initialize();
+		// Reads half of the upload, then holds the connection so the test can look at the heap mid-stream
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/plant-disease-detection", exchange -> {
+			byte[] buffer = new byte[8192];
+			long total = 0;
+			boolean paused = false;
+			try (InputStream body = exchange.getRequestBody()) {
+				for (int n; (n = body.read(buffer)) != -1; ) {
+					total += n;
+					if (!paused && total >= pauseAfter) {
+						paused = true;
+						midway.countDown();
+						proceed.await(10, TimeUnit.SECONDS);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			received.set(total);
+			byte[] response = "{\"disease\":\"leaf_blight\"}".getBytes();
+			exchange.sendResponseHeaders(200, response.length);
+			exchange.getResponseBody().write(response);
+			exchange.close();
+		});
+		server.start();
+
+		MlServiceClient client = new MlServiceClient("http://127.0.0.1:" + server.getAddress().getPort(), 1000,
+				new MockEnvironment(), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(controller, "mlServiceClient", client);
+		// The generated uploads are not images, so they are forwarded as they are
+		ReflectionTestUtils.setField(controller, "imagePreprocessor", new ImagePreprocessor(preprocessExecutor, 256, 0.9f, 100_000_000L, 10_000L));
+		ReflectionTestUtils.setField(controller, "plantDiseaseDedupCache", new PlantDiseaseDedupCache(new SimpleMeterRegistry(), 5, 16, 60));
+	}
+
+	@AfterEach
+	void stop() {
+		if (proceed != null) {
+			proceed.countDown();
+		}
+		pool.shutdownNow();
+		preprocessExecutor.shutdown();
+		server.stop(0);
+	}
+
+	@Test
+	void heapStaysFlatAsUploadsGrow() throws Exception {
+		long small = heapWhileUploading(2 * MB);
+		long large = heapWhileUploading(32 * MB);
+
+		// Buffering the upload would add the whole 30 MB difference
+		assertThat(large - small).isLessThan(8L * MB);
+	}
+
+	private long heapWhileUploading(int size) throws Exception {
+		pauseAfter = size / 2;
+		midway = new CountDownLatch(1);
+		proceed = new CountDownLatch(1);
+		Future<ResponseEntity<?>> upload = pool.submit(() -> controller.plantDiseaseDetection(new GeneratedUpload(size)));
+
+		assertThat(midway.await(10, TimeUnit.SECONDS)).isTrue();
+		long used = usedHeapAfterGc();
+		proceed.countDown();
+
+		ResponseEntity<?> response = upload.get(10, TimeUnit.SECONDS);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(received.get()).isGreaterThan(size);
+		return used;
+	}
+
+	private static long usedHeapAfterGc() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	// An upload of the given size whose content is generated on read and never materialised
+	private static final class GeneratedUpload implements MultipartFile {
+
+		private final int size;
+
+		GeneratedUpload(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public String getName() {
+			return "file";
+		}
+
+		@Override
+		public String getOriginalFilename() {
+			return "leaf.jpg";
+		}
+
+		@Override
+		public String getContentType() {
+			return "image/jpeg";
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size == 0;
+		}
+
+		@Override
+		public long getSize() {
+			return size;
+		}
+
+		@Override
+		public byte[] getBytes() {
+			throw new AssertionError("upload must be streamed, not copied onto the heap");
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new InputStream() {
+				private int position;
+
+				@Override
+				public int read() {
+					return position < size ? (position++ * 31) & 0xFF : -1;
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					if (position >= size) {
+						return -1;
+					}
+					int n = Math.min(len, size - position);
+					for (int i = 0; i < n; i++) {
+						b[off + i] = (byte) (position++ * 31);
+					}
+					return n;
+				}
+			};
+		}
+
+		@Override
+		public void transferTo(File dest) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Farmer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingCandidateRepositoryImplTest {
+
+	private PreparedStatement statement;
+	private Connection connection;
+	private BookingCandidateRepositoryImpl repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		statement = mock(PreparedStatement.class);
+		connection = mock(Connection.class);
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		DataSource dataSource = mock(DataSource.class);
+
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.getMetaData()).thenReturn(metaData);
+		when(metaData.supportsBatchUpdates()).thenReturn(true);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.getConnection()).thenReturn(connection);
+		when(statement.executeBatch()).thenAnswer(invocation -> new int[BookingCandidateRepositoryImpl.BATCH_SIZE]);
+
+		repository = new BookingCandidateRepositoryImpl(new JdbcTemplate(dataSource));
+	}
+
+	@Test
+	void fiveThousandCandidatesAreWrittenInFiveBatches() throws Exception {
+		repository.insertAll(candidates(5000));
+
+		verify(connection, times(1)).prepareStatement(anyString());
+		verify(statement, times(5000)).addBatch();
+		verify(statement, times(5)).executeBatch();
+		verify(statement, times(0)).executeUpdate();
+	}
+
+	@Test
+	void emptyCandidateListDoesNotTouchTheDatabase() throws Exception {
+		repository.insertAll(List.of());
+
+		verify(connection, times(0)).prepareStatement(anyString());
+	}
+
+	private List<BookingCandidate> candidates(int count) {
+		Booking booking = new Booking();
+		booking.setId(1L);
+		LocalDateTime invitedAt = LocalDateTime.now();
+		List<BookingCandidate> candidates = new ArrayList<>(count);
+		for (long i = 0; i < count; i++) {
+			Farmer owner = new Farmer();
+			owner.setId(i + 2);
+			BookingCandidate candidate = new BookingCandidate();
+			candidate.setBooking(booking);
+			candidate.setOwner(owner);
+			candidate.setDistanceKm((double) i);
+			candidate.setStatus(CandidateStatus.NOTIFIED);
+			candidate.setInvitedAt(invitedAt);
+			candidates.add(candidate);
+		}
+		return candidates;
+	}
+}
@@ -0,0 +1,154 @@
+package com.farmtech.backend.repository;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Equipment;
+import com.farmtech.backend.entity.Farmer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.farmtech.backend.TestEntities.booking;
+import static com.farmtech.backend.TestEntities.equipment;
+import static com.farmtech.backend.TestEntities.farmer;
+import static com.farmtech.backend.TestEntities.invitation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements each booking listing needs, including whatever
+ * Jackson touches while rendering the response. Every listing must stay a single
+ * select no matter how many rows it returns.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class BookingQueryCountTest {
+
+	private static final int BOOKINGS = 10;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private BookingCandidateRepository candidateRepository;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	private Farmer renter;
+	private Farmer invitedOwner;
+	private Long firstBookingId;
+	private Long firstCandidateId;
+
+	@BeforeEach
+	void seed() {
+		renter = persist(farmer("8000000000"));
+		invitedOwner = persist(farmer("8000000001"));
+		for (int i = 0; i < BOOKINGS; i++) {
+			// Distinct owners and equipment per booking, so lazy loading would show up as N extra selects
+			Farmer owner = persist(farmer(String.valueOf(9000000000L + i)));
+			Farmer acceptedOwner = persist(farmer(String.valueOf(9100000000L + i)));
+			Equipment equipment = persist(equipment(owner, "Tractor"));
+			Booking booking = persist(confirmed(equipment, renter, acceptedOwner));
+			BookingCandidate candidate = persist(invitation(booking, invitedOwner, LocalDateTime.now()));
+			if (i == 0) {
+				firstBookingId = booking.getId();
+				firstCandidateId = candidate.getId();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void renterBookingsLoadInOneSelect() {
+		assertSingleSelect(() -> bookingRepository.findByRenterId(renter.getId()), BOOKINGS);
+	}
+
+	@Test
+	void confirmedRenterBookingsLoadInOneSelect() {
+		assertSingleSelect(() -> bookingRepository.findByRenterIdAndStatus(renter.getId(), "CONFIRMED"), BOOKINGS);
+	}
+
+	@Test
+	void ownerBookingsLoadInOneSelect() {
+		Long ownerId = bookingRepository.findAll().get(0).getOwner().getId();
+		entityManager.clear();
+		assertSingleSelect(() -> bookingRepository.findByOwnerId(ownerId), 1);
+	}
+
+	@Test
+	void acceptedOwnerBookingsLoadInOneSelect() {
+		Long acceptedOwnerId = bookingRepository.findAll().get(0).getAcceptedOwner().getId();
+		entityManager.clear();
+		assertSingleSelect(() -> bookingRepository.findByAcceptedOwnerId(acceptedOwnerId), 1);
+	}
+
+	@Test
+	void statusListingAndAdminListingLoadInOneSelect() {
+		assertSingleSelect(() -> bookingRepository.findByStatusIn(List.of("CONFIRMED")), BOOKINGS);
+		entityManager.clear();
+		assertSingleSelect(() -> bookingRepository.findAll(), BOOKINGS);
+	}
+
+	@Test
+	void singleBookingLoadsInOneSelect() {
+		assertSingleSelect(() -> bookingRepository.findById(firstBookingId).orElseThrow(), 1);
+	}
+
+	@Test
+	void ownerInvitationsLoadInOneSelect() {
+		assertSingleSelect(() -> candidateRepository.findByOwnerIdAndStatusOrderByInvitedAtAsc(
+				invitedOwner.getId(), CandidateStatus.NOTIFIED), BOOKINGS);
+		entityManager.clear();
+		assertSingleSelect(() -> candidateRepository.findByOwnerIdOrderByInvitedAtDesc(invitedOwner.getId()), BOOKINGS);
+		entityManager.clear();
+		assertSingleSelect(() -> candidateRepository.findById(firstCandidateId).orElseThrow(), 1);
+	}
+
+	private void assertSingleSelect(Supplier<Object> query, int expectedRows) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Object result = query.get();
+		String json;
+		try {
+			json = objectMapper.writeValueAsString(result);
+		} catch (Exception e) {
+			throw new AssertionError("Response could not be serialized", e);
+		}
+
+		assertThat(json).isNotEmpty();
+		if (result instanceof List<?> rows) {
+			assertThat(rows).hasSize(expectedRows);
+		}
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private <T> T persist(T entity) {
+		entityManager.persist(entity);
+		return entity;
+	}
+
+	private Booking confirmed(Equipment equipment, Farmer renter, Farmer acceptedOwner) {
+		Booking booking = booking(equipment, renter, "CONFIRMED", LocalDateTime.now());
+		booking.setAcceptedOwner(acceptedOwner);
+		return booking;
+	}
+}
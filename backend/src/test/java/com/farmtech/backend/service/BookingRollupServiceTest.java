@@ -0,0 +1,148 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.dto.AnalyticsResponse;
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.Equipment;
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.repository.BookingAnalyticsRollupRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static com.farmtech.backend.TestEntities.booking;
+import static com.farmtech.backend.TestEntities.equipment;
+import static com.farmtech.backend.TestEntities.farmer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({BookingRollupService.class, BookingSeriesService.class, BookingAnalyticsService.class})
+class BookingRollupServiceTest {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private BookingRollupService rollupService;
+
+	@Autowired
+	private BookingAnalyticsService analyticsService;
+
+	@Autowired
+	private BookingAnalyticsRollupRepository rollupRepository;
+
+	@Test
+	void incrementalCountersMatchAFullRebuild() {
+		Farmer owner = persist(farmer("9000000001"));
+		Farmer acceptingOwner = persist(farmer("9000000002"));
+		Farmer renter = persist(farmer("9000000003"));
+		Equipment equipment = persist(equipment(owner, "Tractor"));
+		LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+		Booking confirmed = create(equipment, renter, 100.0, createdAt);
+		Booking cancelled = create(equipment, renter, 50.0, createdAt);
+		Booking removed = create(equipment, renter, 25.0, createdAt);
+		create(equipment, renter, 10.0, createdAt);
+
+		BookingRollupService.Snapshot before = BookingRollupService.Snapshot.of(confirmed);
+		confirmed.setStatus("CONFIRMED");
+		confirmed.setAcceptedOwner(acceptingOwner);
+		confirmed.setConfirmedAt(createdAt.plusMinutes(30));
+		rollupService.recordChange(before, BookingRollupService.Snapshot.of(confirmed));
+
+		before = BookingRollupService.Snapshot.of(cancelled);
+		cancelled.setStatus("CANCELLED");
+		rollupService.recordChange(before, BookingRollupService.Snapshot.of(cancelled));
+
+		rollupService.bookingRemoved(removed);
+		entityManager.remove(removed);
+		entityManager.flush();
+
+		AnalyticsResponse global = read(() -> analyticsService.getGlobalAnalytics());
+		AnalyticsResponse ownerStats = read(() -> analyticsService.getFarmerAnalytics(owner.getId()));
+		AnalyticsResponse acceptingStats = read(() -> analyticsService.getFarmerAnalytics(acceptingOwner.getId()));
+
+		assertThat(global.getTotalBookings()).isEqualTo(3);
+		assertThat(global.getConfirmedBookings()).isEqualTo(1);
+		assertThat(global.getPendingBookings()).isEqualTo(1);
+		assertThat(global.getCancelledBookings()).isEqualTo(1);
+		assertThat(global.getTotalRevenue()).isEqualByComparingTo(BigDecimal.valueOf(160));
+		assertThat(global.getConfirmedRevenue()).isEqualByComparingTo(BigDecimal.valueOf(100));
+		assertThat(global.getAverageConfirmationTimeMinutes()).isEqualTo(30.0);
+		assertThat(ownerStats.getTotalBookings()).isEqualTo(3);
+		assertThat(acceptingStats.getTotalBookings()).isEqualTo(1);
+		assertThat(acceptingStats.getConfirmedBookings()).isEqualTo(1);
+
+		rollupService.reconcile();
+
+		assertThat(read(() -> analyticsService.getGlobalAnalytics())).usingRecursiveComparison().isEqualTo(global);
+		assertThat(read(() -> analyticsService.getFarmerAnalytics(owner.getId())))
+				.usingRecursiveComparison().isEqualTo(ownerStats);
+		assertThat(read(() -> analyticsService.getFarmerAnalytics(acceptingOwner.getId())))
+				.usingRecursiveComparison().isEqualTo(acceptingStats);
+	}
+
+	@Test
+	void globalStripesAreSummedAndFoldedBackByReconcile() {
+		Farmer owner = persist(farmer("9000000001"));
+		Farmer renter = persist(farmer("9000000002"));
+		Equipment equipment = persist(equipment(owner, "Tractor"));
+		LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+		for (double cost : new double[] {10.0, 20.0, 30.0}) {
+			Booking booking = booking(equipment, renter, "PENDING", createdAt);
+			booking.setTotalCost(cost);
+			persist(booking);
+		}
+		// As if the three bookings had been written by request threads landing on different stripes
+		rollupRepository.addDelta(0L, 1, 0, 1, 0, BigDecimal.valueOf(10), BigDecimal.ZERO, 0, 0);
+		rollupRepository.addDelta(-3L, 1, 0, 1, 0, BigDecimal.valueOf(20), BigDecimal.ZERO, 0, 0);
+		rollupRepository.addDelta(-15L, 1, 0, 1, 0, BigDecimal.valueOf(30), BigDecimal.ZERO, 0, 0);
+
+		AnalyticsResponse global = read(() -> analyticsService.getGlobalAnalytics());
+
+		assertThat(global.getTotalBookings()).isEqualTo(3);
+		assertThat(global.getPendingBookings()).isEqualTo(3);
+		assertThat(global.getTotalRevenue()).isEqualByComparingTo(BigDecimal.valueOf(60));
+
+		rollupService.reconcile();
+
+		assertThat(read(() -> analyticsService.getGlobalAnalytics())).usingRecursiveComparison().isEqualTo(global);
+		assertThat(rollupRepository.findByFarmerIdLessThanEqual(0L)).hasSize(1);
+	}
+
+	@Test
+	void farmerWithoutBookingsReadsAsZero() {
+		AnalyticsResponse response = analyticsService.getFarmerAnalytics(12345L);
+
+		assertThat(response.getTotalBookings()).isZero();
+		assertThat(response.getTotalRevenue()).isEqualByComparingTo(BigDecimal.ZERO);
+		assertThat(response.getAverageConfirmationTimeMinutes()).isNull();
+	}
+
+	// Rollup rows are written with native SQL, so read them through a fresh persistence context
+	private AnalyticsResponse read(Supplier<AnalyticsResponse> query) {
+		entityManager.flush();
+		entityManager.clear();
+		return query.get();
+	}
+
+	private Booking create(Equipment equipment, Farmer renter, double cost, LocalDateTime createdAt) {
+		Booking booking = booking(equipment, renter, "PENDING", createdAt);
+		booking.setTotalCost(cost);
+		persist(booking);
+		rollupService.bookingCreated(booking);
+		return booking;
+	}
+
+	private <T> T persist(T entity) {
+		entityManager.persist(entity);
+		return entity;
+	}
+}
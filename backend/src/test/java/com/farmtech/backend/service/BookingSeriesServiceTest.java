@@ -0,0 +1,110 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.dto.AnalyticsSeriesPoint;
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.Granularity;
+import com.farmtech.backend.entity.BookingAnalyticsBucket.ScopeType;
+import com.farmtech.backend.entity.Equipment;
+import com.farmtech.backend.entity.Farmer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.farmtech.backend.TestEntities.booking;
+import static com.farmtech.backend.TestEntities.equipment;
+import static com.farmtech.backend.TestEntities.farmer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({BookingRollupService.class, BookingSeriesService.class})
+class BookingSeriesServiceTest {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private BookingRollupService rollupService;
+
+	@Autowired
+	private BookingSeriesService seriesService;
+
+	@Test
+	void bookingChangesLandInTheirBucketsAndMatchARebuild() {
+		Farmer owner = persist(farmer("9000000001"));
+		Farmer renter = persist(farmer("9000000002"));
+		Equipment tractor = persist(equipment(owner, "Tractor"));
+		Equipment harvester = persist(equipment(owner, "Harvester"));
+
+		// 2024-01-01 is a Monday
+		Booking monday = create(tractor, renter, 100.0, LocalDateTime.of(2024, 1, 1, 9, 0));
+		create(harvester, renter, 40.0, LocalDateTime.of(2024, 1, 3, 9, 0));
+		create(tractor, renter, 70.0, LocalDateTime.of(2024, 2, 10, 9, 0));
+
+		BookingRollupService.Snapshot before = BookingRollupService.Snapshot.of(monday);
+		monday.setStatus("CONFIRMED");
+		monday.setConfirmedAt(monday.getCreatedAt().plusMinutes(45));
+		rollupService.recordChange(before, BookingRollupService.Snapshot.of(monday));
+		flushAndClear();
+
+		List<AnalyticsSeriesPoint> weekly = seriesService.series(Granularity.WEEK, ScopeType.GLOBAL, null,
+				LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 14));
+		assertThat(weekly).extracting(AnalyticsSeriesPoint::bucketStart)
+				.containsExactly(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 8));
+		assertThat(weekly.get(0).bookings()).isEqualTo(2);
+		assertThat(weekly.get(0).confirmedBookings()).isEqualTo(1);
+		assertThat(weekly.get(0).revenue()).isEqualByComparingTo(BigDecimal.valueOf(140));
+		assertThat(weekly.get(0).averageConfirmationTimeMinutes()).isEqualTo(45.0);
+		assertThat(weekly.get(1).bookings()).isZero();
+
+		List<AnalyticsSeriesPoint> tractorMonthly = seriesService.series(Granularity.MONTH, ScopeType.EQUIPMENT_TYPE,
+				"Tractor", LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 15));
+		assertThat(tractorMonthly).extracting(AnalyticsSeriesPoint::bookings).containsExactly(1L, 1L);
+
+		List<AnalyticsSeriesPoint> ownerDaily = seriesService.series(Granularity.DAY, ScopeType.FARMER,
+				owner.getId().toString(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3));
+		assertThat(ownerDaily).extracting(AnalyticsSeriesPoint::bookings).containsExactly(1L, 0L, 1L);
+
+		seriesService.rebuild();
+		flushAndClear();
+
+		assertThat(seriesService.series(Granularity.WEEK, ScopeType.GLOBAL, null,
+				LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 14))).isEqualTo(weekly);
+		assertThat(seriesService.series(Granularity.MONTH, ScopeType.EQUIPMENT_TYPE, "Tractor",
+				LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 15))).isEqualTo(tractorMonthly);
+	}
+
+	@Test
+	void oversizedRangesAreRejected() {
+		assertThatThrownBy(() -> seriesService.series(Granularity.DAY, ScopeType.GLOBAL, null,
+				LocalDate.of(2000, 1, 1), LocalDate.of(2024, 1, 1)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private void flushAndClear() {
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private Booking create(Equipment equipment, Farmer renter, double cost, LocalDateTime createdAt) {
+		Booking booking = booking(equipment, renter, "PENDING", createdAt);
+		booking.setTotalCost(cost);
+		persist(booking);
+		rollupService.bookingCreated(booking);
+		return booking;
+	}
+
+	private <T> T persist(T entity) {
+		entityManager.persist(entity);
+		return entity;
+	}
+}
@@ -0,0 +1,129 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Equipment;
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.repository.BookingCandidateRepository;
+import com.farmtech.backend.repository.BookingRepository;
+import com.farmtech.backend.repository.EquipmentRepository;
+import com.farmtech.backend.repository.FarmerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.farmtech.backend.TestEntities.booking;
+import static com.farmtech.backend.TestEntities.equipment;
+import static com.farmtech.backend.TestEntities.farmer;
+import static com.farmtech.backend.TestEntities.invitation;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({CandidateDispatchService.class, BookingEventHub.class, BookingRollupService.class, BookingSeriesService.class,
+		BookingMetrics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CandidateDispatchServiceConcurrencyTest {
+
+	private static final int OWNERS = 200;
+
+	@Autowired
+	private CandidateDispatchService candidateDispatchService;
+
+	@Autowired
+	private FarmerRepository farmerRepository;
+
+	@Autowired
+	private EquipmentRepository equipmentRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private BookingCandidateRepository candidateRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void parallelAcceptsProduceExactlyOneWinner() throws Exception {
+		Farmer renter = farmerRepository.save(farmer("8000000000"));
+		List<Farmer> owners = new ArrayList<>();
+		for (int i = 0; i < OWNERS; i++) {
+			owners.add(farmer(String.valueOf(9000000000L + i)));
+		}
+		owners = farmerRepository.saveAll(owners);
+		Booking booking = awaitingOwner(owners.get(0), renter);
+
+		LocalDateTime invitedAt = LocalDateTime.now();
+		List<BookingCandidate> candidates = new ArrayList<>();
+		for (Farmer owner : owners) {
+			candidates.add(invitation(booking, owner, invitedAt));
+		}
+		candidateRepository.saveAll(candidates);
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger winners = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		for (Farmer owner : owners) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					candidateDispatchService.acceptBooking(booking.getId(), owner.getId());
+					winners.incrementAndGet();
+				} catch (IllegalStateException e) {
+					conflicts.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+
+		assertThat(winners.get()).isEqualTo(1);
+		assertThat(conflicts.get()).isEqualTo(OWNERS - 1);
+
+		Booking confirmed = bookingRepository.findById(booking.getId()).orElseThrow();
+		assertThat(confirmed.getStatus()).isEqualTo("CONFIRMED");
+		assertThat(confirmed.getAcceptedOwner()).isNotNull();
+		assertThat(confirmed.getVersion()).isEqualTo(booking.getVersion() + 1);
+
+		List<BookingCandidate> after = candidateRepository.findByBookingId(booking.getId());
+		assertThat(after).filteredOn(c -> c.getStatus() == CandidateStatus.ACCEPTED)
+				.singleElement()
+				.extracting(c -> c.getOwner().getId())
+				.isEqualTo(confirmed.getAcceptedOwner().getId());
+		assertThat(after).filteredOn(c -> c.getStatus() == CandidateStatus.EXPIRED).hasSize(OWNERS - 1);
+
+		assertThat(meterRegistry.get("booking.candidates.accepted").counter().count()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("booking.candidates.expired").counter().count()).isEqualTo(OWNERS - 1.0);
+		assertThat(meterRegistry.get("booking.time.to.accept").timer().count()).isEqualTo(1L);
+	}
+
+	private Booking awaitingOwner(Farmer owner, Farmer renter) {
+		Equipment equipment = equipmentRepository.save(equipment(owner, "Tractor"));
+		return bookingRepository.save(booking(equipment, renter, "AWAITING_OWNER", LocalDateTime.now()));
+	}
+}
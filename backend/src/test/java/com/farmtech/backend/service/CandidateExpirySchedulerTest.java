@@ -0,0 +1,154 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Booking;
+import com.farmtech.backend.entity.BookingCandidate;
+import com.farmtech.backend.entity.BookingCandidate.CandidateStatus;
+import com.farmtech.backend.entity.Equipment;
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.repository.BookingCandidateRepository;
+import com.farmtech.backend.repository.BookingRepository;
+import com.farmtech.backend.repository.EquipmentRepository;
+import com.farmtech.backend.repository.FarmerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.farmtech.backend.TestEntities.booking;
+import static com.farmtech.backend.TestEntities.equipment;
+import static com.farmtech.backend.TestEntities.farmer;
+import static com.farmtech.backend.TestEntities.invitation;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "booking.candidates.invitation-ttl-seconds=60")
+@ActiveProfiles("h2")
+@Import({CandidateExpiryScheduler.class, CandidateDispatchService.class, BookingEventHub.class, BookingRollupService.class,
+		BookingSeriesService.class, BookingMetrics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CandidateExpirySchedulerTest {
+
+	@Autowired
+	private CandidateExpiryScheduler scheduler;
+
+	@Autowired
+	private CandidateDispatchService candidateDispatchService;
+
+	@Autowired
+	private FarmerRepository farmerRepository;
+
+	@Autowired
+	private EquipmentRepository equipmentRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private BookingCandidateRepository candidateRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void unansweredBookingsTimeOutAfterTheWheelIsRebuilt() {
+		Farmer renter = farmerRepository.save(farmer("8100000000"));
+		List<Farmer> owners = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			owners.add(farmer(String.valueOf(9100000000L + i)));
+		}
+		owners = farmerRepository.saveAll(owners);
+
+		LocalDateTime now = LocalDateTime.now();
+		Booking stale = awaitingOwner(owners.get(0), renter);
+		invite(stale, owners, now.minusMinutes(5));
+		Booking fresh = awaitingOwner(owners.get(0), renter);
+		invite(fresh, owners, now);
+
+		scheduler.rebuild();
+		assertThat(scheduler.tracked()).isEqualTo(2);
+		scheduler.expireDue(System.currentTimeMillis() + 1000);
+
+		assertThat(bookingRepository.findById(stale.getId()).orElseThrow().getStatus()).isEqualTo("PENDING_NO_CANDIDATES");
+		assertThat(candidateRepository.findByBookingId(stale.getId()))
+				.allSatisfy(candidate -> {
+					assertThat(candidate.getStatus()).isEqualTo(CandidateStatus.SKIPPED_TIMEOUT);
+					assertThat(candidate.getExpiredAt()).isNotNull();
+				});
+
+		assertThat(bookingRepository.findById(fresh.getId()).orElseThrow().getStatus()).isEqualTo("AWAITING_OWNER");
+		assertThat(candidateRepository.findByBookingId(fresh.getId()))
+				.extracting(BookingCandidate::getStatus)
+				.containsOnly(CandidateStatus.NOTIFIED);
+		assertThat(scheduler.tracked()).isEqualTo(1);
+		assertThat(meterRegistry.get("booking.candidates.timed.out").counter().count()).isEqualTo(3.0);
+	}
+
+	@Test
+	void ownerCannotAcceptAfterTheirInvitationTimedOut() {
+		Farmer renter = farmerRepository.save(farmer("8200000000"));
+		Farmer late = farmerRepository.save(farmer("9200000000"));
+		Farmer prompt = farmerRepository.save(farmer("9200000001"));
+
+		LocalDateTime now = LocalDateTime.now();
+		Booking booking = awaitingOwner(late, renter);
+		invite(booking, List.of(late), now.minusMinutes(5));
+		invite(booking, List.of(prompt), now);
+
+		candidateDispatchService.expireTimedOut(List.of(booking.getId()), now.minusSeconds(60), now);
+
+		assertThatThrownBy(() -> candidateDispatchService.acceptBooking(booking.getId(), late.getId()))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("no longer open");
+		Booking unclaimed = bookingRepository.findById(booking.getId()).orElseThrow();
+		assertThat(unclaimed.getAcceptedOwner()).isNull();
+		assertThat(unclaimed.getStatus()).isEqualTo("AWAITING_OWNER");
+		assertThat(candidateRepository.findByBookingId(booking.getId()))
+				.filteredOn(candidate -> candidate.getOwner().getId().equals(late.getId()))
+				.singleElement()
+				.extracting(BookingCandidate::getStatus)
+				.isEqualTo(CandidateStatus.SKIPPED_TIMEOUT);
+
+		// The owner whose invitation is still open can take it
+		assertThat(candidateDispatchService.acceptBooking(booking.getId(), prompt.getId()).getStatus()).isEqualTo("CONFIRMED");
+	}
+
+	@Test
+	void timedOutBookingWithoutCandidatesCannotBeConfirmed() {
+		Farmer renter = farmerRepository.save(farmer("8300000000"));
+		Farmer owner = farmerRepository.save(farmer("9300000000"));
+		Booking booking = awaitingOwner(owner, renter);
+		LocalDateTime now = LocalDateTime.now();
+		invite(booking, List.of(owner), now.minusMinutes(5));
+
+		candidateDispatchService.expireTimedOut(List.of(booking.getId()), now.minusSeconds(60), now);
+
+		assertThatThrownBy(() -> candidateDispatchService.acceptBooking(booking.getId(), owner.getId()))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus()).isEqualTo("PENDING_NO_CANDIDATES");
+		assertThat(candidateRepository.findByBookingId(booking.getId()))
+				.extracting(BookingCandidate::getStatus)
+				.containsOnly(CandidateStatus.SKIPPED_TIMEOUT);
+	}
+
+	private void invite(Booking booking, List<Farmer> owners, LocalDateTime invitedAt) {
+		List<BookingCandidate> candidates = new ArrayList<>();
+		for (Farmer owner : owners) {
+			candidates.add(invitation(booking, owner, invitedAt));
+		}
+		candidateRepository.saveAll(candidates);
+	}
+
+	private Booking awaitingOwner(Farmer owner, Farmer renter) {
+		Equipment equipment = equipmentRepository.save(equipment(owner, "Tractor"));
+		return bookingRepository.save(booking(equipment, renter, "AWAITING_OWNER", LocalDateTime.now()));
+	}
+}
@@ -0,0 +1,51 @@
+package com.farmtech.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DistanceServiceTest {
+
+	private final DistanceService distanceService = new DistanceService();
+
+	@Test
+	void batchDistancesMatchThePerPointHaversine() {
+		Random random = new Random(42);
+		int count = 10_000;
+		double[] lats = new double[count];
+		double[] lons = new double[count];
+		double[] latsRad = new double[count];
+		double[] lonsRad = new double[count];
+		double[] cosLats = new double[count];
+		for (int i = 0; i < count; i++) {
+			// Half of the points within ~1 degree (equirectangular path), half anywhere in India
+			boolean near = i % 2 == 0;
+			lats[i] = near ? 19.0 + random.nextDouble() - 0.5 : 8.0 + random.nextDouble() * 29.0;
+			lons[i] = near ? 73.0 + random.nextDouble() - 0.5 : 68.0 + random.nextDouble() * 29.0;
+			latsRad[i] = Math.toRadians(lats[i]);
+			lonsRad[i] = Math.toRadians(lons[i]);
+			cosLats[i] = Math.cos(latsRad[i]);
+		}
+
+		double[] distances = new double[count];
+		distanceService.distancesInKm(Math.toRadians(19.0), Math.toRadians(73.0), latsRad, lonsRad, cosLats, count, distances);
+
+		for (int i = 0; i < count; i++) {
+			double expected = distanceService.distanceInKm(19.0, 73.0, lats[i], lons[i]);
+			assertThat(distances[i]).isCloseTo(expected, within(Math.max(expected * 1e-4, 1e-6)));
+		}
+	}
+
+	@Test
+	void batchDistancesWrapAroundTheAntimeridian() {
+		double lat = Math.toRadians(10.0);
+		double[] distances = new double[1];
+		distanceService.distancesInKm(lat, Math.toRadians(179.9), new double[]{lat}, new double[]{Math.toRadians(-179.9)},
+				new double[]{Math.cos(lat)}, 1, distances);
+
+		assertThat(distances[0]).isCloseTo(distanceService.distanceInKm(10.0, 179.9, 10.0, -179.9), within(0.01));
+	}
+}
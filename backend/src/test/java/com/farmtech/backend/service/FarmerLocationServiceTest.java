@@ -0,0 +1,84 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.repository.FarmerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FarmerLocationServiceTest {
+
+	private final GeocodingService geocodingService = mock(GeocodingService.class);
+	private final FarmerRepository farmerRepository = mock(FarmerRepository.class);
+	private final OwnerLocationIndex ownerLocationIndex = mock(OwnerLocationIndex.class);
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	private final FarmerLocationService service;
+
+	FarmerLocationServiceTest() {
+		executor.setThreadNamePrefix("geocode-test-");
+		executor.initialize();
+		service = new FarmerLocationService(geocodingService, farmerRepository, ownerLocationIndex, executor);
+	}
+
+	@AfterEach
+	void stop() {
+		executor.shutdown();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void geocodesOffTheCallingThreadAfterCommitAndReindexes() throws InterruptedException {
+		CountDownLatch slowGeocoder = new CountDownLatch(1);
+		AtomicReference<Thread> geocodedOn = new AtomicReference<>();
+		when(geocodingService.geocodeLocation("Sinnar", "422103", null)).thenAnswer(invocation -> {
+			geocodedOn.set(Thread.currentThread());
+			slowGeocoder.await(10, TimeUnit.SECONDS);
+			return Optional.of(new GeocodingService.Coordinates(19.85, 74.0));
+		});
+		when(farmerRepository.setLocationIfUnset(7L, 19.85, 74.0)).thenReturn(1);
+		Farmer located = new Farmer();
+		located.setId(7L);
+		when(farmerRepository.findById(7L)).thenReturn(Optional.of(located));
+
+		TransactionSynchronizationManager.initSynchronization();
+		service.locateAfterCommit(7L, "Sinnar", "422103", null);
+		Thread.sleep(50);
+		verify(geocodingService, never()).geocodeLocation(any(), any(), any());
+
+		// The caller returns while the geocoder is still busy
+		TransactionSynchronizationUtils.triggerAfterCommit();
+		slowGeocoder.countDown();
+
+		verify(ownerLocationIndex, timeout(5000)).refresh(located);
+		assertThat(geocodedOn.get().getName()).startsWith("geocode-test-");
+	}
+
+	@Test
+	void coordinatesSetFromTheProfileMeanwhileAreKept() {
+		when(geocodingService.geocodeLocation("Sinnar", null, null))
+				.thenReturn(Optional.of(new GeocodingService.Coordinates(19.85, 74.0)));
+		when(farmerRepository.setLocationIfUnset(7L, 19.85, 74.0)).thenReturn(0);
+
+		service.locate(7L, "Sinnar", null, null);
+
+		verify(farmerRepository, never()).findById(7L);
+		verify(ownerLocationIndex, never()).refresh(any());
+	}
+}
@@ -0,0 +1,140 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.repository.GeocodeCacheRepository;
+import com.farmtech.backend.service.GeocodingService.Coordinates;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({GeocodingService.class, OfflineGeocoder.class, GeocodingServiceTest.StubGeocoder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GeocodingServiceTest {
+
+	private static final Coordinates NASHIK = new Coordinates(19.9975, 73.7898);
+
+	@Autowired
+	private GeocodingService geocodingService;
+
+	@Autowired
+	private GeocodeCacheRepository cacheRepository;
+
+	@Autowired
+	private OfflineGeocoder offlineGeocoder;
+
+	@Autowired
+	private StubGeocoder geocoder;
+
+	@Test
+	void spellingVariantsShareOneLookup() {
+		geocoder.known.put("12 Main Road, Nashik", NASHIK);
+
+		assertThat(geocodingService.geocodeAddress("12 Main Road, Nashik")).contains(NASHIK);
+		assertThat(geocodingService.geocodeAddress("  12 main road   NASHIK.")).contains(NASHIK);
+
+		assertThat(geocoder.calls("12 Main Road, Nashik")).isEqualTo(1);
+	}
+
+	@Test
+	void unresolvableAddressesAreCachedAsNegative() {
+		assertThat(geocodingService.geocodeAddress("Nowhere Village")).isEmpty();
+		assertThat(geocodingService.geocodeAddress("Nowhere Village")).isEmpty();
+
+		assertThat(geocoder.calls("Nowhere Village")).isEqualTo(1);
+		assertThat(cacheRepository.findById("nowhere village")).hasValueSatisfying(
+				entry -> assertThat(entry.isNegative()).isTrue());
+	}
+
+	@Test
+	void failedLookupsAreRetried() {
+		geocoder.known.put("Flaky Road", NASHIK);
+		geocoder.failures.put("Flaky Road", new AtomicInteger(1));
+
+		assertThat(geocodingService.geocodeAddress("Flaky Road")).isEmpty();
+		assertThat(geocodingService.geocodeAddress("Flaky Road")).contains(NASHIK);
+
+		assertThat(geocoder.calls("Flaky Road")).isEqualTo(2);
+	}
+
+	@Test
+	void persistentTierServesAFreshInstance() {
+		geocoder.known.put("Persisted Lane", NASHIK);
+		geocodingService.geocodeAddress("Persisted Lane");
+
+		GeocodingService restarted = new GeocodingService(geocoder, offlineGeocoder, cacheRepository, 100, 90, 24);
+
+		assertThat(restarted.geocodeAddress("Persisted Lane")).contains(NASHIK);
+		assertThat(geocoder.calls("Persisted Lane")).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentLookupsOfOneAddressMakeASingleCall() throws Exception {
+		geocoder.known.put("Busy Market", NASHIK);
+		geocoder.gate = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		List<Future<Optional<Coordinates>>> futures = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			futures.add(pool.submit(() -> geocodingService.geocodeAddress("Busy Market")));
+		}
+		// Hold the first lookup open long enough for the others to queue behind it
+		Thread.sleep(200);
+		geocoder.gate.countDown();
+		for (Future<Optional<Coordinates>> future : futures) {
+			assertThat(future.get(10, TimeUnit.SECONDS)).contains(NASHIK);
+		}
+		pool.shutdown();
+
+		assertThat(geocoder.calls("Busy Market")).isEqualTo(1);
+	}
+
+	static class StubGeocoder implements Geocoder {
+
+		final Map<String, Coordinates> known = new ConcurrentHashMap<>();
+		final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+		private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+		volatile CountDownLatch gate;
+
+		@Override
+		public Optional<Coordinates> geocode(String address) {
+			calls.computeIfAbsent(address, a -> new AtomicInteger()).incrementAndGet();
+			CountDownLatch currentGate = gate;
+			if (currentGate != null) {
+				try {
+					currentGate.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			AtomicInteger remainingFailures = failures.get(address);
+			if (remainingFailures != null && remainingFailures.getAndDecrement() > 0) {
+				throw new IllegalStateException("simulated outage");
+			}
+			return Optional.ofNullable(known.get(address));
+		}
+
+		int calls(String address) {
+			AtomicInteger count = calls.get(address);
+			return count == null ? 0 : count.get();
+		}
+	}
+}
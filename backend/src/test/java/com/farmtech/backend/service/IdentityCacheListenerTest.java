@@ -0,0 +1,81 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.entity.User;
+import com.farmtech.backend.repository.FarmerRepository;
+import com.farmtech.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdentityCacheListenerTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final FarmerRepository farmerRepository = mock(FarmerRepository.class);
+	private final IdentityResolver resolver = new IdentityResolver(userRepository, farmerRepository, 100);
+	private final IdentityCacheListener listener = new IdentityCacheListener(provider(resolver));
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void lookupDuringAnUncommittedPhoneChangeIsDroppedOnCommit() throws Exception {
+		User user = new User();
+		user.setId(1L);
+		user.setPhone("9000000001");
+		when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+		when(farmerRepository.findByPhone("9000000001")).thenReturn(Optional.of(farmer(10L, "9000000001")));
+		assertThat(resolver.resolveFarmerId(1L)).contains(10L);
+
+		// The farmer's phone changes inside a transaction that has flushed but not committed
+		TransactionSynchronizationManager.initSynchronization();
+		listener.onWrite(farmer(10L, "9000000011"));
+
+		// Another request still reads the committed row and caches the old link again
+		assertThat(CompletableFuture.supplyAsync(() -> resolver.resolveFarmerId(1L)).get()).contains(10L);
+
+		when(farmerRepository.findByPhone("9000000001")).thenReturn(Optional.empty());
+		TransactionSynchronizationUtils.triggerAfterCommit();
+
+		assertThat(resolver.resolveFarmerId(1L)).isEmpty();
+		assertThat(resolver.farmerIdForPhone("9000000001")).isEmpty();
+	}
+
+	@Test
+	void writesOutsideATransactionInvalidateImmediately() {
+		when(farmerRepository.findByPhone("9000000002")).thenReturn(Optional.empty());
+		assertThat(resolver.farmerIdForPhone("9000000002")).isEmpty();
+
+		when(farmerRepository.findByPhone("9000000002")).thenReturn(Optional.of(farmer(20L, "9000000002")));
+		listener.onWrite(farmer(20L, "9000000002"));
+
+		assertThat(resolver.farmerIdForPhone("9000000002")).contains(20L);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ObjectProvider<IdentityResolver> provider(IdentityResolver resolver) {
+		ObjectProvider<IdentityResolver> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(resolver);
+		return provider;
+	}
+
+	private static Farmer farmer(Long id, String phone) {
+		Farmer farmer = new Farmer();
+		farmer.setId(id);
+		farmer.setPhone(phone);
+		return farmer;
+	}
+}
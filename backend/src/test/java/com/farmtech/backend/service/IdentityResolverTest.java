@@ -0,0 +1,89 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Farmer;
+import com.farmtech.backend.entity.User;
+import com.farmtech.backend.repository.FarmerRepository;
+import com.farmtech.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdentityResolverTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final FarmerRepository farmerRepository = mock(FarmerRepository.class);
+	private final IdentityResolver resolver = new IdentityResolver(userRepository, farmerRepository, 100);
+
+	@Test
+	void farmerPhoneChangeDropsOnlyEntriesLinkedToThatFarmer() {
+		user(1L, "9000000001");
+		user(2L, "9000000002");
+		when(farmerRepository.findByPhone("9000000001")).thenReturn(Optional.of(farmer(10L, "9000000001")));
+		when(farmerRepository.findByPhone("9000000002")).thenReturn(Optional.of(farmer(20L, "9000000002")));
+		assertThat(resolver.resolveFarmerId(1L)).contains(10L);
+		assertThat(resolver.resolveFarmerId(2L)).contains(20L);
+
+		when(farmerRepository.findByPhone("9000000001")).thenReturn(Optional.empty());
+		resolver.farmerChanged(farmer(10L, "9000000011"));
+
+		assertThat(resolver.resolveFarmerId(1L)).isEmpty();
+		assertThat(resolver.resolveFarmerId(2L)).contains(20L);
+		verify(userRepository, times(2)).findById(1L);
+		verify(userRepository, times(1)).findById(2L);
+	}
+
+	@Test
+	void newFarmerSatisfiesUsersCachedWithoutOneForItsPhone() {
+		user(1L, "9000000001");
+		user(2L, "9000000002");
+		when(farmerRepository.findByPhone(anyString())).thenReturn(Optional.empty());
+		assertThat(resolver.resolveFarmerId(1L)).isEmpty();
+		assertThat(resolver.resolveFarmerId(2L)).isEmpty();
+
+		when(farmerRepository.findByPhone("9000000001")).thenReturn(Optional.of(farmer(10L, "9000000001")));
+		resolver.farmerChanged(farmer(10L, "9000000001"));
+
+		assertThat(resolver.resolveFarmerId(1L)).contains(10L);
+		assertThat(resolver.farmerIdForPhone("9000000001")).contains(10L);
+		// A user with another phone is still answered from the cache
+		assertThat(resolver.resolveFarmerId(2L)).isEmpty();
+		verify(userRepository, times(1)).findById(2L);
+	}
+
+	@Test
+	void evictedEntriesLeaveNothingBehindToInvalidate() {
+		IdentityResolver small = new IdentityResolver(userRepository, farmerRepository, 2);
+		when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+		for (long id = 1; id <= 5; id++) {
+			assertThat(small.resolveFarmerId(id)).contains(id);
+		}
+		small.farmerChanged(farmer(1L, null));
+		small.farmerChanged(farmer(5L, null));
+
+		assertThat(small.stats()).containsEntry("userIdEntries", 1);
+		assertThat(small.resolveFarmerId(4L)).contains(4L);
+		verify(userRepository, times(1)).findById(4L);
+	}
+
+	private void user(Long id, String phone) {
+		User user = new User();
+		user.setId(id);
+		user.setPhone(phone);
+		when(userRepository.findById(id)).thenReturn(Optional.of(user));
+	}
+
+	private static Farmer farmer(Long id, String phone) {
+		Farmer farmer = new Farmer();
+		farmer.setId(id);
+		farmer.setPhone(phone);
+		return farmer;
+	}
+}
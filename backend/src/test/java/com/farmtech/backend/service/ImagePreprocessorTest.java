@@ -0,0 +1,234 @@
+package com.farmtech.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImagePreprocessorTest {
+
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	private final ImagePreprocessor preprocessor;
+
+	ImagePreprocessorTest() {
+		executor.initialize();
+		preprocessor = new ImagePreprocessor(executor, 256, 0.9f, 20_000_000L, 10_000L);
+	}
+
+	@AfterEach
+	void stop() {
+		executor.shutdown();
+	}
+
+	@Test
+	void cameraPhotoIsDownscaledToTheModelSizeWithoutExif() throws IOException {
+		byte[] photo = withExif(jpeg(4000, 3000));
+
+		byte[] prepared = preprocessor.preprocess(new ByteArrayResource(photo)).orElseThrow().jpeg();
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(prepared));
+		assertThat(image.getHeight()).isEqualTo(256);
+		assertThat(image.getWidth()).isEqualTo(341);
+		assertThat(prepared.length).isLessThan(photo.length / 4);
+		assertThat(new String(prepared, StandardCharsets.ISO_8859_1)).doesNotContain("Exif");
+	}
+
+	@Test
+	void smallImagesAreNotUpscaled() throws IOException {
+		byte[] prepared = preprocessor.preprocess(new ByteArrayResource(jpeg(200, 120))).orElseThrow().jpeg();
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(prepared));
+		assertThat(image.getWidth()).isEqualTo(200);
+		assertThat(image.getHeight()).isEqualTo(120);
+	}
+
+	@Test
+	void unknownFormatsAreLeftAlone() {
+		Optional<ImagePreprocessor.PreparedImage> prepared = preprocessor.preprocess(new ByteArrayResource("not an image".getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(prepared).isEmpty();
+	}
+
+	@Test
+	void slowImagesAreForwardedAsTheyAre() {
+		ImagePreprocessor impatient = new ImagePreprocessor(executor, 256, 0.9f, 20_000_000L, 100L);
+		CountDownLatch release = new CountDownLatch(1);
+		InputStreamSource stalled = () -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new ByteArrayInputStream(jpeg(200, 120));
+		};
+
+		try {
+			assertThat(impatient.preprocess(stalled)).isEmpty();
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void oversizedImagesAreRejectedBeforeDecoding() {
+		ImagePreprocessor strict = new ImagePreprocessor(executor, 256, 0.9f, 1_000_000L, 10_000L);
+
+		assertThatThrownBy(() -> strict.preprocess(new ByteArrayResource(jpeg(2000, 1000))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void reuploadsOfAPhotoHashAlikeAndOtherPhotosDoNot() throws IOException {
+		long original = preprocessor.preprocess(new ByteArrayResource(leaf(4000, 3000, 1, 0.9f))).orElseThrow().dHash();
+		long recompressed = preprocessor.preprocess(new ByteArrayResource(leaf(1600, 1200, 1, 0.5f))).orElseThrow().dHash();
+		long otherLeaf = preprocessor.preprocess(new ByteArrayResource(leaf(4000, 3000, 2, 0.9f))).orElseThrow().dHash();
+
+		assertThat(Long.bitCount(original ^ recompressed)).isLessThanOrEqualTo(4);
+		assertThat(Long.bitCount(original ^ otherLeaf)).isGreaterThan(10);
+	}
+
+	@Test
+	void portraitPhotosStoredSidewaysComeOutUpright() throws IOException {
+		BufferedImage upright = leafImage(600, 800, 3);
+		// What the phone sensor stored: the scene turned a quarter left, tagged "rotate 90 clockwise"
+		BufferedImage sideways = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < 600; y++) {
+			for (int x = 0; x < 800; x++) {
+				sideways.setRGB(x, y, upright.getRGB(599 - y, x));
+			}
+		}
+		byte[] sidewaysJpeg = encode(sideways, 0.9f);
+
+		ImagePreprocessor.PreparedImage tagged = preprocessor.preprocess(
+				new ByteArrayResource(withExif(sidewaysJpeg, orientationExif(6, false)))).orElseThrow();
+		ImagePreprocessor.PreparedImage reference = preprocessor.preprocess(
+				new ByteArrayResource(encode(upright, 0.9f))).orElseThrow();
+		ImagePreprocessor.PreparedImage untagged = preprocessor.preprocess(
+				new ByteArrayResource(sidewaysJpeg)).orElseThrow();
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(tagged.jpeg()));
+		assertThat(image.getWidth()).isEqualTo(256);
+		assertThat(image.getHeight()).isEqualTo(341);
+		assertThat(Long.bitCount(tagged.dHash() ^ reference.dHash())).isLessThanOrEqualTo(4);
+		assertThat(Long.bitCount(untagged.dHash() ^ reference.dHash())).isGreaterThan(10);
+	}
+
+	@Test
+	void everyExifOrientationIsUndone() {
+		BufferedImage stored = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+		stored.setRGB(0, 0, 0xFFFFFF);
+
+		// Where the stored top-left pixel ends up once the image is shown upright
+		int[][] topLeftAt = {{0, 0}, {2, 0}, {2, 1}, {0, 1}, {0, 0}, {1, 0}, {1, 2}, {0, 2}};
+		for (int orientation = 1; orientation <= 8; orientation++) {
+			BufferedImage upright = ImagePreprocessor.orient(stored, orientation);
+			int[] at = topLeftAt[orientation - 1];
+			assertThat(upright.getWidth()).as("orientation %d", orientation).isEqualTo(orientation >= 5 ? 2 : 3);
+			assertThat(upright.getRGB(at[0], at[1]) & 0xFFFFFF).as("orientation %d", orientation).isEqualTo(0xFFFFFF);
+		}
+		assertThat(ImagePreprocessor.exifOrientation(orientationExif(8, true))).isEqualTo(8);
+		assertThat(ImagePreprocessor.exifOrientation(orientationExif(3, false))).isEqualTo(3);
+		assertThat(ImagePreprocessor.exifOrientation("Exif\0\0GPS 12.9716N".getBytes(StandardCharsets.ISO_8859_1))).isZero();
+	}
+
+	// A few lit and shaded blobs placed by the seed, drawn at any size and JPEG quality
+	private static byte[] leaf(int width, int height, long seed, float quality) throws IOException {
+		return encode(leafImage(width, height, seed), quality);
+	}
+
+	private static BufferedImage leafImage(int width, int height, long seed) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(new Color(60, 110, 40));
+		graphics.fillRect(0, 0, width, height);
+		Random random = new Random(seed);
+		for (int i = 0; i < 12; i++) {
+			int shade = random.nextInt(200) + 30;
+			graphics.setColor(new Color(shade / 2, shade, shade / 3));
+			graphics.fillOval((int) (random.nextDouble() * width * 0.8), (int) (random.nextDouble() * height * 0.8),
+					(int) (width * (0.1 + random.nextDouble() * 0.3)), (int) (height * (0.1 + random.nextDouble() * 0.3)));
+		}
+		graphics.dispose();
+		return image;
+	}
+
+	private static byte[] encode(BufferedImage image, float quality) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+			writer.setOutput(output);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(quality);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] jpeg(int width, int height) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, ((x * 7) & 0xFF) << 16 | ((y * 5) & 0xFF) << 8 | ((x ^ y) & 0xFF));
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpeg", out);
+		return out.toByteArray();
+	}
+
+	private static byte[] withExif(byte[] jpeg) {
+		return withExif(jpeg, "Exif\0\0GPS 12.9716N 77.5946E".getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	// EXIF payload with an IFD0 holding just the Orientation tag, in either TIFF byte order
+	private static byte[] orientationExif(int orientation, boolean littleEndian) {
+		ByteBuffer tiff = ByteBuffer.allocate(26).order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+		tiff.put((byte) (littleEndian ? 'I' : 'M')).put((byte) (littleEndian ? 'I' : 'M')).putShort((short) 42).putInt(8);
+		tiff.putShort((short) 1);
+		tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+		tiff.putInt(0);
+		ByteArrayOutputStream exif = new ByteArrayOutputStream();
+		exif.writeBytes("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1));
+		exif.writeBytes(tiff.array());
+		return exif.toByteArray();
+	}
+
+	// Inserts an APP1 (EXIF) segment right after the start-of-image marker, as phone cameras do
+	private static byte[] withExif(byte[] jpeg, byte[] exif) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(jpeg, 0, 2);
+		out.write(0xFF);
+		out.write(0xE1);
+		out.write((exif.length + 2) >> 8);
+		out.write((exif.length + 2) & 0xFF);
+		out.write(exif, 0, exif.length);
+		out.write(jpeg, 2, jpeg.length - 2);
+		return out.toByteArray();
+	}
+}
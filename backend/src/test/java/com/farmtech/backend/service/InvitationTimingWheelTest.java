@@ -0,0 +1,53 @@
+package com.farmtech.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvitationTimingWheelTest {
+
+	@Test
+	void firesEachIdOnceItsDeadlineHasPassed() {
+		InvitationTimingWheel wheel = new InvitationTimingWheel(100, 8, 0);
+		wheel.schedule(1L, 250);
+		wheel.schedule(2L, 500);
+		wheel.schedule(3L, 50);
+
+		assertThat(wheel.advance(200)).containsExactly(3L);
+		assertThat(wheel.advance(300)).containsExactly(1L);
+		assertThat(wheel.advance(400)).isEmpty();
+		assertThat(wheel.advance(500)).containsExactly(2L);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void keepsDeadlinesBeyondOneRevolutionInTheirSlot() {
+		InvitationTimingWheel wheel = new InvitationTimingWheel(100, 4, 0);
+		wheel.schedule(1L, 200);
+		wheel.schedule(2L, 600);  // same slot as 1, one revolution later
+
+		assertThat(wheel.advance(200)).containsExactly(1L);
+		assertThat(wheel.advance(500)).isEmpty();
+		assertThat(wheel.advance(600)).containsExactly(2L);
+	}
+
+	@Test
+	void longPauseVisitsEverySlotOnce() {
+		InvitationTimingWheel wheel = new InvitationTimingWheel(100, 4, 0);
+		for (long id = 1; id <= 1000; id++) {
+			wheel.schedule(id, id * 10);
+		}
+
+		assertThat(wheel.advance(60_000)).hasSize(1000);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextTick() {
+		InvitationTimingWheel wheel = new InvitationTimingWheel(100, 8, 1_000);
+		wheel.schedule(1L, 0);
+
+		assertThat(wheel.advance(1_050)).isEmpty();
+		assertThat(wheel.advance(1_100)).containsExactly(1L);
+	}
+}
@@ -0,0 +1,170 @@
+package com.farmtech.backend.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MlPredictionCacheTest {
+
+	@TempDir
+	Path cacheDir;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MockEnvironment environment = new MockEnvironment()
+			.withProperty("ml.cache.precision.n", "0")
+			.withProperty("ml.cache.precision.ph", "1");
+	private final AtomicInteger calls = new AtomicInteger();
+	private final Queue<String> bodies = new ConcurrentLinkedQueue<>();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private HttpServer server;
+	private MlServiceClient client;
+
+	@BeforeEach
+	void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/crop-recommendation", exchange -> respond(exchange, 200, "{\"crop\":\"rice\"}"));
+		server.createContext("/broken", exchange -> respond(exchange, 500, "boom"));
+		server.createContext("/slow", exchange -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, 200, "{\"crop\":\"maize\"}");
+		});
+		server.start();
+		client = new MlServiceClient("http://127.0.0.1:" + server.getAddress().getPort(), 1000,
+				new MockEnvironment().withProperty("ml.client.circuit.failure-threshold", "100"), meterRegistry);
+	}
+
+	@AfterEach
+	void stop() {
+		release.countDown();
+		server.stop(0);
+	}
+
+	@Test
+	void payloadsThatRoundAlikeShareOneAnswer() {
+		MlPredictionCache cache = cache("");
+
+		ResponseEntity<?> first = cache.predict("/crop-recommendation", payload("n", 90, "ph", 6.43, "region", "Pune"));
+		ResponseEntity<?> second = cache.predict("/crop-recommendation", payload("region", " Pune ", "ph", 6.4, "n", 90.2));
+
+		assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(second.getBody()).isEqualTo("{\"crop\":\"rice\"}");
+		assertThat(calls.get()).isEqualTo(1);
+		// The ML service sees the canonical payload, so the cached answer is exactly its answer
+		assertThat(bodies).containsExactly("{\"n\":90,\"ph\":6.4,\"region\":\"Pune\"}");
+		assertThat(meterRegistry.get("ml.cache.lookups").tag("result", "memory").counter().count()).isEqualTo(1);
+
+		cache.predict("/crop-recommendation", payload("n", 90, "ph", 6.5, "region", "Pune"));
+		assertThat(calls.get()).isEqualTo(2);
+	}
+
+	@Test
+	void concurrentIdenticalRequestsMakeOneCall() throws Exception {
+		MlPredictionCache cache = cache("");
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ResponseEntity<?>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> cache.predict("/slow", payload("n", 40, "ph", 7.0))));
+			}
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<ResponseEntity<?>> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS).getBody()).isEqualTo("{\"crop\":\"maize\"}");
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertThat(calls.get()).isEqualTo(1);
+	}
+
+	@Test
+	void diskTierSurvivesRestart() {
+		cache(cacheDir.toString()).predict("/crop-recommendation", payload("n", 90, "ph", 6.4));
+
+		MlPredictionCache restarted = cache(cacheDir.toString());
+		ResponseEntity<?> response = restarted.predict("/crop-recommendation", payload("n", 90, "ph", 6.4));
+
+		assertThat(response.getBody()).isEqualTo("{\"crop\":\"rice\"}");
+		assertThat(calls.get()).isEqualTo(1);
+		assertThat(meterRegistry.get("ml.cache.lookups").tag("result", "disk").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		MlPredictionCache cache = cache(cacheDir.toString());
+
+		assertThat(cache.predict("/broken", payload("n", 1)).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+		assertThat(cache.predict("/broken", payload("n", 1)).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+		assertThat(calls.get()).isEqualTo(2);
+	}
+
+	@Test
+	void memoryTierStaysWithinItsBound() {
+		MlPredictionCache cache = new MlPredictionCache(client, environment, meterRegistry, 60, 1024, "", 0, 2);
+
+		for (int i = 0; i < 20; i++) {
+			cache.predict("/crop-recommendation", payload("n", i));
+		}
+
+		assertThat(cache.memoryBytes()).isPositive().isLessThanOrEqualTo(1024);
+		// The most recent answer is still cached, the oldest has been evicted
+		cache.predict("/crop-recommendation", payload("n", 19));
+		assertThat(calls.get()).isEqualTo(20);
+		cache.predict("/crop-recommendation", payload("n", 0));
+		assertThat(calls.get()).isEqualTo(21);
+	}
+
+	private MlPredictionCache cache(String diskDir) {
+		return new MlPredictionCache(client, environment, meterRegistry, 60, 1024 * 1024, diskDir, 1024 * 1024, 2);
+	}
+
+	private static Map<String, Object> payload(Object... fields) {
+		Map<String, Object> payload = new LinkedHashMap<>();
+		for (int i = 0; i < fields.length; i += 2) {
+			payload.put((String) fields[i], fields[i + 1]);
+		}
+		return payload;
+	}
+
+	private void respond(HttpExchange exchange, int status, String body) throws IOException {
+		calls.incrementAndGet();
+		bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+		exchange.close();
+	}
+}
@@ -0,0 +1,152 @@
+package com.farmtech.backend.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MlServiceClientTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger calls = new AtomicInteger();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private HttpServer server;
+	private MlServiceClient client;
+
+	@BeforeEach
+	void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/ok", exchange -> respond(exchange, 200, "{\"crop\":\"rice\"}"));
+		server.createContext("/bad-request", exchange -> respond(exchange, 422, "{\"detail\":\"missing N\"}"));
+		server.createContext("/broken", exchange -> respond(exchange, 500, "boom"));
+		// Both answer once released; only /slow has a read timeout short enough to give up first
+		server.createContext("/slow", this::respondWhenReleased);
+		server.createContext("/hold", this::respondWhenReleased);
+		server.start();
+
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("ml.client.max-concurrent", "1")
+				.withProperty("ml.client.circuit.failure-threshold", "2")
+				.withProperty("ml.client.circuit.open-ms", "60000")
+				.withProperty("ml.client.routes.slow.read-timeout-ms", "300");
+		client = new MlServiceClient("http://127.0.0.1:" + server.getAddress().getPort(), 1000, environment, meterRegistry);
+	}
+
+	@AfterEach
+	void stop() {
+		release.countDown();
+		server.stop(0);
+	}
+
+	@Test
+	void relaysStatusAndBody() {
+		ResponseEntity<?> response = client.post("/ok", json());
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isEqualTo("{\"crop\":\"rice\"}");
+
+		// Client errors are the caller's to see, not a reason to open the circuit
+		for (int i = 0; i < 3; i++) {
+			assertThat(client.post("/bad-request", json()).getStatusCode().value()).isEqualTo(422);
+		}
+		assertThat(calls.get()).isEqualTo(4);
+	}
+
+	@Test
+	void fullBulkheadFailsFast() throws Exception {
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<ResponseEntity<?>> first = pool.submit(() -> client.post("/hold", json()));
+		awaitCalls(1);
+
+		long start = System.nanoTime();
+		ResponseEntity<?> rejected = client.post("/hold", json());
+		assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(200);
+
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+		pool.shutdown();
+		assertThat(meterRegistry.get("ml.client.requests").tag("outcome", "rejected").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void slowServiceTimesOutWithGatewayTimeout() {
+		ResponseEntity<?> response = client.post("/slow", json());
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+		assertThat(meterRegistry.get("ml.client.requests").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void repeatedFailuresOpenTheCircuit() {
+		assertThat(client.post("/broken", json()).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+		assertThat(client.post("/broken", json()).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+		ResponseEntity<?> shortCircuited = client.post("/broken", json());
+		assertThat(shortCircuited.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(shortCircuited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+		assertThat(calls.get()).isEqualTo(2);
+		assertThat(meterRegistry.get("ml.client.circuit.state").tag("route", "broken").gauge().value()).isEqualTo(1.0);
+
+		// Other routes keep their own circuit
+		assertThat(client.post("/ok", json()).getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	private static HttpEntity<Map<String, Object>> json() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return new HttpEntity<>(Map.of("N", 90, "P", 42), headers);
+	}
+
+	private void respondWhenReleased(HttpExchange exchange) throws IOException {
+		try {
+			calls.incrementAndGet();
+			release.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		write(exchange, 200, "{}");
+	}
+
+	private void respond(HttpExchange exchange, int status, String body) throws IOException {
+		calls.incrementAndGet();
+		write(exchange, status, body);
+	}
+
+	private static void write(HttpExchange exchange, int status, String body) throws IOException {
+		exchange.getRequestBody().readAllBytes();
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+		exchange.close();
+	}
+
+	private void awaitCalls(int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (calls.get() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.service.GeocodingService.Coordinates;
+import com.farmtech.backend.service.OfflineGeocoder.PincodeCentroid;
+import com.farmtech.backend.service.OfflineGeocoder.VillageCentroid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class OfflineGeocoderTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void resolvesPincodesAndVillagesFromTheMappedFile() throws Exception {
+		Path file = dir.resolve("geocode.bin");
+		OfflineGeocoder.write(file,
+				List.of(new PincodeCentroid(422001, 19.9975, 73.7898),
+						new PincodeCentroid(411001, 18.5204, 73.8567),
+						new PincodeCentroid(413512, 18.4088, 76.5604)),
+				List.of(new VillageCentroid("Shivaji Nagar", 411001, 18.5308, 73.8475),
+						new VillageCentroid("Shivaji Nagar", 413512, 18.4010, 76.5700),
+						new VillageCentroid("Ozar", 422001, 20.0930, 73.9280)));
+
+		OfflineGeocoder geocoder = new OfflineGeocoder(file.toString());
+
+		assertThat(geocoder.isLoaded()).isTrue();
+		assertLocation(geocoder.byPincode("422001").orElseThrow(), 19.9975, 73.7898);
+		assertLocation(geocoder.byPincode(" 411001 ").orElseThrow(), 18.5204, 73.8567);
+		assertThat(geocoder.byPincode("400001")).isEmpty();
+		assertThat(geocoder.byPincode("not a pin")).isEmpty();
+
+		assertLocation(geocoder.byVillage("ozar", null).orElseThrow(), 20.0930, 73.9280);
+		assertLocation(geocoder.byVillage("SHIVAJI-NAGAR", "413512").orElseThrow(), 18.4010, 76.5700);
+		// Two villages share the name and no pincode picks one
+		assertThat(geocoder.byVillage("Shivaji Nagar", null)).isEmpty();
+		assertThat(geocoder.byVillage("Atlantis", "422001")).isEmpty();
+
+		assertLocation(geocoder.fromAddress("Plot 4, MIDC, Nashik - 422001").orElseThrow(), 19.9975, 73.7898);
+		assertThat(geocoder.fromAddress("Phone 9422001234")).isEmpty();
+	}
+
+	@Test
+	void missingOrForeignFilesDisableTheGeocoder() throws Exception {
+		Path garbage = Files.writeString(dir.resolve("garbage.bin"), "not a dataset at all");
+
+		assertThat(new OfflineGeocoder("").isLoaded()).isFalse();
+		assertThat(new OfflineGeocoder(dir.resolve("missing.bin").toString()).isLoaded()).isFalse();
+		assertThat(new OfflineGeocoder(garbage.toString()).byPincode("422001")).isEmpty();
+	}
+
+	private static void assertLocation(Coordinates coordinates, double latitude, double longitude) {
+		assertThat(coordinates.latitude()).isCloseTo(latitude, within(1e-4));
+		assertThat(coordinates.longitude()).isCloseTo(longitude, within(1e-4));
+	}
+}
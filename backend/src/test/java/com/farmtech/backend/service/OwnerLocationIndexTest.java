@@ -0,0 +1,66 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.entity.Farmer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OwnerLocationIndexTest {
+
+	private final OwnerLocationIndex index = new OwnerLocationIndex(null, null, new DistanceService());
+
+	@Test
+	void findNearestReturnsOnlyOwnersInsideRadiusOrderedByDistance() {
+		index.index(owner(1L, 12.9716, 77.5946));  // Bengaluru
+		index.index(owner(2L, 13.0827, 80.2707));  // Chennai, ~290 km away
+		index.index(owner(3L, 12.9900, 77.6000));  // ~2 km away
+		index.index(owner(4L, 13.2000, 77.7000));  // ~28 km away
+
+		List<OwnerLocationIndex.Neighbor> nearest = index.findNearest(12.9716, 77.5946, 50.0, 10, null);
+
+		assertThat(nearest).extracting(OwnerLocationIndex.Neighbor::farmerId).containsExactly(1L, 3L, 4L);
+	}
+
+	@Test
+	void findNearestHonoursLimitAndExcludedOwner() {
+		index.index(owner(1L, 12.9716, 77.5946));
+		index.index(owner(2L, 12.9800, 77.5946));
+		index.index(owner(3L, 12.9900, 77.5946));
+
+		List<OwnerLocationIndex.Neighbor> nearest = index.findNearest(12.9716, 77.5946, 50.0, 1, 1L);
+
+		assertThat(nearest).extracting(OwnerLocationIndex.Neighbor::farmerId).containsExactly(2L);
+	}
+
+	@Test
+	void refreshMovesOwnerToNewCell() {
+		index.index(owner(1L, 12.9716, 77.5946));
+		index.index(owner(1L, 13.0827, 80.2707));
+
+		assertThat(index.findNearest(12.9716, 77.5946, 50.0, 10, null)).isEmpty();
+		assertThat(index.findNearest(13.0827, 80.2707, 50.0, 10, null))
+				.extracting(OwnerLocationIndex.Neighbor::farmerId).containsExactly(1L);
+	}
+
+	@Test
+	void ownersWithoutCoordinatesFillRemainingSlots() {
+		index.index(owner(1L, 12.9716, 77.5946));
+		index.index(owner(2L, 0.0, 0.0));
+
+		List<OwnerLocationIndex.Neighbor> nearest = index.findNearest(12.9716, 77.5946, 50.0, 10, null);
+
+		assertThat(nearest).extracting(OwnerLocationIndex.Neighbor::farmerId).containsExactly(1L, 2L);
+		assertThat(nearest.get(1).distanceKm()).isZero();
+	}
+
+	private Farmer owner(Long id, double latitude, double longitude) {
+		Farmer farmer = new Farmer();
+		farmer.setId(id);
+		farmer.setPhone("9000000" + id);
+		farmer.setLatitude(latitude);
+		farmer.setLongitude(longitude);
+		return farmer;
+	}
+}
@@ -0,0 +1,80 @@
+package com.farmtech.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlantDiseaseDedupCacheTest {
+
+	private static final String BLIGHT = "{\"disease\":\"leaf_blight\"}";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PlantDiseaseDedupCache cache = new PlantDiseaseDedupCache(meterRegistry, 5, 100, 60);
+
+	@Test
+	void nearDuplicatesAreAnsweredFromCache() {
+		long photo = 0x9F3A_5C21_D4E8_0B76L;
+		cache.remember(photo, ResponseEntity.ok(BLIGHT));
+
+		// Five flipped bits, spread over different chunks
+		Optional<ResponseEntity<?>> retry = cache.lookup(photo ^ (1L | 1L << 13 | 1L << 27 | 1L << 41 | 1L << 63));
+		Optional<ResponseEntity<?>> otherLeaf = cache.lookup(photo ^ 0x3FL);
+
+		assertThat(retry).hasValueSatisfying(response -> {
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			assertThat(response.getBody()).isEqualTo(BLIGHT);
+		});
+		assertThat(otherLeaf).isEmpty();
+		assertThat(meterRegistry.get("ml.dedup.lookups").tag("result", "hit").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("ml.dedup.lookups").tag("result", "miss").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("ml.dedup.hit.ratio").gauge().value()).isEqualTo(0.5);
+	}
+
+	@Test
+	void nearestCachedPhotoWins() {
+		long photo = 0x0123_4567_89AB_CDEFL;
+		cache.remember(photo ^ 0b111, ResponseEntity.ok("{\"disease\":\"rust\"}"));
+		cache.remember(photo ^ 0b1, ResponseEntity.ok(BLIGHT));
+
+		assertThat(cache.lookup(photo)).hasValueSatisfying(response -> assertThat(response.getBody()).isEqualTo(BLIGHT));
+	}
+
+	@Test
+	void onlySuccessfulAnswersAreKept() {
+		cache.remember(42L, ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", "busy")));
+		cache.remember(43L, ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("boom"));
+
+		assertThat(cache.lookup(42L)).isEmpty();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void leastRecentlyUsedPhotosAreEvicted() {
+		Random random = new Random(7);
+		long[] photos = new long[150];
+		for (int i = 0; i < photos.length; i++) {
+			photos[i] = random.nextLong();
+			cache.remember(photos[i], ResponseEntity.ok("{\"photo\":" + i + "}"));
+		}
+
+		assertThat(cache.size()).isEqualTo(100);
+		assertThat(cache.lookup(photos[0])).isEmpty();
+		assertThat(cache.lookup(photos[149])).hasValueSatisfying(response -> assertThat(response.getBody()).isEqualTo("{\"photo\":149}"));
+	}
+
+	@Test
+	void expiredAnswersAreNotServed() {
+		PlantDiseaseDedupCache expiring = new PlantDiseaseDedupCache(new SimpleMeterRegistry(), 5, 100, 0);
+		expiring.remember(7L, ResponseEntity.ok(BLIGHT));
+
+		assertThat(expiring.lookup(7L)).isEmpty();
+		assertThat(expiring.size()).isZero();
+	}
+}
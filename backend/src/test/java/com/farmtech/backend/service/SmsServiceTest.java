@@ -0,0 +1,147 @@
+package com.farmtech.backend.service;
+
+import com.farmtech.backend.config.AsyncConfig;
+import com.farmtech.backend.entity.SmsOutboxMessage;
+import com.farmtech.backend.entity.SmsOutboxMessage.Status;
+import com.farmtech.backend.repository.SmsOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"sms.enabled=true",
+		"sms.rate-per-second=1000",
+		"sms.dispatch.poll-interval-ms=3600000"
+})
+@ActiveProfiles("h2")
+@Import({SmsService.class, AsyncConfig.class, SimpleMeterRegistry.class, SmsServiceTest.FakeSmsProvider.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SmsServiceTest {
+
+	@Autowired
+	private SmsService smsService;
+
+	@Autowired
+	private SmsOutboxRepository outboxRepository;
+
+	@Autowired
+	private FakeSmsProvider provider;
+
+	@BeforeEach
+	void reset() {
+		outboxRepository.deleteAll();
+		provider.sent.clear();
+		provider.failuresLeft.set(0);
+	}
+
+	@Test
+	void messagesAreDeliveredOffTheCallingThread() throws Exception {
+		smsService.sendSms("+919800000001", "Booking 1 confirmed");
+
+		SmsOutboxMessage message = awaitStatus(Status.SENT);
+		assertThat(message.getSentAt()).isNotNull();
+		assertThat(provider.sent).singleElement().satisfies(sent -> {
+			assertThat(sent.to()).isEqualTo("+919800000001");
+			assertThat(sent.thread()).isNotEqualTo(Thread.currentThread().getName());
+		});
+	}
+
+	@Test
+	void failedSendsBackOffAndAreRetriedByThePoller() throws Exception {
+		provider.failuresLeft.set(1);
+		smsService.sendSms("+919800000002", "Booking 2 confirmed");
+
+		SmsOutboxMessage failed = awaitAttempts(1);
+		assertThat(failed.getStatus()).isEqualTo(Status.PENDING);
+		assertThat(failed.getNextAttemptAt()).isAfter(LocalDateTime.now());
+		assertThat(provider.sent).isEmpty();
+
+		// Not due yet, so nothing is sent
+		smsService.dispatchDue(LocalDateTime.now());
+		Thread.sleep(200);
+		assertThat(provider.sent).isEmpty();
+
+		SmsOutboxMessage sent = await(message -> message.getStatus() == Status.SENT,
+				() -> smsService.dispatchDue(failed.getNextAttemptAt()));
+		assertThat(sent.getAttempts()).isEqualTo(1);
+		assertThat(provider.sent).hasSize(1);
+	}
+
+	@Test
+	void messagesFailAfterMaxAttempts() throws Exception {
+		provider.failuresLeft.set(Integer.MAX_VALUE);
+		smsService.sendSms("+919800000003", "Booking 3 confirmed");
+
+		// Keep polling past every backoff until the attempts run out
+		SmsOutboxMessage failed = await(message -> message.getStatus() == Status.FAILED,
+				() -> smsService.dispatchDue(LocalDateTime.now().plusDays(1)));
+		assertThat(failed.getAttempts()).isEqualTo(SmsService.MAX_ATTEMPTS);
+		assertThat(failed.getLastError()).contains("simulated outage");
+	}
+
+	@Test
+	void backoffDoublesUpToTheCap() {
+		assertThat(smsService.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+		assertThat(smsService.backoff(2)).isEqualTo(Duration.ofSeconds(10));
+		assertThat(smsService.backoff(4)).isEqualTo(Duration.ofSeconds(40));
+		assertThat(smsService.backoff(30)).isEqualTo(Duration.ofMinutes(10));
+	}
+
+	private SmsOutboxMessage awaitStatus(Status status) throws InterruptedException {
+		return await(message -> message.getStatus() == status, () -> {});
+	}
+
+	private SmsOutboxMessage awaitAttempts(int attempts) throws InterruptedException {
+		return await(message -> message.getAttempts() == attempts, () -> {});
+	}
+
+	private SmsOutboxMessage await(Predicate<SmsOutboxMessage> condition, Runnable poll) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			poll.run();
+			List<SmsOutboxMessage> messages = outboxRepository.findAll();
+			if (messages.size() == 1 && condition.test(messages.get(0))) {
+				return messages.get(0);
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("Outbox row did not reach the expected state: " + outboxRepository.findAll());
+	}
+
+	// Local stand-in for the gateway: records what was sent and can fail on demand
+	static class FakeSmsProvider implements SmsProvider {
+
+		record Sent(String to, String body, String thread) {}
+
+		final List<Sent> sent = new CopyOnWriteArrayList<>();
+		final AtomicInteger failuresLeft = new AtomicInteger();
+
+		@Override
+		public void send(String to, String body) {
+			if (failuresLeft.getAndDecrement() > 0) {
+				throw new IllegalStateException("simulated outage");
+			}
+			sent.add(new Sent(to, body, Thread.currentThread().getName()));
+		}
+
+		@Override
+		public String name() {
+			return "fake";
+		}
+	}
+}
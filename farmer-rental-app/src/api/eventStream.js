@@ -0,0 +1,23 @@
+import api from "./axiosInstance";
+
+// Subscribe to a backend Server-Sent Events stream (e.g. "/bookings/owner/5/events").
+// `handlers` maps event names to callbacks; returns an unsubscribe function.
+// EventSource reconnects on its own after network errors.
+export function subscribeToEvents(path, handlers) {
+  if (typeof window === "undefined" || !window.EventSource) {
+    return () => {};
+  }
+  const source = new EventSource(`${api.defaults.baseURL}${path}`);
+  Object.entries(handlers).forEach(([eventName, handler]) => {
+    source.addEventListener(eventName, (event) => {
+      let data = null;
+      try {
+        data = JSON.parse(event.data);
+      } catch (e) {
+        data = event.data;
+      }
+      handler(data);
+    });
+  });
+  return () => source.close();
+}
@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from "react";
 import api from "../api/axiosInstance";
+import { subscribeToEvents } from "../api/eventStream";
 
 const NotificationSystem = () => {
   const [notifications, setNotifications] = useState([]);
@@ -59,10 +60,21 @@ const NotificationSystem = () => {
     };
 
     fetchNotifications();
-    
-    // Refresh notifications every 30 seconds
-    const interval = setInterval(fetchNotifications, 30000);
-    return () => clearInterval(interval);
+
+    // Refetch only when the backend pushes a change; the slow poll is a safety net for missed events
+    const unsubscribe = userRole === "OWNER"
+      ? subscribeToEvents(`/bookings/owner/${farmerId}/events`, {
+          "invitation-created": fetchNotifications,
+          "invitation-revoked": fetchNotifications,
+        })
+      : subscribeToEvents(`/bookings/renter/${farmerId}/events`, {
+          "booking-updated": fetchNotifications,
+        });
+    const interval = setInterval(fetchNotifications, 5 * 60 * 1000);
+    return () => {
+      unsubscribe();
+      clearInterval(interval);
+    };
   }, []);
 
   const markAsRead = (notificationId) => {
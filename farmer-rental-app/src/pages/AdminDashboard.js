@@ -3,12 +3,16 @@ import { useNavigate } from "react-router-dom";
 import api from "../api/axiosInstance";
 import NotificationSystem from "../components/NotificationSystem";
 
+const BOOKING_PAGE_SIZE = 50;
+
 const AdminDashboard = () => {
   const navigate = useNavigate();
   const [activeTab, setActiveTab] = useState("overview");
   const [users, setUsers] = useState([]);
   const [equipment, setEquipment] = useState([]);
   const [bookings, setBookings] = useState([]);
+  const [bookingCounts, setBookingCounts] = useState({});
+  const [nextBookingCursor, setNextBookingCursor] = useState(null);
   const [loading, setLoading] = useState(false);
   const [showAddEquipmentForm, setShowAddEquipmentForm] = useState(false);
   const [equipmentForm, setEquipmentForm] = useState({
@@ -40,15 +44,19 @@ const AdminDashboard = () => {
     setLoading(true);
     try {
       // Load users, equipment, and bookings data
-      const [usersRes, equipmentRes, bookingsRes] = await Promise.all([
+      // Bookings come in keyset pages of lightweight rows; totals come from /bookings/counts
+      const [usersRes, equipmentRes, bookingsRes, countsRes] = await Promise.all([
         api.get("/users"),
         api.get("/equipments"),
-        api.get("/bookings")
+        api.get("/bookings/page", { params: { size: BOOKING_PAGE_SIZE } }),
+        api.get("/bookings/counts")
       ]);
       
       setUsers(usersRes.data || []);
       setEquipment(equipmentRes.data || []);
-      setBookings(bookingsRes.data || []);
+      setBookings(bookingsRes.data?.items || []);
+      setNextBookingCursor(bookingsRes.data?.nextCursor ?? null);
+      setBookingCounts(countsRes.data || {});
     } catch (error) {
       console.error("Error loading dashboard data:", error);
     } finally {
@@ -56,6 +64,28 @@ const AdminDashboard = () => {
     }
   };
 
+  const loadMoreBookings = async () => {
+    if (nextBookingCursor == null) return;
+    try {
+      const response = await api.get("/bookings/page", {
+        params: { cursor: nextBookingCursor, size: BOOKING_PAGE_SIZE }
+      });
+      setBookings(prev => [...prev, ...(response.data?.items || [])]);
+      setNextBookingCursor(response.data?.nextCursor ?? null);
+    } catch (error) {
+      console.error("Error loading more bookings:", error);
+    }
+  };
+
+  const refreshBookingCounts = async () => {
+    try {
+      const response = await api.get("/bookings/counts");
+      setBookingCounts(response.data || {});
+    } catch (error) {
+      console.error("Error loading booking counts:", error);
+    }
+  };
+
   const handleLogout = () => {
     localStorage.clear();
     navigate("/login");
@@ -202,14 +232,13 @@ const AdminDashboard = () => {
   const viewBookingDetails = (booking) => {
     alert(`Booking Details:
 ID: ${booking.id}
-Equipment: ${booking.equipment?.name || "N/A"}
-Renter: ${booking.renter?.name || "N/A"} (${booking.renter?.phone || "N/A"})
-Owner: ${booking.owner?.name || booking.acceptedOwner?.name || "N/A"}
+Equipment: ${booking.equipmentName || "N/A"}
+Renter: ${booking.renterName || "N/A"} (${booking.renterPhone || "N/A"})
+Accepted By: ${booking.acceptedOwnerName || "N/A"}
 Start Date: ${booking.startDate}
 Hours: ${booking.hours || "N/A"}
 Status: ${booking.status}
 Total Cost: ₹${booking.totalCost || "0"}
-Location: ${booking.location || "N/A"}
 Created: ${booking.createdAt ? new Date(booking.createdAt).toLocaleString() : "N/A"}`);
   };
 
@@ -226,6 +255,7 @@ Created: ${booking.createdAt ? new Date(booking.createdAt).toLocaleString() : "N
             ? { ...booking, status: "CANCELLED" }
             : booking
         ));
+        refreshBookingCounts();
         
         alert("✅ Booking cancelled successfully");
       } catch (error) {
@@ -258,12 +288,12 @@ Created: ${booking.createdAt ? new Date(booking.createdAt).toLocaleString() : "N
       
       <div style={styles.statCard}>
         <h3>📋 Total Bookings</h3>
-        <div style={styles.statNumber}>{bookings.length}</div>
+        <div style={styles.statNumber}>{bookingCounts.TOTAL || 0}</div>
         <div style={styles.statBreakdown}>
-          <div>Pending: {bookings.filter(b => b.status?.toUpperCase() === "PENDING").length}</div>
-          <div>Confirmed: {bookings.filter(b => b.status?.toUpperCase() === "CONFIRMED").length}</div>
-          <div>Completed: {bookings.filter(b => b.status?.toUpperCase() === "COMPLETED").length}</div>
-          <div>Cancelled: {bookings.filter(b => b.status?.toUpperCase() === "CANCELLED").length}</div>
+          <div>Pending: {bookingCounts.PENDING || 0}</div>
+          <div>Confirmed: {bookingCounts.CONFIRMED || 0}</div>
+          <div>Completed: {bookingCounts.COMPLETED || 0}</div>
+          <div>Cancelled: {bookingCounts.CANCELLED || 0}</div>
         </div>
       </div>
     </div>
@@ -539,13 +569,13 @@ Created: ${booking.createdAt ? new Date(booking.createdAt).toLocaleString() : "N
         <h3>📋 Booking Management</h3>
         <div style={styles.bookingStats}>
           <span style={styles.statBadge}>
-            Pending: {bookings.filter(b => b.status === "PENDING").length}
+            Pending: {bookingCounts.PENDING || 0}
           </span>
           <span style={styles.statBadge}>
-            Confirmed: {bookings.filter(b => b.status === "CONFIRMED").length}
+            Confirmed: {bookingCounts.CONFIRMED || 0}
           </span>
           <span style={styles.statBadge}>
-            Completed: {bookings.filter(b => b.status === "COMPLETED").length}
+            Completed: {bookingCounts.COMPLETED || 0}
           </span>
         </div>
       </div>
@@ -566,14 +596,14 @@ Created: ${booking.createdAt ? new Date(booking.createdAt).toLocaleString() : "N
         {bookings.map(booking => (
           <div key={booking.id} style={{...styles.tableRow, gridTemplateColumns: "80px 1fr 1fr 1fr 100px 80px 100px 100px 150px"}}>
             <div style={styles.tableCell}>#{booking.id}</div>
-            <div style={styles.tableCell}>{booking.equipment?.name || "N/A"}</div>
+            <div style={styles.tableCell}>{booking.equipmentName || "N/A"}</div>
             <div style={styles.tableCell}>
-              <div>{booking.renter?.name || "N/A"}</div>
-              <div style={styles.subText}>{booking.renter?.phone || ""}</div>
+              <div>{booking.renterName || "N/A"}</div>
+              <div style={styles.subText}>{booking.renterPhone || ""}</div>
             </div>
             <div style={styles.tableCell}>
-              <div>{booking.acceptedOwner?.name || "Not Accepted"}</div>
-              <div style={styles.subText}>{booking.acceptedOwner?.phone || ""}</div>
+              <div>{booking.acceptedOwnerName || "Not Accepted"}</div>
+              <div style={styles.subText}>{booking.acceptedOwnerPhone || ""}</div>
             </div>
             <div style={styles.tableCell}>{booking.startDate}</div>
             <div style={styles.tableCell}>{booking.hours || "N/A"}</div>
@@ -609,6 +639,11 @@ Created: ${booking.createdAt ? new Date(booking.createdAt).toLocaleString() : "N
           </div>
         ))}
       </div>
+      {nextBookingCursor != null && (
+        <button style={styles.viewButton} onClick={loadMoreBookings}>
+          Load more
+        </button>
+      )}
     </div>
   );
 
@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import api from "../api/axiosInstance";
+import { subscribeToEvents } from "../api/eventStream";
 import { useI18n } from "../i18n/i18n";
 import LanguageSwitcher from "../components/LanguageSwitcher";
 
@@ -57,9 +58,16 @@ export default function MyBookings() {
     setBookings([]);
     
     fetchData();
-    // Auto-refresh every 30 seconds
-    const interval = setInterval(fetchData, 30000);
-    return () => clearInterval(interval);
+    // Refresh when the backend pushes a booking change; slow poll as a fallback
+    const renterId = localStorage.getItem("farmerId") || localStorage.getItem("userId");
+    const unsubscribe = renterId
+      ? subscribeToEvents(`/bookings/renter/${renterId}/events`, { "booking-updated": fetchData })
+      : () => {};
+    const interval = setInterval(fetchData, 5 * 60 * 1000);
+    return () => {
+      unsubscribe();
+      clearInterval(interval);
+    };
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [loginTimestamp]);
 